@@ -12,6 +12,7 @@ import javafx.stage.Stage;
 import models.account.Account;
 import models.account.Admin;
 import models.account.Artist;
+import services.CatalogService;
 import services.SessionManager;
 import services.file.AdminFileManager;
 import services.file.ArtistFileManager;
@@ -37,9 +38,9 @@ public class SignInController {
     private final ConfigLoader configLoader;
 
     public SignInController() {
-        this.userManager = new UserFileManager();
-        this.artistManager = new ArtistFileManager();
-        this.adminFileManager = new AdminFileManager();
+        this.userManager = CatalogService.getInstance().getUserFileManager();
+        this.artistManager = CatalogService.getInstance().getArtistFileManager();
+        this.adminFileManager = CatalogService.getInstance().getAdminFileManager();
         this.configLoader = ConfigLoader.getInstance();
     }
 
@@ -4,6 +4,7 @@ import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
+import services.CatalogService;
 import services.AccountManager;
 import services.file.AdminFileManager;
 import utils.AlertUtil;
@@ -29,7 +30,7 @@ public class SignUpController {
     private final String CSS_STYLE = "/CSS/styles.css";
 
     public SignUpController() {
-        this.adminFileManager = new AdminFileManager();
+        this.adminFileManager = CatalogService.getInstance().getAdminFileManager();
     }
 
     @FXML
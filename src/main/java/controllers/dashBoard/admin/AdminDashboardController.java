@@ -11,6 +11,7 @@ import models.DTO.ArtistRequestDTO;
 import models.DTO.LyricsEditRequestDTO;
 import models.account.Admin;
 import models.music.Lyrics;
+import services.CatalogService;
 import services.file.FileManager;
 import services.file.LyricsRequestManager;
 import services.file.SongFileManager;
@@ -55,8 +56,8 @@ public class AdminDashboardController {
     private LyricsEditRequestDTO selectedLyricsEditRequestDTO;
     private ObservableList<Object> requests;
 
-    private final LyricsRequestManager lyricsRequestManager = new LyricsRequestManager();
-    private final FileManager fileManager = new LyricsRequestManager();
+    private final LyricsRequestManager lyricsRequestManager = CatalogService.getInstance().getLyricsRequestManager();
+    private final FileManager fileManager = CatalogService.getInstance().getLyricsRequestManager();
 
     @FXML
     private void initialize() {
@@ -130,7 +131,7 @@ public class AdminDashboardController {
 
     private void loadLyricsDetails(LyricsEditRequestDTO request) {
         if (originalLyricsTextArea != null) {
-            SongFileManager songFileManager = new SongFileManager();
+            SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
             String songDir = songFileManager.getSongDir(request.artistNickname(), request.songTitle(), request.albumName());
             File songFile = new File(songDir + FileUtil.sanitizeFileName(request.songTitle()) + ".txt");
             File lyricsFile = new File(songDir + FileUtil.sanitizeFileName(request.songTitle()) + "_lyrics.txt");
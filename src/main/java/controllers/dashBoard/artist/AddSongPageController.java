@@ -6,15 +6,13 @@ import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
 import models.music.Album;
 import models.music.Song;
+import services.CatalogService;
 import services.file.SongFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -32,7 +30,7 @@ public class AddSongPageController extends BaseArtistController {
     @FXML private ImageView imagePreview;
     @FXML private Button submitButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
     private File selectedImageFile;
 
     @FXML
@@ -160,17 +158,11 @@ public class AddSongPageController extends BaseArtistController {
                 if (isSingleTrack) {
                     albumArtPath = songFileManager.saveSingleSongArt(artistName, title, selectedImageFile);
                 } else {
-                    // For songs in an album, we save the image in the song directory.
-                    String songDir = songFileManager.getSongDir(artistName, title, selectedAlbum);
-                    FileUtil.ensureDataDirectoryExists(songDir);
-                    String fileExtension = selectedImageFile.getName().substring(selectedImageFile.getName().lastIndexOf("."));
-                    String newArtFile = songDir + "song_art" + fileExtension;
                     try {
-                        Files.copy(selectedImageFile.toPath(), Paths.get(newArtFile), StandardCopyOption.REPLACE_EXISTING);
-                        albumArtPath = newArtFile;
-                        System.out.println("Saved song art to: " + newArtFile);
+                        albumArtPath = songFileManager.saveSongArt(artistName, title, selectedAlbum, selectedImageFile);
+                        System.out.println("Saved song art to: " + albumArtPath);
                     } catch (IOException e) {
-                        System.err.println("Failed to save song art to: " + newArtFile + " - " + e.getMessage());
+                        System.err.println("Failed to save song art for: " + title + " - " + e.getMessage());
                         AlertUtil.showError("Failed to save song art: " + e.getMessage());
                         return;
                     }
@@ -196,7 +188,8 @@ public class AddSongPageController extends BaseArtistController {
                 lyrics,
                 LocalDate.now().toString(),
                 0, 0,
-                albumArtPath);
+                albumArtPath,
+                true);
 
         resetForm();
         loadAlbums();
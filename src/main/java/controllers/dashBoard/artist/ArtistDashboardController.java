@@ -5,6 +5,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import models.music.Album;
 import models.music.Song;
+import services.CatalogService;
 import services.file.ArtistFileManager;
 import services.file.SongFileManager;
 
@@ -18,8 +19,8 @@ public class ArtistDashboardController extends BaseArtistController {
     @FXML private Label totalViewsLabel;
     @FXML private Button signOutButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
 
     @FXML
     private void initialize() {
@@ -10,6 +10,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import models.DTO.LyricsEditRequestDTO;
 import models.music.Lyrics;
+import services.CatalogService;
 import services.file.FileManager;
 import services.file.LyricsRequestManager;
 import services.file.SongFileManager;
@@ -40,8 +41,8 @@ public class ArtistManagementController extends BaseArtistController {
     @FXML private Button rejectLyricsButton;
     @FXML private TextArea originalLyricsTextArea;
 
-    private final LyricsRequestManager lyricsRequestManager = new LyricsRequestManager();
-    private final FileManager fileManager = new LyricsRequestManager();
+    private final LyricsRequestManager lyricsRequestManager = CatalogService.getInstance().getLyricsRequestManager();
+    private final FileManager fileManager = CatalogService.getInstance().getLyricsRequestManager();
     private ObservableList<LyricsEditRequestDTO> requests;
     private LyricsEditRequestDTO selectedLyricsEditRequestDTO;
 
@@ -122,7 +123,7 @@ public class ArtistManagementController extends BaseArtistController {
     private void loadLyricsDetails(LyricsEditRequestDTO request) {
         checkComponent(originalLyricsTextArea, "originalLyricsTextArea");
 
-        SongFileManager songFileManager = new SongFileManager();
+        SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
         String songDir = songFileManager.getSongDir(request.artistNickname(), request.songTitle(), request.albumName());
         File songFile = new File(songDir + FileUtil.sanitizeFileName(request.songTitle()) + ".txt");
         File lyricsFile = new File(songDir + FileUtil.sanitizeFileName(request.songTitle()) + "_lyrics.txt");
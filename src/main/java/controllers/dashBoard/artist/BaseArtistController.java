@@ -2,14 +2,14 @@ package controllers.dashBoard.artist;
 
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import models.account.Artist;
 import services.SessionManager;
 import utils.AlertUtil;
+import utils.ImageCache;
 
 import java.io.File;
-import java.util.Objects;
+import java.net.URI;
 
 public abstract class BaseArtistController {
 
@@ -47,7 +47,7 @@ public abstract class BaseArtistController {
         checkComponent(imageView, "imageView");
         if (imageView != null) {
             try {
-                imageView.setImage(new Image(Objects.requireNonNull(getClass().getResource(DEFAULT_IMAGE_PATH)).toExternalForm()));
+                ImageCache.loadResource(imageView, DEFAULT_IMAGE_PATH);
             } catch (Exception e) {
                 System.err.println("Failed to load default image: " + e.getMessage());
             }
@@ -83,15 +83,14 @@ public abstract class BaseArtistController {
                 File albumArtFile;
                 if (normalizedPath.startsWith("file:/")) {
                     System.out.println("Loading image from URL: " + normalizedPath);
-                    imageView.setImage(new Image(normalizedPath));
+                    ImageCache.load(imageView, new File(URI.create(normalizedPath)).getPath());
                 } else {
                     // Construct the absolute path
                     albumArtFile = new File(normalizedPath);
                     System.out.println("Checking image file: " + albumArtFile.getAbsolutePath() + " - Exists: " + albumArtFile.exists());
                     if (albumArtFile.exists()) {
-                        String uri = albumArtFile.toURI().toString();
-                        System.out.println("Loading image from URI: " + uri);
-                        imageView.setImage(new Image(uri));
+                        System.out.println("Loading image from: " + albumArtFile.getPath());
+                        ImageCache.load(imageView, albumArtFile.getPath());
                     } else {
                         System.out.println("Image file does not exist at: " + albumArtFile.getAbsolutePath() + ", loading default image.");
                         loadDefaultImage(imageView);
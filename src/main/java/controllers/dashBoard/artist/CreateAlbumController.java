@@ -6,6 +6,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
+import services.CatalogService;
 import services.file.SongFileManager;
 import utils.AlertUtil;
 
@@ -21,7 +22,7 @@ public class CreateAlbumController extends BaseArtistController {
     @FXML private ImageView imagePreview;
     @FXML private Button submitButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
     private File selectedImageFile;
 
     @FXML
@@ -5,6 +5,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.image.ImageView;
+import services.CatalogService;
 import services.file.ArtistFileManager;
 import services.file.SongFileManager;
 import utils.AlertUtil;
@@ -22,8 +23,8 @@ public class DeleteAlbumController extends BaseArtistController {
     @FXML private Label releaseDateLabel;
     @FXML private ImageView albumArtImageView;
 
-    private final SongFileManager songFileManager = new SongFileManager();
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
 
     @FXML
     public void initialize() {
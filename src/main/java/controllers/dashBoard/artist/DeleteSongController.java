@@ -5,6 +5,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.image.ImageView;
+import services.CatalogService;
 import services.file.SongFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
@@ -26,7 +27,7 @@ public class DeleteSongController extends BaseArtistController {
     @FXML private Label likesLabel;
     @FXML private ImageView albumArtImageView;
 
-    private final SongFileManager songFileManager = new SongFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
     private final Map<String, String> songToPathMap = new HashMap<>();
 
     @FXML
@@ -4,9 +4,12 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
+import models.DTO.SongKey;
 import models.music.Album;
 import models.music.Song;
+import services.CatalogService;
 import services.file.ArtistFileManager;
+import services.file.SongCounterLog;
 import services.file.SongFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
@@ -26,8 +29,8 @@ public class EditAlbumController extends BaseArtistController {
     @FXML private Button chooseImageButton;
     @FXML private Button submitButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
     private File selectedImageFile;
 
     @FXML
@@ -187,16 +190,10 @@ public class EditAlbumController extends BaseArtistController {
             // Rename the directory if the album title has changed
             if (!selectedAlbum.equals(newTitle)) {
                 String newAlbumDir = songFileManager.getAlbumDir(artist.getNickName(), newTitle);
-                File oldDir = new File(oldAlbumDir);
                 File newDir = new File(newAlbumDir);
 
-                // If the new directory exists, delete it
-                if (newDir.exists()) {
-                    FileUtil.deleteDirectory(newDir);
-                }
-
                 // Rename the directory
-                FileUtil.renameDirectory(oldDir, newDir);
+                songFileManager.renameAlbum(artist.getNickName(), selectedAlbum, newTitle);
 
                 // Update image path if it exists
                 if (oldAlbumArtPath != null && !oldAlbumArtPath.trim().isEmpty()) {
@@ -259,11 +256,17 @@ public class EditAlbumController extends BaseArtistController {
                                 .map(line -> Integer.parseInt(line.substring("Likes: ".length())))
                                 .findFirst()
                                 .orElse(0);
-                        int plays = songData.stream()
-                                .filter(line -> line.startsWith("Plays: "))
-                                .map(line -> Integer.parseInt(line.substring("Plays: ".length())))
+                        int views = songData.stream()
+                                .filter(line -> line.startsWith("Views: "))
+                                .map(line -> Integer.parseInt(line.substring("Views: ".length())))
                                 .findFirst()
                                 .orElse(0);
+                        // The album rename carried the pending counters over to the new title
+                        SongKey counterKey = new SongKey(artist.getNickName(), newTitle, songTitle);
+                        int pendingLikes = SongCounterLog.getInstance().getPendingLikes(counterKey);
+                        int pendingViews = SongCounterLog.getInstance().getPendingViews(counterKey);
+                        likes += pendingLikes;
+                        views += pendingViews;
                         String lyrics = songFileManager.loadLyrics(songPath);
                         songFileManager.saveSong(
                                 List.of(artist.getNickName()),
@@ -272,9 +275,11 @@ public class EditAlbumController extends BaseArtistController {
                                 lyrics,
                                 albumToUpdate.getReleaseDate(),
                                 likes,
-                                plays,
-                                albumToUpdate.getAlbumArtPath()
+                                views,
+                                albumToUpdate.getAlbumArtPath(),
+                                false
                         );
+                        SongCounterLog.getInstance().settle(counterKey, pendingViews, pendingLikes);
                     }
                 }
             }
@@ -4,9 +4,12 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
+import models.DTO.SongKey;
 import models.music.Album;
 import models.music.Song;
+import services.CatalogService;
 import services.file.ArtistFileManager;
+import services.file.SongCounterLog;
 import services.file.SongFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
@@ -28,8 +31,8 @@ public class EditSongController extends BaseArtistController {
     @FXML private Button chooseImageButton;
     @FXML private Button submitButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
     private final Map<String, String> songToPathMap = new HashMap<>();
     private File selectedImageFile;
 
@@ -262,16 +265,9 @@ public class EditSongController extends BaseArtistController {
             // If the song name has changed, update the directory and files
             if (!originalTitle.equals(newTitle)) {
                 String oldSongDir = songFileManager.getSongDir(artist.getNickName(), originalTitle, albumTitle);
-                File oldFolder = new File(oldSongDir);
-                File newFolder = new File(newSongDir);
-
-                // If the new directory exists, delete it first
-                if (newFolder.exists()) {
-                    FileUtil.deleteDirectory(newFolder);
-                }
 
                 // Rename the directory
-                FileUtil.renameDirectory(oldFolder, newFolder);
+                songFileManager.renameSong(artist.getNickName(), albumTitle, originalTitle, newTitle);
 
                 // Transfer image file if present and update path (only for single songs)
                 if (oldAlbumArtPath != null && (albumTitle == null || albumTitle.isEmpty())) {
@@ -312,6 +308,14 @@ public class EditSongController extends BaseArtistController {
                 newAlbumArtPath = null; // Reset if the file doesn't exist
             }
 
+            // The file's counters plus views and likes the counter log hasn't folded in yet; a rename carried those over
+            // to the new title
+            SongKey counterKey = new SongKey(artist.getNickName(), albumTitle, newTitle);
+            int pendingLikes = SongCounterLog.getInstance().getPendingLikes(counterKey);
+            int pendingViews = SongCounterLog.getInstance().getPendingViews(counterKey);
+            likes += pendingLikes;
+            views += pendingViews;
+
             // Save song with new metadata
             System.out.println("Saving edited song: " + newTitle + ", Likes: " + likes + ", Views: " + views + ", SongArtPath: " + newAlbumArtPath);
             songFileManager.saveSong(
@@ -322,8 +326,11 @@ public class EditSongController extends BaseArtistController {
                     releaseDate,
                     likes,
                     views,
-                    newAlbumArtPath
+                    newAlbumArtPath,
+                    false
             );
+            // Only what was read is settled; views and likes that arrived meanwhile stay pending
+            SongCounterLog.getInstance().settle(counterKey, pendingViews, pendingLikes);
 
             // Reload songs and albums to update artist list
             songFileManager.loadSongsAndAlbumsForArtist(artist, artistFileManager);
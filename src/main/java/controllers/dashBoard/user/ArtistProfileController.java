@@ -1,93 +1,155 @@
 package controllers.dashBoard.user;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
 import models.account.Account;
 import models.account.Artist;
 import models.account.User;
+import services.AsyncService;
+import services.CatalogService;
 import services.SessionManager;
+import services.SongRankings;
 import services.file.ArtistFileManager;
+import services.file.UserFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ArtistProfileController extends BaseUserController {
 
     @FXML private Label artistNameLabel;
     @FXML private Label totalSongsLabel;
+    @FXML private Label rankingsLabel;
     @FXML private ListView<String> singlesListView;
     @FXML private ListView<String> albumsListView;
     @FXML private Button followButton;
 
+    private static final String PROFILE_TASK = "artist-profile";
+
     private Artist selectedArtist;
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    // Shown under the profile picture; the follower count follows this user's own follow toggles
+    private int songCount;
+    private int followerCount;
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
 
     @Override
     @FXML
     public void initialize() {
         super.initialize();
-        loadArtistProfile();
         setupListViews();
-        setupFollowButton();
+        // Enabled once the profile has loaded
+        if (followButton != null) followButton.setDisable(true);
+        loadArtistProfile();
     }
 
+    private record Profile(Artist artist, List<String> singles, List<String> albums, int totalSongs, int followers, String rankings) {}
+
     private void loadArtistProfile() {
         String artistName = SessionManager.getInstance().getSelectedArtist();
         if (artistNameLabel != null) {
             artistNameLabel.setText(artistName != null ? artistName : "Unknown Artist");
         }
+        if (totalSongsLabel != null) totalSongsLabel.setText("Total Songs: ...");
+        if (rankingsLabel != null) rankingsLabel.setText("");
 
-        int totalSongs = 0;
-        List<Artist> allArtists = artistFileManager.loadAllArtists();
-        selectedArtist = allArtists.stream()
-                .filter(artist -> artist.getNickName().equals(artistName))
+        AsyncService.getInstance().supplyLatest(PROFILE_TASK, () -> readProfile(artistName))
+                .whenCompleteAsync((profile, error) -> {
+                    if (error != null) {
+                        if (!AsyncService.isCancellation(error)) {
+                            AlertUtil.showError("Failed to load artist profile: " + AsyncService.unwrap(error).getMessage());
+                        }
+                        return;
+                    }
+                    if (profile == null) {
+                        AlertUtil.showError("Artist not found.");
+                        return;
+                    }
+                    selectedArtist = profile.artist();
+                    showItems(singlesListView, profile.singles(), false);
+                    showItems(albumsListView, profile.albums(), true);
+                    songCount = profile.totalSongs();
+                    followerCount = profile.followers();
+                    showCounts();
+                    if (rankingsLabel != null) rankingsLabel.setText(profile.rankings());
+                    setupFollowButton();
+                }, Platform::runLater);
+    }
+
+    // Runs on a background thread
+    private Profile readProfile(String artistName) {
+        Artist artist = artistFileManager.loadAllArtists().stream()
+                .filter(candidate -> candidate.getNickName().equals(artistName))
                 .findFirst()
                 .orElse(null);
+        if (artist == null) return null;
 
-        if (selectedArtist == null) {
-            AlertUtil.showError("Artist not found.");
-            return;
-        }
-
+        int totalSongs = 0;
+        List<String> singles = new ArrayList<>();
         File singlesDir = new File(FileUtil.DATA_DIR + "artists/" + artistName + "/singles/");
         if (singlesDir.exists() && singlesDir.isDirectory()) {
-            totalSongs += loadItemsFromDirectory(singlesDir, singlesListView, "Song Name:", false);
+            totalSongs += loadItemsFromDirectory(singlesDir, singles, "Song Name:", false);
         } else {
             System.out.println("Singles directory not found: " + singlesDir.getPath());
-            singlesListView.getItems().clear();
-            singlesListView.getItems().add("None - No singles available");
+            singles.add("None - No singles available");
         }
 
+        List<String> albums = new ArrayList<>();
         File albumsDir = new File(FileUtil.DATA_DIR + "artists/" + artistName + "/albums/");
         if (albumsDir.exists() && albumsDir.isDirectory()) {
-            totalSongs += loadItemsFromDirectory(albumsDir, albumsListView, "Album Title:", true);
+            totalSongs += loadItemsFromDirectory(albumsDir, albums, "Album Title:", true);
         } else {
             System.out.println("Albums directory not found: " + albumsDir.getPath());
-            albumsListView.getItems().clear();
-            albumsListView.getItems().add("None - No albums available");
+            albums.add("None - No albums available");
         }
+        return new Profile(artist, singles, albums, totalSongs, artistFileManager.getFollowerCount(artistName), describeRankings(artistName));
+    }
 
-        if (totalSongsLabel != null) {
-            totalSongsLabel.setText("Total Songs: " + totalSongs);
-        }
+    // Runs on a background thread; the rankings are built with the catalog on first use, then read in O(log n)
+    private String describeRankings(String artistName) {
+        CatalogService.getInstance().getSearchAndChartManager();
+        SongRankings rankings = SongRankings.getInstance();
+        SongRankings.Scope artistScope = SongRankings.Scope.artist(artistName);
+        List<SongDTO> mostViewed = rankings.getTop(SongRankings.Dimension.VIEWS, artistScope, 1);
+        List<SongDTO> mostLiked = rankings.getTop(SongRankings.Dimension.LIKES, artistScope, 1);
+        List<SongDTO> latest = rankings.getTop(SongRankings.Dimension.RELEASE_DATE, artistScope, 1);
+        if (mostViewed.isEmpty()) return "No ranked songs yet";
+
+        return "Most viewed: " + describeRank(rankings, mostViewed.get(0), SongRankings.Dimension.VIEWS)
+                + "\nMost liked: " + describeRank(rankings, mostLiked.get(0), SongRankings.Dimension.LIKES)
+                + "\nLatest release: " + latest.get(0).title() + " (" + latest.get(0).releaseDate() + ")";
     }
 
-    private int loadItemsFromDirectory(File directory, ListView<String> listView, String titlePrefix, boolean isAlbum) {
-        int itemCount = 0;
+    private String describeRank(SongRankings rankings, SongDTO song, SongRankings.Dimension dimension) {
+        int rank = rankings.rankOf(SongKey.of(song), dimension, SongRankings.Scope.GLOBAL);
+        return song.title() + " (#" + rank + " of " + rankings.size(SongRankings.Scope.GLOBAL) + " overall)";
+    }
+
+    private void showCounts() {
+        if (totalSongsLabel != null) totalSongsLabel.setText("Total Songs: " + songCount + " | Followers: " + followerCount);
+    }
+
+    private void showItems(ListView<String> listView, List<String> items, boolean isAlbum) {
         if (listView == null) {
             System.err.println("ListView is null for " + (isAlbum ? "albums" : "singles"));
-            return itemCount;
+            return;
         }
+        listView.getItems().setAll(items);
+    }
 
-        listView.getItems().clear();
+    private int loadItemsFromDirectory(File directory, List<String> items, String titlePrefix, boolean isAlbum) {
+        int itemCount = 0;
         File[] folders = directory.listFiles(File::isDirectory);
         if (folders == null || folders.length == 0) {
             System.out.println("No folders found in directory: " + directory.getPath());
-            listView.getItems().add("None - No " + (isAlbum ? "albums" : "singles") + " available");
+            items.add("None - No " + (isAlbum ? "albums" : "singles") + " available");
             return itemCount;
         }
 
@@ -100,7 +162,7 @@ public class ArtistProfileController extends BaseUserController {
                 List<String> data = loadFileData(dataFile.getPath());
                 String title = parseTitle(data, titlePrefix, folderName);
                 if (!title.isEmpty()) {
-                    listView.getItems().add(title);
+                    items.add(title);
                     if (isAlbum) {
                         String songsLine = data.stream()
                                 .filter(line -> line.startsWith("Songs: "))
@@ -117,7 +179,7 @@ public class ArtistProfileController extends BaseUserController {
                 }
             } else {
                 System.err.println("Data file not found: " + dataFile.getPath() + ". Using folder name as fallback.");
-                listView.getItems().add(folderName); // Using directory name as fallback
+                items.add(folderName); // Using directory name as fallback
                 if (isAlbum) {
                     File[] songDirs = folder.listFiles(File::isDirectory);
                     itemCount += (songDirs != null) ? songDirs.length : 0;
@@ -128,8 +190,8 @@ public class ArtistProfileController extends BaseUserController {
             }
         }
 
-        if (listView.getItems().isEmpty()) {
-            listView.getItems().add("None - No " + (isAlbum ? "albums" : "singles") + " available");
+        if (items.isEmpty()) {
+            items.add("None - No " + (isAlbum ? "albums" : "singles") + " available");
         }
 
         return itemCount;
@@ -158,6 +220,7 @@ public class ArtistProfileController extends BaseUserController {
             return;
         }
 
+        followButton.setDisable(false);
         followButton.setText(isFollowingArtist(currentUser) ? "Unfollow" : "Follow");
     }
 
@@ -176,18 +239,42 @@ public class ArtistProfileController extends BaseUserController {
             return;
         }
 
-        try {
-            if (isFollowingArtist(currentUser)) {
-                currentUser.unfollowArtist(selectedArtist);
-                followButton.setText("Follow");
-                AlertUtil.showSuccess("Unfollowed " + selectedArtist.getNickName() + " successfully.");
-            } else {
-                currentUser.followArtist(selectedArtist);
-                followButton.setText("Unfollow");
-                AlertUtil.showSuccess("Followed " + selectedArtist.getNickName() + " successfully.");
-            }
-        } catch (Exception e) {
-            AlertUtil.showError("Failed to update follow status: " + e.getMessage());
+        if (selectedArtist == null) return;
+
+        Artist artist = selectedArtist;
+        boolean following = isFollowingArtist(currentUser);
+        if (!following && !artist.isApproved()) {
+            AlertUtil.showError("Cannot follow an unapproved artist.");
+            return;
         }
+        followButton.setDisable(true);
+        // The follow log is appended to on the IO pool; the user model is only touched back on the UI thread
+        UserFileManager userFileManager = SessionManager.getInstance().getUserFileManager();
+        String userNickName = currentUser.getNickName();
+        AsyncService.getInstance().run(() -> {
+                    if (following) {
+                        userFileManager.unfollowArtist(userNickName, artist.getNickName());
+                    } else {
+                        userFileManager.followArtist(userNickName, artist.getNickName());
+                    }
+                })
+                .whenCompleteAsync((ignored, error) -> {
+                    followButton.setDisable(false);
+                    if (error != null) {
+                        AlertUtil.showError("Failed to update follow status: " + AsyncService.unwrap(error).getMessage());
+                    } else if (following) {
+                        currentUser.unfollowArtist(artist);
+                        followerCount = Math.max(0, followerCount - 1);
+                        showCounts();
+                        followButton.setText("Follow");
+                        AlertUtil.showSuccess("Unfollowed " + artist.getNickName() + " successfully.");
+                    } else {
+                        currentUser.followArtist(artist);
+                        followerCount++;
+                        showCounts();
+                        followButton.setText("Unfollow");
+                        AlertUtil.showSuccess("Followed " + artist.getNickName() + " successfully.");
+                    }
+                }, Platform::runLater);
     }
 }
\ No newline at end of file
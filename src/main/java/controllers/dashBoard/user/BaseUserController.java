@@ -4,22 +4,17 @@ import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import models.account.Artist;
-import models.music.Album;
-import models.music.Song;
-import services.AccountManager;
+import services.CatalogService;
 import services.SessionManager;
 import services.file.ArtistFileManager;
-import services.file.SongFileManager;
+import services.file.SongCounterLog;
 import utils.AlertUtil;
 import utils.FileUtil;
+import utils.ImageCache;
 import utils.SceneUtil;
 
 import java.io.File;
-import java.io.InputStream;
-import java.util.Collections;
 import java.util.List;
 
 public abstract class BaseUserController {
@@ -29,7 +24,7 @@ public abstract class BaseUserController {
 
     protected UserMenuBarHandler menuBarHandler;
     protected static final String DEFAULT_IMAGE_PATH = "/pics/Genius.com_logo_yellow.png";
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
 
     @FXML
     protected void initialize() {
@@ -53,32 +48,14 @@ public abstract class BaseUserController {
         }
     }
 
+    // Decoded in the background at the view's size and shared through the image cache
     protected void loadImage(ImageView imageView, String imagePath) {
         if (imageView == null) return;
-        File imageFile = new File(imagePath);
         try {
-            if (imageFile.exists()) {
-                imageView.setImage(new Image(imageFile.toURI().toString()));
-            } else {
-                InputStream imageStream = getClass().getResourceAsStream(DEFAULT_IMAGE_PATH);
-                if (imageStream == null) {
-                    System.err.println("Default image not found in resources: " + DEFAULT_IMAGE_PATH);
-                    return;
-                }
-                imageView.setImage(new Image(imageStream));
-            }
+            ImageCache.load(imageView, imagePath);
         } catch (Exception e) {
             System.err.println("Error loading image from " + imagePath + ": " + e.getMessage());
-            try {
-                InputStream imageStream = getClass().getResourceAsStream(DEFAULT_IMAGE_PATH);
-                if (imageStream == null) {
-                    System.err.println("Default image not found in resources: " + DEFAULT_IMAGE_PATH);
-                    return;
-                }
-                imageView.setImage(new Image(imageStream));
-            } catch (Exception ex) {
-                System.err.println("Error loading default image: " + ex.getMessage());
-            }
+            ImageCache.loadResource(imageView, DEFAULT_IMAGE_PATH);
         }
     }
 
@@ -181,29 +158,8 @@ public abstract class BaseUserController {
             }
             File songFile = new File(basePath + "/" + songTitle + "/" + songTitle + ".txt");
             if (songFile.exists()) {
-                SongFileManager songFileManager = new SongFileManager();
-                List<String> songData = FileUtil.readFile(songFile.getPath());
-                String artistEmail = artistFileManager.findEmailByNickName(artistName, "artist");
-                if (artistEmail == null || !AccountManager.validateEmail(artistEmail)) {
-                    System.err.println("Artist email not found or invalid for artist: " + artistName + ". Using default email.");
-                    artistEmail = "default@example.com"; // Valid default email
-                }
-
-                Artist artist = artistFileManager.getArtistByNickName(artistName);
-                if (artist == null) {
-                    artist = new Artist(artistEmail, artistName, "defaultPassword");
-                    System.out.println("Created new Artist instance for: " + artistName);
-                }
-
-                Song song = songFileManager.parseSongFromFile(
-                        songData,
-                        albumTitle != null ? new Album(albumTitle, "Not set", artist) : null,
-                        songFileManager.loadLyrics(songFile.getPath()),
-                        artist
-                );
-                song.incrementViews();
-                songFileManager.saveSong(Collections.singletonList(artistName), songTitle, albumTitle, song.getLyrics(), song.getReleaseDate(), song.getLikes(), song.getViews(), song.getAlbumArtPath());
-                System.out.println("Views updated and saved for song: " + songTitle + ", New Views: " + song.getViews());
+                SongCounterLog.getInstance().recordView(artistName, albumTitle, songTitle);
+                System.out.println("View recorded for song: " + songTitle);
             }
         }
     }
@@ -1,16 +1,23 @@
 package controllers.dashBoard.user;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import models.DTO.SongDTO;
-import services.SearchAndChartManager;
-import services.file.ArtistFileManager;
-import services.file.SongFileManager;
+import models.DTO.TrendingEntryDTO;
+import services.AsyncService;
+import services.TrendingCharts;
+import utils.AlertUtil;
 
 import java.util.List;
 
 public class ChartsPageController extends BaseUserController {
+    private static final String ALL_TIME = "All Time by Views";
+    private static final String TRENDING_PREFIX = "Trending: ";
 
+    @FXML private Label chartTitleLabel;
+    @FXML private ComboBox<String> chartWindowComboBox;
     @FXML private Label song1Label;
     @FXML private Label song2Label;
     @FXML private Label song3Label;
@@ -22,30 +29,88 @@ public class ChartsPageController extends BaseUserController {
     @FXML private Label song9Label;
     @FXML private Label song10Label;
 
-    private final SearchAndChartManager searchManager;
-
-    public ChartsPageController() {
-        this.searchManager = new SearchAndChartManager(new ArtistFileManager(), new SongFileManager());
-    }
-
     @Override
     @FXML
     public void initialize() {
         super.initialize();
+        setupWindowComboBox();
         loadTopSongs();
     }
 
-    private void loadTopSongs() {
-        List<SongDTO> topSongs = searchManager.getTopSongs(10);
-        Label[] labels = {song1Label, song2Label, song3Label, song4Label, song5Label,
+    private void setupWindowComboBox() {
+        checkComponent(chartWindowComboBox, "chartWindowComboBox");
+        if (chartWindowComboBox == null) return;
+        chartWindowComboBox.getItems().add(ALL_TIME);
+        for (TrendingCharts.Window window : TrendingCharts.Window.values()) {
+            chartWindowComboBox.getItems().add(TRENDING_PREFIX + window.getLabel());
+        }
+        chartWindowComboBox.setValue(ALL_TIME);
+        chartWindowComboBox.setOnAction(event -> {
+            String selected = chartWindowComboBox.getValue();
+            for (TrendingCharts.Window window : TrendingCharts.Window.values()) {
+                if (selected.equals(TRENDING_PREFIX + window.getLabel())) {
+                    loadTrendingSongs(window);
+                    return;
+                }
+            }
+            loadTopSongs();
+        });
+    }
+
+    private Label[] songLabels() {
+        return new Label[]{song1Label, song2Label, song3Label, song4Label, song5Label,
                 song6Label, song7Label, song8Label, song9Label, song10Label};
+    }
 
+    // Trends are kept ranked in memory, but the first read loads them from disk
+    private void loadTrendingSongs(TrendingCharts.Window window) {
+        if (chartTitleLabel != null) chartTitleLabel.setText("Trending: " + window.getLabel());
+        Label[] labels = songLabels();
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] != null) labels[i].setText(String.format("%d. Loading...", i + 1));
+        }
+
+        AsyncService.getInstance().trendingSongs(window, labels.length)
+                .whenCompleteAsync((trending, error) -> {
+                    // Another chart was picked while this one was loading
+                    if (AsyncService.isCancellation(error)) return;
+                    if (chartWindowComboBox != null && !(TRENDING_PREFIX + window.getLabel()).equals(chartWindowComboBox.getValue())) return;
+                    if (error != null) {
+                        AlertUtil.showError("Failed to load trending charts: " + AsyncService.unwrap(error).getMessage());
+                        trending = List.of();
+                    }
+                    for (int i = 0; i < labels.length; i++) {
+                        if (labels[i] != null) {
+                            labels[i].setText(i < trending.size() ? formatTrendingLabel(trending.get(i)) : formatEmptyLabel(i + 1));
+                        }
+                    }
+                }, Platform::runLater);
+    }
+
+    private void loadTopSongs() {
+        if (chartTitleLabel != null) chartTitleLabel.setText("Top Songs by Views");
+        Label[] labels = songLabels();
         for (int i = 0; i < labels.length; i++) {
             checkComponent(labels[i], "songLabel" + (i + 1));
-            if (labels[i] != null) {
-                labels[i].setText(i < topSongs.size() ? formatSongLabel(i + 1, topSongs.get(i)) : formatEmptyLabel(i + 1));
-            }
+            if (labels[i] != null) labels[i].setText(String.format("%d. Loading...", i + 1));
         }
+
+        // The first visit may have to scan the whole catalog
+        AsyncService.getInstance().searchAndChartManager()
+                .thenApply(searchManager -> searchManager.getTopSongs(10))
+                .whenCompleteAsync((topSongs, error) -> {
+                    // A trending window was picked while the catalog was loading
+                    if (chartWindowComboBox != null && !ALL_TIME.equals(chartWindowComboBox.getValue())) return;
+                    if (error != null) {
+                        AlertUtil.showError("Failed to load charts: " + AsyncService.unwrap(error).getMessage());
+                        topSongs = List.of();
+                    }
+                    for (int i = 0; i < labels.length; i++) {
+                        if (labels[i] != null) {
+                            labels[i].setText(i < topSongs.size() ? formatSongLabel(i + 1, topSongs.get(i)) : formatEmptyLabel(i + 1));
+                        }
+                    }
+                }, Platform::runLater);
     }
 
     private String formatSongLabel(int rank, SongDTO song) {
@@ -58,6 +123,17 @@ public class ChartsPageController extends BaseUserController {
                 song.albumName() != null ? " (Album: " + song.albumName() + ")" : " (Single)");
     }
 
+    private String formatTrendingLabel(TrendingEntryDTO entry) {
+        return String.format("%d. %s - %s (Score: %.1f, Views: %d, Likes: %d)%s",
+                entry.rank(),
+                entry.title(),
+                entry.artistName(),
+                entry.score(),
+                entry.views(),
+                entry.likes(),
+                entry.albumName() != null ? " (Album: " + entry.albumName() + ")" : " (Single)");
+    }
+
     private String formatEmptyLabel(int rank) {
         return String.format("%d. No Song Available", rank);
     }
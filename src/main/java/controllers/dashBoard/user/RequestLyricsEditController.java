@@ -4,6 +4,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import services.CatalogService;
 import services.SessionManager;
 import services.file.LyricsRequestManager;
 import services.file.SongFileManager;
@@ -19,13 +20,13 @@ public class RequestLyricsEditController extends BaseUserController {
     @FXML private Button submitRequestButton;
 
     private LyricsRequestManager lyricsRequestManager;
-    private final SongFileManager songFileManager = new SongFileManager();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
 
     @Override
     @FXML
     public void initialize() {
         super.initialize();
-        lyricsRequestManager = new LyricsRequestManager();
+        lyricsRequestManager = CatalogService.getInstance().getLyricsRequestManager();
         loadSongInfo();
     }
 
@@ -1,16 +1,14 @@
 package controllers.dashBoard.user;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import models.DTO.SearchResultDTO;
-import models.DTO.SongDTO;
-import services.SearchAndChartManager;
+import services.AsyncService;
 import services.SessionManager;
-import services.file.ArtistFileManager;
 import services.file.FileManager;
-import services.file.SongFileManager;
 import utils.AlertUtil;
 import utils.SceneUtil;
 
@@ -22,14 +20,9 @@ public class SearchPageController extends BaseUserController {
     @FXML private Button searchButton;
     @FXML private ListView<String> searchResultsListView;
 
-    private final SearchAndChartManager searchManager;
     private final SongAndAlbumDetailsController detailsHelper = new SongAndAlbumDetailsController();
     private final FileManager fileManager = new FileManager() {};
 
-    public SearchPageController() {
-        this.searchManager = new SearchAndChartManager(new ArtistFileManager(), new SongFileManager());
-    }
-
     @Override
     @FXML
     public void initialize() {
@@ -49,40 +42,29 @@ public class SearchPageController extends BaseUserController {
             return;
         }
 
-        searchResultsListView.getItems().clear();
-        List<SearchResultDTO> results = searchManager.search(query);
-
-        if (results.isEmpty()) {
-            searchResultsListView.getItems().add("No results found for \"" + query + "\"");
-        } else {
-            searchResultsListView.getItems().addAll(results.stream()
-                    .map(this::formatSearchResult)
-                    .toList());
-        }
+        searchResultsListView.getItems().setAll("Searching for \"" + query + "\"...");
+        // A newer search cancels this one, so only the latest query's results are ever shown
+        AsyncService.getInstance().search(query)
+                .whenCompleteAsync((results, error) -> {
+                    if (error != null) {
+                        if (AsyncService.isCancellation(error)) return;
+                        searchResultsListView.getItems().clear();
+                        AlertUtil.showError("Search failed: " + AsyncService.unwrap(error).getMessage());
+                    } else if (results.isEmpty()) {
+                        searchResultsListView.getItems().setAll("No results found for \"" + query + "\"");
+                    } else {
+                        searchResultsListView.getItems().setAll(results.stream()
+                                .map(this::formatSearchResult)
+                                .toList());
+                    }
+                }, Platform::runLater);
     }
 
     private String formatSearchResult(SearchResultDTO result) {
         return switch (result.type()) {
             case ARTIST -> "Artist: " + result.name();
-            case ALBUM -> "Album: " + result.name() + " - " + searchManager.getAllSongs().stream()
-                    .filter(song -> song.albumName() != null && song.albumName().equals(result.name()))
-                    .findFirst()
-                    .map(SongDTO::artistName)
-                    .orElse("");
-            case SONG -> {
-                String artistName = searchManager.getAllSongs().stream()
-                        .filter(song -> song.title().equals(result.name()))
-                        .findFirst()
-                        .map(SongDTO::artistName)
-                        .orElse("");
-                String albumName = searchManager.getAllSongs().stream()
-                        .filter(song -> song.title().equals(result.name()) && song.artistName().equals(artistName))
-                        .findFirst()
-                        .map(song -> song.albumName() != null ? song.albumName() : null)
-                        .orElse(null);
-                yield "Song: " + result.name() + " - " + artistName + (albumName != null ? " (Album: " + albumName + ")" : " (Single)");
-            }
-            default -> "";
+            case ALBUM -> "Album: " + result.name() + " - " + result.artistName();
+            case SONG -> "Song: " + result.name() + " - " + result.artistName() + (result.albumName() != null ? " (Album: " + result.albumName() + ")" : " (Single)");
         };
     }
 
@@ -1,5 +1,6 @@
 package controllers.dashBoard.user;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -8,21 +9,28 @@ import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
 import models.music.Album;
 import models.music.Comment;
 import models.music.Song;
 import models.account.Artist;
-import services.SearchAndChartManager;
+import services.AsyncService;
+import services.CatalogService;
 import services.SessionManager;
+import services.SongRankings;
 import services.file.ArtistFileManager;
+import services.file.SongCounterLog;
 import services.file.SongFileManager;
+import utils.AlertUtil;
+import utils.FieldRecord;
 import utils.FileUtil;
 import utils.SceneUtil;
 import java.io.File;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
 
 import static services.AccountManager.validateEmail;
 import static services.SessionManager.validateSession;
@@ -35,6 +43,7 @@ public class SongAndAlbumDetailsController extends BaseUserController {
     @FXML private Label releaseDateLabel;
     @FXML private Label viewsLabel;
     @FXML private Label likesLabel;
+    @FXML private Label rankingsLabel;
     @FXML private Label songsLabel;
     @FXML private Label lyricsLabel;
     @FXML private TextArea lyricsArea;
@@ -46,10 +55,18 @@ public class SongAndAlbumDetailsController extends BaseUserController {
     @FXML private ImageView coverImageView;
     @FXML private Button likeButton;
 
-    private final SongFileManager songFileManager = new SongFileManager();
-    private static final ArtistFileManager artistFileManager = new ArtistFileManager();
-    private final SearchAndChartManager searchManager = new SearchAndChartManager(new ArtistFileManager(), new SongFileManager());
-    private final Map<String, Song> songCache = new HashMap<>();
+    private final SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+    private static final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
+
+    // Background loads under these keys replace any older load still pending for the page
+    private static final String DETAILS_TASK = "details-page";
+    private static final String COMMENTS_TASK = "details-comments";
+
+    // Comments are shown newest first and fetched a page at a time as the list is scrolled to its end
+    private static final int COMMENTS_PAGE_SIZE = 50;
+    private IntFunction<List<Comment>> commentPageLoader;
+    private boolean moreComments;
+    private boolean loadingComments;
 
     @Override
     @FXML
@@ -69,6 +86,7 @@ public class SongAndAlbumDetailsController extends BaseUserController {
         checkComponent(releaseDateLabel, "releaseDateLabel");
         checkComponent(viewsLabel, "viewsLabel");
         checkComponent(likesLabel, "likesLabel");
+        checkComponent(rankingsLabel, "rankingsLabel");
         checkComponent(songsLabel, "songsLabel");
         checkComponent(lyricsLabel, "lyricsLabel");
         checkComponent(lyricsArea, "lyricsArea");
@@ -155,6 +173,27 @@ public class SongAndAlbumDetailsController extends BaseUserController {
             titleLabel.setText(songTitle);
         }
 
+        String artistEmail = SessionManager.getInstance().getSelectedArtistEmail();
+        AsyncService.getInstance().supplyLatest(DETAILS_TASK, () -> readSongDetails(artistName, songTitle, albumTitle, artistEmail))
+                .whenCompleteAsync((details, error) -> {
+                    if (error != null) {
+                        reportLoadFailure("song " + songTitle, error);
+                    } else if (details != null) {
+                        // What the read found out about the selection is stored here, on the FX thread
+                        if (!Objects.equals(albumTitle, details.albumTitle())) SessionManager.getInstance().setSelectedAlbum(details.albumTitle());
+                        if ((artistEmail == null || artistEmail.trim().isEmpty()) && details.artistEmail() != null) {
+                            SessionManager.getInstance().setSelectedArtistEmail(details.artistEmail());
+                        }
+                        showSongDetails(artistName, songTitle, details);
+                    }
+                }, Platform::runLater);
+    }
+
+    // albumTitle is null if the song turned out to be a single
+    private record SongDetails(Song song, String albumTitle, String artistEmail, String coverPath, String rankings) {}
+
+    // Runs on a background thread: reads everything the song page needs, touching no controls or session state
+    private SongDetails readSongDetails(String artistName, String songTitle, String albumTitle, String artistEmail) {
         // Validate if the song belongs to the specified album (if any)
         String actualAlbumTitle = albumTitle;
         if (albumTitle != null) {
@@ -168,39 +207,42 @@ public class SongAndAlbumDetailsController extends BaseUserController {
                 if (!songsLine.contains(songTitle)) {
                     // Song is not in this album, treat it as a single
                     actualAlbumTitle = null;
-                    SessionManager.getInstance().setSelectedAlbum(null);
                 }
             } else {
                 // Album doesn't exist, treat the song as a single
                 actualAlbumTitle = null;
-                SessionManager.getInstance().setSelectedAlbum(null);
             }
         }
 
         File songFile = getSongFile(artistName, songTitle, actualAlbumTitle);
-        if (songFile.exists()) {
-            Song song = loadAndProcessSong(songFile, actualAlbumTitle, artistName);
-            updateSongDetails(song);
-            String imagePath = song.getAlbumArtPath();
-            if (imagePath != null && new File(imagePath).exists()) {
-                loadImage(coverImageView, imagePath);
-            } else {
-                loadImage(coverImageView, songFile.getParent() + "/song_art.jpg");
-            }
-            if (commentsListView != null) {
-                commentsListView.getItems().setAll(songFileManager.loadComments(artistName, songTitle, actualAlbumTitle));
-            }
-
-            if (albumSongsListView != null) {
-                albumSongsListView.setVisible(false);
-                albumSongsListView.setManaged(false);
-            }
-            if (songsLabel != null) {
-                songsLabel.setVisible(false);
-                songsLabel.setManaged(false);
-            }
-        } else {
+        if (!songFile.exists()) {
             System.err.println("Song file does not exist: " + songFile.getPath());
+            return null;
+        }
+        // getSongFile falls back to the singles directory when the album doesn't hold the song
+        if (actualAlbumTitle != null && isSingle(songFile)) actualAlbumTitle = null;
+        String email = resolveArtistEmail(artistName, artistEmail);
+        Song song = loadAndProcessSong(songFile, actualAlbumTitle, artistName, email);
+        String imagePath = song.getAlbumArtPath();
+        String coverPath = imagePath != null && new File(imagePath).exists() ? imagePath : songFile.getParent() + "/song_art.jpg";
+        return new SongDetails(song, actualAlbumTitle, email, coverPath, describeSongRanks(artistName, actualAlbumTitle, songTitle));
+    }
+
+    private void showSongDetails(String artistName, String songTitle, SongDetails details) {
+        updateSongDetails(details.song());
+        if (rankingsLabel != null) rankingsLabel.setText(details.rankings());
+        loadImage(coverImageView, details.coverPath());
+        if (commentsListView != null) {
+            showComments(offset -> songFileManager.loadComments(artistName, songTitle, details.albumTitle(), offset, COMMENTS_PAGE_SIZE));
+        }
+
+        if (albumSongsListView != null) {
+            albumSongsListView.setVisible(false);
+            albumSongsListView.setManaged(false);
+        }
+        if (songsLabel != null) {
+            songsLabel.setVisible(false);
+            songsLabel.setManaged(false);
         }
     }
 
@@ -229,23 +271,81 @@ public class SongAndAlbumDetailsController extends BaseUserController {
         if (requestLyricsEditButton != null) requestLyricsEditButton.setVisible(false);
 
         File albumFile = new File(FileUtil.DATA_DIR + "artists/" + artistName + "/albums/" + albumTitle + "/album.txt");
-        if (albumFile.exists()) {
-            List<String> albumData = loadFileData(albumFile.getPath());
-            updateAlbumMetadata(albumData);
-            loadImage(coverImageView, albumFile.getParent() + "/album_art.jpg");
-            if (commentsListView != null) {
-                commentsListView.getItems().setAll(songFileManager.loadAlbumComments(artistName, albumTitle));
-            }
-            loadAlbumSongs(albumData);
-            int totalViews = calculateTotalAlbumViews(artistName, albumTitle, albumData);
-            if (viewsLabel != null) viewsLabel.setText("Total Views: " + totalViews);
-        } else {
-            System.err.println("Album file does not exist: " + albumFile.getPath());
-            if (commentsListView != null) commentsListView.getItems().clear();
+        String artistEmail = SessionManager.getInstance().getSelectedArtistEmail();
+        AsyncService.getInstance().supplyLatest(DETAILS_TASK, () -> {
+                    if (!albumFile.exists()) return null;
+                    List<String> albumData = loadFileData(albumFile.getPath());
+                    return new AlbumDetails(albumData, calculateTotalAlbumViews(artistName, albumTitle, albumData, artistEmail),
+                            describeAlbumLeaders(artistName, albumTitle));
+                })
+                .whenCompleteAsync((details, error) -> {
+                    if (error != null) {
+                        reportLoadFailure("album " + albumTitle, error);
+                    } else if (details != null) {
+                        updateAlbumMetadata(details.albumData());
+                        loadImage(coverImageView, albumFile.getParent() + "/album_art.jpg");
+                        if (commentsListView != null) {
+                            showComments(offset -> songFileManager.loadAlbumComments(artistName, albumTitle, offset, COMMENTS_PAGE_SIZE));
+                        }
+                        loadAlbumSongs(details.albumData());
+                        if (viewsLabel != null) viewsLabel.setText("Total Views: " + details.totalViews());
+                        if (rankingsLabel != null) rankingsLabel.setText(details.rankings());
+                    } else {
+                        System.err.println("Album file does not exist: " + albumFile.getPath());
+                        if (commentsListView != null) {
+                            commentPageLoader = null;
+                            moreComments = false;
+                            commentsListView.getItems().clear();
+                        }
+                    }
+                }, Platform::runLater);
+    }
+
+    private record AlbumDetails(List<String> albumData, int totalViews, String rankings) {}
+
+    // Runs on a background thread; the rankings are built with the catalog on first use, then read in O(log n)
+    private String describeSongRanks(String artistName, String albumTitle, String songTitle) {
+        CatalogService.getInstance().getSearchAndChartManager();
+        SongRankings rankings = SongRankings.getInstance();
+        SongKey key = new SongKey(artistName, albumTitle, songTitle);
+        if (rankings.rankOf(key, SongRankings.Dimension.VIEWS, SongRankings.Scope.GLOBAL) == 0) return "";
+        return "By views: " + describeRanks(rankings, key, SongRankings.Dimension.VIEWS)
+                + "\nBy likes: " + describeRanks(rankings, key, SongRankings.Dimension.LIKES);
+    }
+
+    private String describeRanks(SongRankings rankings, SongKey key, SongRankings.Dimension dimension) {
+        List<String> ranks = new ArrayList<>();
+        if (key.albumName() != null) {
+            ranks.add("#" + rankings.rankOf(key, dimension, SongRankings.Scope.album(key.artistName(), key.albumName())) + " in album");
         }
+        ranks.add("#" + rankings.rankOf(key, dimension, SongRankings.Scope.artist(key.artistName())) + " by artist");
+        ranks.add("#" + rankings.rankOf(key, dimension, SongRankings.Scope.GLOBAL) + " overall");
+        return String.join(", ", ranks);
+    }
+
+    // Runs on a background thread
+    private String describeAlbumLeaders(String artistName, String albumTitle) {
+        CatalogService.getInstance().getSearchAndChartManager();
+        SongRankings rankings = SongRankings.getInstance();
+        SongRankings.Scope albumScope = SongRankings.Scope.album(artistName, albumTitle);
+        List<SongDTO> mostViewed = rankings.getTop(SongRankings.Dimension.VIEWS, albumScope, 1);
+        List<SongDTO> mostLiked = rankings.getTop(SongRankings.Dimension.LIKES, albumScope, 1);
+        List<SongDTO> bestRatio = rankings.getTop(SongRankings.Dimension.LIKE_RATIO, albumScope, 1);
+        if (mostViewed.isEmpty()) return "";
+        return "Most viewed: " + mostViewed.get(0).title()
+                + "\nMost liked: " + mostLiked.get(0).title()
+                + "\nBest like ratio: " + bestRatio.get(0).title();
     }
 
-    private int calculateTotalAlbumViews(String artistName, String albumTitle, List<String> albumData) {
+    private void reportLoadFailure(String what, Throwable error) {
+        // Superseded by a newer selection
+        if (AsyncService.isCancellation(error)) return;
+        Throwable cause = AsyncService.unwrap(error);
+        System.err.println("Failed to load " + what + ": " + cause.getMessage());
+        AlertUtil.showError("Failed to load " + what + ": " + cause.getMessage());
+    }
+
+    private int calculateTotalAlbumViews(String artistName, String albumTitle, List<String> albumData, String artistEmail) {
         int totalViews = 0;
         String songsLine = albumData.stream()
                 .filter(line -> line.startsWith("Songs: "))
@@ -258,7 +358,7 @@ public class SongAndAlbumDetailsController extends BaseUserController {
             if (!title.trim().isEmpty()) {
                 File songFile = new File(basePath + "/" + title.trim() + "/" + title.trim() + ".txt");
                 if (songFile.exists()) {
-                    Song song = loadAndProcessSong(songFile, albumTitle, artistName);
+                    Song song = loadAndProcessSong(songFile, albumTitle, artistName, artistEmail);
                     totalViews += song.getViews();
                 }
             }
@@ -300,10 +400,6 @@ public class SongAndAlbumDetailsController extends BaseUserController {
             if (!songFile.exists()) {
                 // Fallback to singles directory if the song is not found in the album
                 songFile = file;
-                if (songFile.exists()) {
-                    // Update SessionManager to reflect that this is a single
-                    SessionManager.getInstance().setSelectedAlbum(null);
-                }
             }
         } else {
             songFile = file;
@@ -314,20 +410,28 @@ public class SongAndAlbumDetailsController extends BaseUserController {
         return songFile;
     }
 
-    protected Song loadAndProcessSong(File songFile, String albumTitle, String artistName) {
-        List<String> songData = loadFileData(songFile.getPath());
-        String lyrics = searchManager.loadLyrics(songFile.getPath());
-        String artistEmail = SessionManager.getInstance().getSelectedArtistEmail();
+    private static boolean isSingle(File songFile) {
+        File typeDir = songFile.getParentFile().getParentFile();
+        return typeDir != null && typeDir.getName().equals("singles");
+    }
 
-        if (artistEmail == null || artistEmail.trim().isEmpty()) {
-            artistEmail = artistFileManager.findEmailByNickName(artistName, "artist");
-            if (artistEmail != null) {
-                SessionManager.getInstance().setSelectedArtistEmail(artistEmail);
-                System.out.println("Recovered artist email in loadAndProcessSong: " + artistEmail);
-            } else {
-                System.err.println("Artist email not found for artist: " + artistName + ". Using default email.");
-                artistEmail = "default@example.com";
-            }
+    // Called from background threads, so a recovered email is returned to the caller rather than stored in the session
+    private String resolveArtistEmail(String artistName, String artistEmail) {
+        if (artistEmail != null && !artistEmail.trim().isEmpty()) return artistEmail;
+        String found = artistFileManager.findEmailByNickName(artistName, "artist");
+        if (found != null) System.out.println("Recovered artist email for " + artistName + ": " + found);
+        return found;
+    }
+
+    // Runs on background threads; touches no session state
+    protected Song loadAndProcessSong(File songFile, String albumTitle, String artistName, String artistEmail) {
+        FieldRecord songData = songFileManager.loadSongRecord(songFile.getPath());
+        String lyrics = songFileManager.loadLyrics(songFile.getPath());
+
+        artistEmail = resolveArtistEmail(artistName, artistEmail);
+        if (artistEmail == null) {
+            System.err.println("Artist email not found for artist: " + artistName + ". Using default email.");
+            artistEmail = "default@example.com";
         }
 
         if (!validateEmail(artistEmail)) {
@@ -341,17 +445,8 @@ public class SongAndAlbumDetailsController extends BaseUserController {
             System.out.println("Created new Artist instance for: " + artistName);
         }
 
-        String cacheKey = songFile.getAbsolutePath() + (albumTitle != null ? "_" + albumTitle : "");
-        Song song = songCache.get(cacheKey);
-        if (song == null) {
-            song = songFileManager.parseSongFromFile(songData, albumTitle != null ? new Album(albumTitle, "Not set", artist) : null, lyrics, artist);
-            songCache.put(cacheKey, song);
-        } else {
-            Song updatedSong = songFileManager.parseSongFromFile(songData, albumTitle != null ? new Album(albumTitle, "Not set", artist) : null, lyrics, artist);
-            song.setViews(updatedSong.getViews());
-            song.setLikes(updatedSong.getLikes());
-        }
-        return song;
+        // The record and lyrics come from the shared caches, and counters include anything still pending in the counter log
+        return songFileManager.parseSongFromRecord(songData, albumTitle != null ? new Album(albumTitle, "Not set", artist) : null, lyrics, artist);
     }
 
     private void updateSongDetails(Song song) {
@@ -386,10 +481,48 @@ public class SongAndAlbumDetailsController extends BaseUserController {
             protected void updateItem(Comment comment, boolean empty) {
                 super.updateItem(comment, empty);
                 setText(empty || comment == null ? null : comment.toString());
+                if (!empty && moreComments && getIndex() == getListView().getItems().size() - 1) {
+                    // Not while the cell is being laid out
+                    Platform.runLater(SongAndAlbumDetailsController.this::loadMoreComments);
+                }
             }
         });
     }
 
+    private void showComments(IntFunction<List<Comment>> pageLoader) {
+        commentPageLoader = pageLoader;
+        moreComments = false;
+        loadCommentPage(pageLoader, 0);
+    }
+
+    private void loadMoreComments() {
+        if (!moreComments || loadingComments || commentPageLoader == null) return;
+        loadCommentPage(commentPageLoader, commentsListView.getItems().size());
+    }
+
+    private void loadCommentPage(IntFunction<List<Comment>> pageLoader, int offset) {
+        loadingComments = true;
+        AsyncService.getInstance().supplyLatest(COMMENTS_TASK, () -> pageLoader.apply(offset))
+                .whenCompleteAsync((page, error) -> {
+                    // Another song, album or refresh took over while this page was read
+                    if (pageLoader != commentPageLoader) return;
+                    loadingComments = false;
+                    if (error != null) {
+                        if (!AsyncService.isCancellation(error)) {
+                            System.err.println("Failed to load comments: " + AsyncService.unwrap(error).getMessage());
+                        }
+                        return;
+                    }
+                    moreComments = page.size() == COMMENTS_PAGE_SIZE;
+                    if (offset == 0) {
+                        commentsListView.getItems().setAll(page);
+                        commentsListView.scrollTo(0);
+                    } else {
+                        commentsListView.getItems().addAll(page);
+                    }
+                }, Platform::runLater);
+    }
+
     @FXML
     public void submitComment() {
         if (commentField == null || commentsListView == null) return;
@@ -402,15 +535,29 @@ public class SongAndAlbumDetailsController extends BaseUserController {
         String songTitle = SessionManager.getInstance().getSelectedSong();
         String albumTitle = SessionManager.getInstance().getSelectedAlbum();
 
+        Runnable save;
+        IntFunction<List<Comment>> pageLoader;
         if (songTitle != null && !songTitle.trim().isEmpty()) {
-            songFileManager.addComment(artistName, songTitle, albumTitle, commentText, username);
-            commentsListView.getItems().setAll(songFileManager.loadComments(artistName, songTitle, albumTitle));
+            save = () -> songFileManager.addComment(artistName, songTitle, albumTitle, commentText, username);
+            pageLoader = offset -> songFileManager.loadComments(artistName, songTitle, albumTitle, offset, COMMENTS_PAGE_SIZE);
         } else if (albumTitle != null && !albumTitle.trim().isEmpty()) {
-            songFileManager.addAlbumComment(artistName, albumTitle, commentText, username);
-            commentsListView.getItems().setAll(songFileManager.loadAlbumComments(artistName, albumTitle));
+            save = () -> songFileManager.addAlbumComment(artistName, albumTitle, commentText, username);
+            pageLoader = offset -> songFileManager.loadAlbumComments(artistName, albumTitle, offset, COMMENTS_PAGE_SIZE);
+        } else {
+            return;
         }
 
-        commentField.clear();
+        if (submitCommentButton != null) submitCommentButton.setDisable(true);
+        AsyncService.getInstance().run(save)
+                .whenCompleteAsync((ignored, error) -> {
+                    if (submitCommentButton != null) submitCommentButton.setDisable(false);
+                    if (error != null) {
+                        AlertUtil.showError("Failed to post comment: " + AsyncService.unwrap(error).getMessage());
+                        return;
+                    }
+                    commentField.clear();
+                    showComments(pageLoader);
+                }, Platform::runLater);
     }
 
     @FXML
@@ -425,30 +572,31 @@ public class SongAndAlbumDetailsController extends BaseUserController {
         String artistName = SessionManager.getInstance().getSelectedArtist();
         String songTitle = SessionManager.getInstance().getSelectedSong();
         String albumTitle = SessionManager.getInstance().getSelectedAlbum();
+        String artistEmail = SessionManager.getInstance().getSelectedArtistEmail();
 
-        if (songTitle != null) {
-            File songFile = getSongFile(artistName, songTitle, albumTitle);
-            if (songFile.exists()) {
-                String actualAlbumTitle = null;
-                if (songFile.getPath().contains("albums")) {
-                    actualAlbumTitle = albumTitle;
-                }
-
-                Song song = loadAndProcessSong(songFile, actualAlbumTitle, artistName);
-                int oldViews = song.getViews();
-                song.incrementLikes();
-                String cacheKey = songFile.getAbsolutePath() + "_" + actualAlbumTitle;
-                songCache.put(cacheKey, song);
-                updateSongDetails(song);
-
-                song.setViews(oldViews);
-                songFileManager.saveSong(Collections.singletonList(artistName), songTitle, actualAlbumTitle, song.getLyrics(), song.getReleaseDate(), song.getLikes(), song.getViews(), song.getAlbumArtPath());
-                System.out.println("Likes updated and saved for song: " + songTitle + ", New Likes: " + song.getLikes() + ", Views (unchanged): " + song.getViews() + ", Album: " + actualAlbumTitle);
-            }
-        }
-    }
+        if (songTitle == null) return;
+        if (likeButton != null) likeButton.setDisable(true);
+        AsyncService.getInstance().supply(() -> {
+                    File songFile = getSongFile(artistName, songTitle, albumTitle);
+                    if (!songFile.exists()) return null;
+                    String actualAlbumTitle = null;
+                    if (songFile.getPath().contains("albums")) {
+                        actualAlbumTitle = albumTitle;
+                    }
 
-    public void clearCache() {
-        songCache.clear();
+                    Song song = loadAndProcessSong(songFile, actualAlbumTitle, artistName, artistEmail);
+                    SongCounterLog.getInstance().recordLike(artistName, actualAlbumTitle, songTitle);
+                    song.incrementLikes();
+                    System.out.println("Like recorded for song: " + songTitle + ", New Likes: " + song.getLikes() + ", Album: " + actualAlbumTitle);
+                    return song;
+                })
+                .whenCompleteAsync((song, error) -> {
+                    if (likeButton != null) likeButton.setDisable(false);
+                    if (error != null) {
+                        AlertUtil.showError("Failed to like song: " + AsyncService.unwrap(error).getMessage());
+                    } else if (song != null) {
+                        updateSongDetails(song);
+                    }
+                }, Platform::runLater);
     }
-}
\ No newline at end of file
+}
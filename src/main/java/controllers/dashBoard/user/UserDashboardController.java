@@ -1,24 +1,28 @@
 package controllers.dashBoard.user;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
+import models.DTO.ReleaseDTO;
 import models.account.Account;
 import models.account.Artist;
 import models.account.User;
+import services.AsyncService;
+import services.CatalogService;
 import services.SessionManager;
 import services.file.ArtistFileManager;
 import utils.AlertUtil;
 import utils.FileUtil;
+import utils.SceneUtil;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,10 +31,15 @@ public class UserDashboardController extends BaseUserController {
     @FXML private Label usernameLabel;
     @FXML private Label joinedDateLabel;
     @FXML private ListView<String> followingArtistsListView;
+    @FXML private ListView<String> newReleasesListView;
     @FXML private ImageView profileImageView;
     @FXML private Button changeProfileImageButton;
 
-    private final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private static final int RELEASES_PAGE_SIZE = 20;
+
+    private final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
+    // Parallel to the items of newReleasesListView
+    private final List<ReleaseDTO> shownReleases = new ArrayList<>();
     String username = SessionManager.getInstance().getCurrentUsername();
     String email = SessionManager.getInstance().getCurrentEmail();
 
@@ -40,8 +49,10 @@ public class UserDashboardController extends BaseUserController {
         super.initialize();
         loadUserProfile();
         loadFollowingArtists();
+        loadNewReleases();
         loadProfileImage();
         setupFollowingArtistsListView();
+        setupNewReleasesListView();
     }
 
     private void loadUserProfile() {
@@ -76,7 +87,7 @@ public class UserDashboardController extends BaseUserController {
 
         try {
             // Loading followed artists
-            currentUser.loadFollowingArtistsFromFile(artistFileManager, SessionManager.getInstance().getUserFileManager());
+            SessionManager.getInstance().loadFollowingArtists(currentUser);
             List<String> artistNames = currentUser.getFollowingArtists().stream()
                     .map(Artist::getNickName)
                     .collect(Collectors.toList());
@@ -95,8 +106,60 @@ public class UserDashboardController extends BaseUserController {
         }
     }
 
+    // The feed is precomputed, so one page is cheap however many artists the user follows
+    private void loadNewReleases() {
+        checkComponent(newReleasesListView, "newReleasesListView");
+        if (newReleasesListView == null || username == null) return;
+        newReleasesListView.getItems().setAll("Loading...");
+
+        AsyncService.getInstance()
+                .supply(() -> SessionManager.getInstance().getUserFileManager().loadReleaseFeed(username, 0, RELEASES_PAGE_SIZE))
+                .whenCompleteAsync((releases, error) -> {
+                    shownReleases.clear();
+                    newReleasesListView.getItems().clear();
+                    if (error != null) {
+                        System.err.println("Failed to load new releases: " + AsyncService.unwrap(error).getMessage());
+                        newReleasesListView.getItems().add("No new releases.");
+                        return;
+                    }
+                    if (releases.isEmpty()) {
+                        newReleasesListView.getItems().add("No new releases.");
+                        return;
+                    }
+                    shownReleases.addAll(releases);
+                    for (ReleaseDTO release : releases) {
+                        newReleasesListView.getItems().add(release.toString());
+                    }
+                }, Platform::runLater);
+    }
+
+    private void setupNewReleasesListView() {
+        if (newReleasesListView == null) return;
+        newReleasesListView.setOnMouseClicked(event -> {
+            int index = newReleasesListView.getSelectionModel().getSelectedIndex();
+            if (index < 0 || index >= shownReleases.size()) return;
+            ReleaseDTO release = shownReleases.get(index);
+
+            String email = artistFileManager.findEmailByNickName(release.artistName(), "artist");
+            if (email == null) {
+                AlertUtil.showError("Email not found for artist: " + release.artistName());
+                return;
+            }
+            SessionManager.getInstance().setSelectedArtist(release.artistName());
+            SessionManager.getInstance().setSelectedArtistEmail(email);
+            SessionManager.getInstance().setSelectedAlbum(release.albumName());
+            SessionManager.getInstance().setSelectedSong(release.title());
+            incrementViewsForItem(release.artistName(), release.title(), release.albumName(), false);
+            try {
+                SceneUtil.changeScene(newReleasesListView, "/FXML-files/user/SongAndAlbumDetails.fxml");
+            } catch (Exception e) {
+                AlertUtil.showError("Failed to load page: " + e.getMessage());
+            }
+        });
+    }
+
     private void loadProfileImage() {
-        loadImage(profileImageView, FileUtil.DATA_DIR + "users/" + username + "/user_icon.png");
+        loadImage(profileImageView, artistFileManager.findAccountIcon(username, "user"));
     }
 
     private void setupFollowingArtistsListView() {
@@ -114,16 +177,9 @@ public class UserDashboardController extends BaseUserController {
         File selectedFile = fileChooser.showOpenDialog(changeProfileImageButton.getScene().getWindow());
 
         if (selectedFile != null) {
-            File destinationDir = new File(FileUtil.DATA_DIR + "users/" + username);
-            if (!destinationDir.exists()) {
-                destinationDir.mkdirs();
-            }
-
-            File destinationFile = new File(destinationDir, "user_icon.png");
             try {
-                Files.copy(selectedFile.toPath(), destinationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                loadImage(profileImageView, destinationFile.getPath());
-            } catch (IOException e) {
+                loadImage(profileImageView, artistFileManager.saveAccountIcon(username, "user", selectedFile));
+            } catch (IOException | IllegalStateException e) {
                 AlertUtil.showError("Failed to change profile image: " + e.getMessage());
             }
         }
@@ -0,0 +1,21 @@
+package models.DTO;
+
+// One entry of a user's new-releases feed; publishedAt is when the song was first saved, in epoch milliseconds
+public record ReleaseDTO(String artistName, String albumName, String title, String releaseDate, long publishedAt) {
+    public ReleaseDTO {
+        if (artistName == null || artistName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Artist name cannot be null or empty");
+        }
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title cannot be null or empty");
+        }
+        if (releaseDate == null || releaseDate.trim().isEmpty()) {
+            throw new IllegalArgumentException("Release date cannot be null or empty");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return title + " by " + artistName + (albumName != null ? " (Album: " + albumName + ")" : " (Single)") + " - " + releaseDate;
+    }
+}
@@ -1,6 +1,6 @@
 package models.DTO;
 
-public record SearchResultDTO(ResultType type, String name, String path, int views, int likes) {
+public record SearchResultDTO(ResultType type, String name, String path, int views, int likes, String artistName, String albumName) {
     public enum ResultType {
         ARTIST, ALBUM, SONG
     }
@@ -22,6 +22,10 @@ public record SongDTO(String title, String artistName, String albumName, int vie
         }
     }
 
+    public SongDTO withCounters(int views, int likes) {
+        return new SongDTO(title, artistName, albumName, Math.max(0, views), Math.max(0, likes), metaFilePath, releaseDate, albumArtPath);
+    }
+
     @Override
     public String toString() {
         return title + " by " + artistName + (albumName != null ? " (Album: " + albumName + ")" : "") + " - Views: " + views + " - Likes: " + likes;
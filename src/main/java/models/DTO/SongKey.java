@@ -0,0 +1,27 @@
+package models.DTO;
+
+import utils.FileUtil;
+
+// Identity of a song on disk: names are sanitized the same way the storage directories are
+public record SongKey(String artistName, String albumName, String title) {
+    public SongKey {
+        if (artistName == null || artistName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Artist name cannot be null or empty");
+        }
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title cannot be null or empty");
+        }
+        artistName = FileUtil.sanitizeFileName(artistName);
+        albumName = albumName == null || albumName.trim().isEmpty() || albumName.equals("Single") ? null : FileUtil.sanitizeFileName(albumName);
+        title = FileUtil.sanitizeFileName(title);
+    }
+
+    public static SongKey of(SongDTO song) {
+        return new SongKey(song.artistName(), song.albumName(), song.title());
+    }
+
+    public boolean isInAlbum(String artistName, String albumName) {
+        return this.albumName != null && this.artistName.equals(FileUtil.sanitizeFileName(artistName))
+                && this.albumName.equals(FileUtil.sanitizeFileName(albumName));
+    }
+}
@@ -0,0 +1,13 @@
+package models.DTO;
+
+// A song's standing in a trending window; score is its decayed activity, views and likes are the raw window totals
+public record TrendingEntryDTO(int rank, String title, String artistName, String albumName, double score, long views, long likes) {
+    public TrendingEntryDTO {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title cannot be null or empty");
+        }
+        if (artistName == null || artistName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Artist name cannot be null or empty");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package models.account;
 
 import models.music.Album;
 import models.music.Song;
+import services.CatalogService;
 import services.file.ArtistFileManager;
 import services.file.SongFileManager;
 
@@ -109,22 +110,11 @@ public class Artist extends Account {
         }
     }
 
-    public void loadFollowers(ArtistFileManager artistFileManager, List<User> allUsers) {
-        if (artistFileManager == null) {
-            throw new IllegalArgumentException("ArtistFileManager cannot be null.");
-        }
-        if (allUsers == null) {
-            throw new IllegalArgumentException("All users list cannot be null.");
-        }
-        followers.clear();
-        followers.addAll(artistFileManager.loadFollowers(this, allUsers));
-    }
-
     private void saveSongsAndAlbums() {
         if (!approved) {
             throw new IllegalStateException("Cannot save songs and albums for an unapproved artist.");
         }
-        SongFileManager songFileManager = new SongFileManager();
+        SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
         try {
             songFileManager.saveSongsAndAlbumsForArtist(this);
         } catch (Exception e) {
@@ -1,41 +1,35 @@
 package models.account;
 
-import services.SessionManager;
-import services.file.ArtistFileManager;
-import services.file.UserFileManager;
-
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+// Follows are persisted through UserFileManager; this only mirrors them for the signed-in session
 public class User extends Account {
     private final Set<Artist> followingArtists;
 
     public User(String email, String nickName, String password) {
         super(email, nickName, password);
-        this.followingArtists = new HashSet<>();
+        this.followingArtists = new LinkedHashSet<>();
     }
 
-    public void followArtist(Artist artist) {
+    // Returns false if the artist was already followed
+    public boolean followArtist(Artist artist) {
         if (artist == null) {
             throw new IllegalArgumentException("Artist cannot be null.");
         }
         if (!artist.isApproved()) {
             throw new IllegalStateException("Cannot follow an unapproved artist.");
         }
-        if (followingArtists.add(artist)) {
-            saveFollowingArtists();
-        }
+        return followingArtists.add(artist);
     }
 
-    public void unfollowArtist(Artist artist) {
+    public boolean unfollowArtist(Artist artist) {
         if (artist == null) {
             throw new IllegalArgumentException("Artist cannot be null.");
         }
-        if (followingArtists.remove(artist)) {
-            saveFollowingArtists();
-        }
+        return followingArtists.remove(artist);
     }
 
     public List<Artist> getFollowingArtists() {
@@ -48,27 +42,10 @@ public class User extends Account {
         }
         followingArtists.clear();
         followingArtists.addAll(artists);
-        saveFollowingArtists();
-    }
-
-    private void saveFollowingArtists() {
-        UserFileManager userFileManager = SessionManager.getInstance().getUserFileManager();
-        userFileManager.saveFollowingArtists(getNickName(), getFollowingArtists());
     }
 
     @Override
     public final String getRole() {
         return "User";
     }
-
-    public void loadFollowingArtistsFromFile(ArtistFileManager artistFileManager, UserFileManager userFileManager) {
-        if (artistFileManager == null) {
-            throw new IllegalArgumentException("ArtistFileManager cannot be null.");
-        }
-        if (userFileManager == null) {
-            throw new IllegalArgumentException("UserFileManager cannot be null.");
-        }
-        List<Artist> loadedArtists = userFileManager.loadFollowingArtistsFromFile(getNickName(), artistFileManager.loadAllArtists());
-        setFollowingArtists(loadedArtists);
-    }
-}
\ No newline at end of file
+}
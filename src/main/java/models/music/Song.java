@@ -5,11 +5,14 @@ import utils.FileUtil;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class Song {
     private final String title;
     private String lyrics;
+    // When set, lyrics are read through this on each access instead of being held by the song
+    private Supplier<String> lyricsLoader;
     private final String releaseDate;
     private int likes;
     private int views;
@@ -63,11 +66,24 @@ public class Song {
     }
 
     public String getLyrics() {
+        if (lyricsLoader != null) {
+            String loaded = lyricsLoader.get();
+            return loaded != null ? loaded : "";
+        }
         return lyrics;
     }
 
     public void setLyrics(String lyrics) {
         this.lyrics = lyrics != null ? lyrics : "";
+        this.lyricsLoader = null;
+    }
+
+    public void setLyricsLoader(Supplier<String> lyricsLoader) {
+        if (lyricsLoader == null) {
+            throw new IllegalArgumentException("Lyrics loader cannot be null");
+        }
+        this.lyricsLoader = lyricsLoader;
+        this.lyrics = null;
     }
 
     public String getReleaseDate() {
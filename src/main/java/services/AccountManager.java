@@ -10,9 +10,9 @@ import services.file.UserFileManager;
 import java.util.regex.Pattern;
 
 public class AccountManager {
-    private static final AdminFileManager adminFileManager = new AdminFileManager();
-    private static final ArtistFileManager artistFileManager = new ArtistFileManager();
-    private static final UserFileManager userFileManager = new UserFileManager();
+    private static final AdminFileManager adminFileManager = CatalogService.getInstance().getAdminFileManager();
+    private static final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
+    private static final UserFileManager userFileManager = CatalogService.getInstance().getUserFileManager();
 
     public enum Role {
         USER, ARTIST, ADMIN
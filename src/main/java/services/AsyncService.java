@@ -0,0 +1,95 @@
+package services;
+
+import models.DTO.SearchResultDTO;
+import models.DTO.TrendingEntryDTO;
+import utils.ConfigLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs disk-bound work (catalog loads, searches, comment loads, saves) on a small pool of daemon threads, so callers
+// on the UI thread get a CompletableFuture back instead of blocking. Callers hop back to the UI thread themselves,
+// e.g. with whenCompleteAsync(..., Platform::runLater).
+public class AsyncService {
+    private static final AsyncService INSTANCE = new AsyncService();
+    private static final String SEARCH = "search";
+    private static final String TRENDING = "trending";
+
+    private final ExecutorService executor;
+    // Latest submission per key; a newer one cancels the one before it
+    private final Map<String, CompletableFuture<?>> latestByKey = new ConcurrentHashMap<>();
+
+    private AsyncService() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(ConfigLoader.getInstance().getBackgroundIoThreads(), task -> {
+            Thread thread = new Thread(task, "background-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static AsyncService getInstance() {
+        return INSTANCE;
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> work) {
+        if (work == null) throw new IllegalArgumentException("Work cannot be null");
+        return CompletableFuture.supplyAsync(work, executor);
+    }
+
+    public CompletableFuture<Void> run(Runnable work) {
+        if (work == null) throw new IllegalArgumentException("Work cannot be null");
+        return CompletableFuture.runAsync(work, executor);
+    }
+
+    // For requests where only the newest answer matters: submitting under a key cancels the previous submission for
+    // that key, which is then skipped if it hasn't started, and its result is dropped if it has
+    public <T> CompletableFuture<T> supplyLatest(String key, Supplier<T> work) {
+        if (key == null || key.trim().isEmpty()) throw new IllegalArgumentException("Key cannot be null or empty");
+        if (work == null) throw new IllegalArgumentException("Work cannot be null");
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<?> previous = latestByKey.put(key, future);
+        if (previous != null) previous.cancel(false);
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) return;
+                try {
+                    future.complete(work.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((result, error) -> latestByKey.remove(key, future));
+        return future;
+    }
+
+    // The catalog is scanned on first use, which can take a while on a large library
+    public CompletableFuture<SearchAndChartManager> searchAndChartManager() {
+        return supply(() -> CatalogService.getInstance().getSearchAndChartManager());
+    }
+
+    public CompletableFuture<List<SearchResultDTO>> search(String query) {
+        return supplyLatest(SEARCH, () -> CatalogService.getInstance().getSearchAndChartManager().search(query));
+    }
+
+    // The first read loads the saved trends from disk
+    public CompletableFuture<List<TrendingEntryDTO>> trendingSongs(TrendingCharts.Window window, int limit) {
+        return supplyLatest(TRENDING, () -> TrendingCharts.getInstance().getTopSongs(window, limit));
+    }
+
+    // A superseded request is not a failure worth reporting
+    public static boolean isCancellation(Throwable error) {
+        return unwrap(error) instanceof CancellationException;
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,162 @@
+package services;
+
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+import services.file.CatalogListener;
+import services.file.SongFileManager;
+import utils.FileUtil;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Materialized view/like totals per artist and per (artist, album).
+// Each song's last known counters are kept so a recorded view or like only applies its delta.
+public class CatalogAggregates implements CatalogListener {
+    private static final CatalogAggregates INSTANCE = new CatalogAggregates();
+
+    public record AlbumKey(String artistName, String albumName) {
+        public AlbumKey {
+            artistName = FileUtil.sanitizeFileName(artistName);
+            albumName = FileUtil.sanitizeFileName(albumName);
+        }
+    }
+
+    private static final class Totals {
+        private long views;
+        private long likes;
+
+        private void add(long viewsDelta, long likesDelta) {
+            views += viewsDelta;
+            likes += likesDelta;
+        }
+    }
+
+    private record Counters(int views, int likes) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Totals> artistTotals = new HashMap<>();
+    private final Map<AlbumKey, Totals> albumTotals = new HashMap<>();
+    private final Map<SongKey, Counters> songCounters = new HashMap<>();
+
+    private CatalogAggregates() {}
+
+    public static CatalogAggregates getInstance() {
+        return INSTANCE;
+    }
+
+    static {
+        SongFileManager.addCatalogListener(INSTANCE);
+    }
+
+    public void rebuild(List<SongDTO> songs) {
+        lock.writeLock().lock();
+        try {
+            artistTotals.clear();
+            albumTotals.clear();
+            songCounters.clear();
+            for (SongDTO song : songs) {
+                apply(song.artistName(), song.albumName(), song.title(), song.views(), song.likes());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getArtistViews(String artistName) {
+        return read(artistTotals, FileUtil.sanitizeFileName(artistName), true);
+    }
+
+    public int getArtistLikes(String artistName) {
+        return read(artistTotals, FileUtil.sanitizeFileName(artistName), false);
+    }
+
+    public int getAlbumViews(String artistName, String albumName) {
+        return read(albumTotals, new AlbumKey(artistName, albumName), true);
+    }
+
+    public int getAlbumLikes(String artistName, String albumName) {
+        return read(albumTotals, new AlbumKey(artistName, albumName), false);
+    }
+
+    @Override
+    public void songSaved(SongDTO song) {
+        lock.writeLock().lock();
+        try {
+            apply(song.artistName(), song.albumName(), song.title(), song.views(), song.likes());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songDeleted(String artistNickName, String albumName, String songTitle) {
+        lock.writeLock().lock();
+        try {
+            apply(artistNickName, albumName, songTitle, 0, 0);
+            songCounters.remove(new SongKey(artistNickName, albumName, songTitle));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void albumDeleted(String artistNickName, String albumTitle) {
+        lock.writeLock().lock();
+        try {
+            AlbumKey albumKey = new AlbumKey(artistNickName, albumTitle);
+            Totals removed = albumTotals.remove(albumKey);
+            if (removed != null) {
+                Totals artist = artistTotals.get(albumKey.artistName());
+                if (artist != null) artist.add(-removed.views, -removed.likes);
+            }
+            songCounters.keySet().removeIf(key -> key.isInAlbum(artistNickName, albumTitle));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void countersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        lock.writeLock().lock();
+        try {
+            Counters previous = songCounters.get(song);
+            if (previous == null) return;
+            songCounters.put(song, new Counters(previous.views() + viewsDelta, previous.likes() + likesDelta));
+            artistTotals.computeIfAbsent(song.artistName(), k -> new Totals()).add(viewsDelta, likesDelta);
+            if (song.albumName() != null) {
+                albumTotals.computeIfAbsent(new AlbumKey(song.artistName(), song.albumName()), k -> new Totals()).add(viewsDelta, likesDelta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The song key has already turned "Single" and blank album names into none, so singles never get an album total
+    private void apply(String artistName, String albumName, String title, int views, int likes) {
+        SongKey songKey = new SongKey(artistName, albumName, title);
+        Counters previous = songCounters.put(songKey, new Counters(views, likes));
+        long viewsDelta = views - (previous != null ? previous.views() : 0);
+        long likesDelta = likes - (previous != null ? previous.likes() : 0);
+
+        artistTotals.computeIfAbsent(songKey.artistName(), k -> new Totals()).add(viewsDelta, likesDelta);
+        if (songKey.albumName() != null) {
+            albumTotals.computeIfAbsent(new AlbumKey(songKey.artistName(), songKey.albumName()), k -> new Totals()).add(viewsDelta, likesDelta);
+        }
+    }
+
+    private <K> int read(Map<K, Totals> totalsMap, K key, boolean views) {
+        lock.readLock().lock();
+        try {
+            Totals totals = totalsMap.get(key);
+            if (totals == null) return 0;
+            long value = views ? totals.views : totals.likes;
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, value));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
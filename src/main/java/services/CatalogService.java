@@ -0,0 +1,126 @@
+package services;
+
+import models.DTO.SongKey;
+import services.file.*;
+import utils.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// One set of file managers for the whole process, so their artist, follower, user and song caches stay warm across
+// screens and sessions. Writes that go around a manager's own cache arrive as catalog events and invalidate it here.
+public class CatalogService implements CatalogListener, AccountListener {
+    public enum Scope { ARTISTS, USERS, SONGS, ALL }
+
+    private static final CatalogService INSTANCE = new CatalogService();
+
+    private final SongFileManager songFileManager = new SongFileManager();
+    private final LyricsRequestManager lyricsRequestManager = new LyricsRequestManager(songFileManager);
+    private final ArtistFileManager artistFileManager = new ArtistFileManager(lyricsRequestManager);
+    private final UserFileManager userFileManager = new UserFileManager();
+    private final AdminFileManager adminFileManager = new AdminFileManager(lyricsRequestManager);
+    private final List<Consumer<Scope>> invalidationListeners = new CopyOnWriteArrayList<>();
+    private volatile SearchAndChartManager searchAndChartManager;
+
+    private CatalogService() {}
+
+    public static CatalogService getInstance() {
+        return INSTANCE;
+    }
+
+    static {
+        SongFileManager.addCatalogListener(INSTANCE);
+        FileManager.addAccountListener(INSTANCE);
+        // Registered with the catalog service rather than on first use, since trends can't be rebuilt from the catalog
+        SongFileManager.addCatalogListener(TrendingCharts.getInstance());
+    }
+
+    public SongFileManager getSongFileManager() {
+        return songFileManager;
+    }
+
+    public ArtistFileManager getArtistFileManager() {
+        return artistFileManager;
+    }
+
+    public UserFileManager getUserFileManager() {
+        return userFileManager;
+    }
+
+    public AdminFileManager getAdminFileManager() {
+        return adminFileManager;
+    }
+
+    public LyricsRequestManager getLyricsRequestManager() {
+        return lyricsRequestManager;
+    }
+
+    // The catalog is scanned once on first use and then kept current by catalog events
+    public SearchAndChartManager getSearchAndChartManager() {
+        SearchAndChartManager manager = searchAndChartManager;
+        if (manager == null) {
+            synchronized (this) {
+                manager = searchAndChartManager;
+                if (manager == null) {
+                    manager = new SearchAndChartManager(artistFileManager, songFileManager);
+                    searchAndChartManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+    public void addInvalidationListener(Consumer<Scope> listener) {
+        if (listener == null) throw new IllegalArgumentException("Invalidation listener cannot be null");
+        if (!invalidationListeners.contains(listener)) invalidationListeners.add(listener);
+    }
+
+    public void removeInvalidationListener(Consumer<Scope> listener) {
+        invalidationListeners.remove(listener);
+    }
+
+    public void invalidate(Scope scope) {
+        if (scope == null) throw new IllegalArgumentException("Scope cannot be null");
+        switch (scope) {
+            case ARTISTS -> artistFileManager.clearCache();
+            case USERS -> userFileManager.invalidateUserCache();
+            case SONGS -> songFileManager.clearCache();
+            case ALL -> {
+                artistFileManager.clearCache();
+                userFileManager.invalidateUserCache();
+                songFileManager.clearCache();
+                // Forces a full rescan on the next access
+                searchAndChartManager = null;
+            }
+        }
+        notifyInvalidationListeners(scope);
+    }
+
+    private void notifyInvalidationListeners(Scope scope) {
+        for (Consumer<Scope> listener : invalidationListeners) {
+            try {
+                listener.accept(scope);
+            } catch (Exception e) {
+                Log.error("Invalidation listener failed for {}: {}", scope, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void accountSaved(String role, String nickName) {
+        if ("artist".equalsIgnoreCase(role)) {
+            invalidate(Scope.ARTISTS);
+        } else if ("user".equalsIgnoreCase(role)) {
+            // Only the new user is loaded; the rest of the user cache stays
+            userFileManager.refreshUser(nickName);
+            notifyInvalidationListeners(Scope.USERS);
+        }
+    }
+
+    @Override
+    public void lyricsChanged(SongKey song) {
+        // Only that song's lyrics changed; the rest of the song cache stays
+        songFileManager.invalidateSong(song);
+    }
+}
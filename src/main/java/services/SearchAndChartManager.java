@@ -1,21 +1,29 @@
 package services;
 
-import models.DTO.ChartEntryDTO;
 import models.account.Artist;
 import models.DTO.SearchResultDTO;
 import models.music.Song;
 import models.DTO.SongDTO;
 import services.file.ArtistFileManager;
 import services.file.SongFileManager;
-import utils.FileUtil;
+
+import utils.ConfigLoader;
+import utils.Log;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchAndChartManager {
-    private final List<SongDTO> allSongs;
+    private static final String DEFAULT_ART_PATH = "GENIUS/src/main/resources/pics/Genius.com_logo_yellow.png";
+
     private final ArtistFileManager artistFileManager;
     private final SongFileManager songFileManager;
-    private final ChartService chartService;
+    private final SearchIndex searchIndex = SearchIndex.getInstance();
+    private final TopSongsChart topSongsChart = TopSongsChart.getInstance();
 
     public SearchAndChartManager(ArtistFileManager artistFileManager, SongFileManager songFileManager) {
         if (artistFileManager == null) {
@@ -26,42 +34,72 @@ public class SearchAndChartManager {
         }
         this.artistFileManager = artistFileManager;
         this.songFileManager = songFileManager;
-        this.chartService = new ChartService(artistFileManager, songFileManager);
-        this.allSongs = loadAllSongs();
+        List<SongDTO> allSongs = loadAllSongs();
+        CatalogAggregates.getInstance().rebuild(allSongs);
+        topSongsChart.rebuild(allSongs);
+        SongRankings.getInstance().rebuild(allSongs);
+        searchIndex.rebuild(allSongs);
     }
 
+    // Artists are independent on disk, so each one is loaded on its own task and the results are merged in artist order
     private List<SongDTO> loadAllSongs() {
-        List<SongDTO> songs = new ArrayList<>();
-        List<Artist> artists = artistFileManager.loadAllArtists();
+        List<Artist> artists = artistFileManager.loadAllArtists().stream()
+                .filter(Artist::isApproved) // Skip unapproved artists to avoid IllegalStateException
+                .toList();
+        if (artists.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        for (Artist artist : artists) {
-            if (!artist.isApproved()) {
-                // Skip unapproved artists to avoid IllegalStateException
-                continue;
+        int threads = Math.min(ConfigLoader.getInstance().getCatalogLoaderThreads(), artists.size());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService loader = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "catalog-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<SongDTO>>> results = new ArrayList<>();
+            for (Artist artist : artists) {
+                results.add(loader.submit(() -> loadArtistSongs(artist)));
             }
-            try {
-                songFileManager.loadSongsAndAlbumsForArtist(artist, artistFileManager); // Pass ArtistFileManager
-                List<Song> artistSongs = new ArrayList<>(artist.getSingles());
-                for (var album : artist.getAlbums()) {
-                    artistSongs.addAll(album.getSongs());
-                }
 
-                for (Song song : artistSongs) {
-                    songs.add(new SongDTO(
-                            song.getTitle(),
-                            artist.getNickName(),
-                            song.getAlbum() != null ? song.getAlbum().getTitle() : null,
-                            song.getViews(),
-                            song.getLikes(),
-                            song.getMetaFilePath(),
-                            song.getReleaseDate(),
-                            song.getAlbumArtPath() != null ? song.getAlbumArtPath() : "GENIUS/src/main/resources/pics/Genius.com_logo_yellow.png"
-                    ));
+            List<SongDTO> songs = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    songs.addAll(results.get(i).get());
+                } catch (ExecutionException e) {
+                    Log.error("Failed to load songs for artist '{}': {}", artists.get(i).getNickName(), e.getCause().getMessage());
+                    // Continue with the next artist instead of failing
                 }
-            } catch (Exception e) {
-                System.err.println("Failed to load songs for artist '" + artist.getNickName() + "': " + e.getMessage());
-                // Continue with the next artist instead of failing
             }
+            return songs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the catalog", e);
+        } finally {
+            loader.shutdownNow();
+        }
+    }
+
+    private List<SongDTO> loadArtistSongs(Artist artist) {
+        songFileManager.loadSongsAndAlbumsForArtist(artist, artistFileManager); // Pass ArtistFileManager
+        List<Song> artistSongs = new ArrayList<>(artist.getSingles());
+        for (var album : artist.getAlbums()) {
+            artistSongs.addAll(album.getSongs());
+        }
+
+        List<SongDTO> songs = new ArrayList<>(artistSongs.size());
+        for (Song song : artistSongs) {
+            songs.add(new SongDTO(
+                    song.getTitle(),
+                    artist.getNickName(),
+                    song.getAlbum() != null ? song.getAlbum().getTitle() : null,
+                    song.getViews(),
+                    song.getLikes(),
+                    song.getMetaFilePath(),
+                    song.getReleaseDate(),
+                    song.getAlbumArtPath() != null ? song.getAlbumArtPath() : DEFAULT_ART_PATH
+            ));
         }
         return songs;
     }
@@ -78,106 +116,17 @@ public class SearchAndChartManager {
         }
     }
 
+    // The chart was filled by the constructor and is kept current by catalog events
     public List<SongDTO> getTopSongs(int limit) {
-        if (limit <= 0) {
-            return new ArrayList<>();
-        }
-
-        List<ChartEntryDTO> chartEntries = chartService.getTopSongsChart();
-        List<SongDTO> topSongs = new ArrayList<>();
-        int count = 0;
-
-        for (ChartEntryDTO entry : chartEntries) {
-            if (count >= limit) {
-                break;
-            }
-            for (SongDTO song : allSongs) {
-                if (song.title().equals(entry.songTitle()) && song.artistName().equals(entry.artist())) {
-                    topSongs.add(song);
-                    count++;
-                    break;
-                }
-            }
-        }
-        return topSongs;
+        return topSongsChart.getTopSongs(limit);
     }
 
+    // Current catalog as maintained by the chart, rather than the snapshot taken at construction
     public List<SongDTO> getAllSongs() {
-        return new ArrayList<>(allSongs);
+        return topSongsChart.getTopSongs(topSongsChart.size());
     }
 
     public List<SearchResultDTO> search(String query) {
-        List<SearchResultDTO> results = new ArrayList<>();
-        if (query == null || query.trim().isEmpty()) {
-            return results;
-        }
-
-        query = query.toLowerCase();
-
-        // To store total views and likes for artists and albums
-        Map<String, Integer> artistViews = new HashMap<>();
-        Map<String, Integer> artistLikes = new HashMap<>();
-        Map<String, Integer> albumViews = new HashMap<>();
-        Map<String, Integer> albumLikes = new HashMap<>();
-        Map<String, String> albumArtists = new HashMap<>();
-
-        // Search all songs
-        for (SongDTO song : allSongs) {
-            String artistName = song.artistName();
-            String albumName = song.albumName();
-
-            // Gathering information for the artist
-            artistViews.put(artistName, artistViews.getOrDefault(artistName, 0) + song.views());
-            artistLikes.put(artistName, artistLikes.getOrDefault(artistName, 0) + song.likes());
-
-            // Gathering information for the album
-            if (albumName != null) {
-                albumViews.put(albumName, albumViews.getOrDefault(albumName, 0) + song.views());
-                albumLikes.put(albumName, albumLikes.getOrDefault(albumName, 0) + song.likes());
-                albumArtists.putIfAbsent(albumName, artistName);
-            }
-
-            // Search for songs
-            if (song.title().toLowerCase().contains(query)) {
-                results.add(new SearchResultDTO(
-                        SearchResultDTO.ResultType.SONG,
-                        song.title(),
-                        song.metaFilePath(),
-                        song.views(),
-                        song.likes()
-                ));
-            }
-        }
-
-        // Search for artists
-        for (String artistName : artistViews.keySet()) {
-            if (artistName.toLowerCase().contains(query)) {
-                String artistPath = FileUtil.DATA_DIR + "artists/" + artistName;
-                results.add(new SearchResultDTO(
-                        SearchResultDTO.ResultType.ARTIST,
-                        artistName,
-                        artistPath,
-                        artistViews.get(artistName),
-                        artistLikes.get(artistName)
-                ));
-            }
-        }
-
-        // Search for albums
-        for (String albumName : albumViews.keySet()) {
-            if (albumName.toLowerCase().contains(query)) {
-                String artistName = albumArtists.get(albumName);
-                String albumPath = FileUtil.DATA_DIR + "artists/" + artistName + "/albums/" + albumName;
-                results.add(new SearchResultDTO(
-                        SearchResultDTO.ResultType.ALBUM,
-                        albumName,
-                        albumPath,
-                        albumViews.get(albumName),
-                        albumLikes.get(albumName)
-                ));
-            }
-        }
-
-        return results;
+        return searchIndex.search(query);
     }
 }
\ No newline at end of file
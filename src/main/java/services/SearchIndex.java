@@ -0,0 +1,288 @@
+package services;
+
+import models.DTO.SearchResultDTO;
+import models.DTO.SearchResultDTO.ResultType;
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+import services.file.CatalogListener;
+import services.file.SongFileManager;
+import utils.FileUtil;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// N-gram inverted index over song titles, artist nicknames and album titles.
+// Every name is indexed under all of its substrings of length 1..GRAM_LENGTH, so a query of up to
+// GRAM_LENGTH characters is a single posting lookup and longer queries intersect their grams' postings.
+public class SearchIndex implements CatalogListener {
+    private static final int GRAM_LENGTH = 3;
+    private static final SearchIndex INSTANCE = new SearchIndex();
+
+    private record Entry(int id, ResultType type, String key, String name, String lowerName, String artistName, String albumName, SongDTO song) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CatalogAggregates aggregates = CatalogAggregates.getInstance();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> entryIds = new HashMap<>();
+    private final Map<String, Set<Integer>> songsByArtist = new HashMap<>();
+    private final Map<String, Set<Integer>> songsByAlbum = new HashMap<>();
+    private int nextId;
+
+    private SearchIndex() {}
+
+    public static SearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    static {
+        SongFileManager.addCatalogListener(INSTANCE);
+    }
+
+    public void rebuild(List<SongDTO> songs) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            entryIds.clear();
+            songsByArtist.clear();
+            songsByAlbum.clear();
+            nextId = 0;
+            for (SongDTO song : songs) {
+                addSong(song);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SearchResultDTO> search(String query) {
+        List<SearchResultDTO> results = new ArrayList<>();
+        if (query == null || query.trim().isEmpty()) {
+            return results;
+        }
+        String lowerQuery = query.toLowerCase();
+
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = new ArrayList<>();
+            for (int id : candidates(lowerQuery)) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.lowerName().contains(lowerQuery)) {
+                    matches.add(entry);
+                }
+            }
+            matches.sort(Comparator.comparingInt(Entry::id));
+
+            // Songs first, then artists, then albums
+            for (ResultType type : List.of(ResultType.SONG, ResultType.ARTIST, ResultType.ALBUM)) {
+                for (Entry entry : matches) {
+                    if (entry.type() == type) {
+                        results.add(toResult(entry));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    @Override
+    public void songSaved(SongDTO song) {
+        lock.writeLock().lock();
+        try {
+            addSong(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songDeleted(String artistNickName, String albumName, String songTitle) {
+        lock.writeLock().lock();
+        try {
+            removeSong(songKey(artistNickName, albumName, songTitle));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void albumDeleted(String artistNickName, String albumTitle) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> albumSongs = songsByAlbum.get(albumKey(artistNickName, albumTitle));
+            if (albumSongs == null) return;
+            for (int id : new ArrayList<>(albumSongs)) {
+                removeSong(entries.get(id).key());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void countersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        lock.writeLock().lock();
+        try {
+            Integer id = entryIds.get(songKey(song.artistName(), song.albumName(), song.title()));
+            if (id == null) return;
+            Entry entry = entries.get(id);
+            SongDTO updated = entry.song().withCounters(entry.song().views() + viewsDelta, entry.song().likes() + likesDelta);
+            entries.put(id, new Entry(id, entry.type(), entry.key(), entry.name(), entry.lowerName(),
+                    entry.artistName(), entry.albumName(), updated));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Collection<Integer> candidates(String lowerQuery) {
+        if (lowerQuery.length() <= GRAM_LENGTH) {
+            return postings.getOrDefault(lowerQuery, Set.of());
+        }
+
+        List<Set<Integer>> gramPostings = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= lowerQuery.length(); i++) {
+            Set<Integer> posting = postings.get(lowerQuery.substring(i, i + GRAM_LENGTH));
+            if (posting == null) return Set.of();
+            gramPostings.add(posting);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+
+        List<Integer> result = new ArrayList<>();
+        for (int id : gramPostings.getFirst()) {
+            boolean inAll = true;
+            for (int i = 1; i < gramPostings.size() && inAll; i++) {
+                inAll = gramPostings.get(i).contains(id);
+            }
+            if (inAll) result.add(id);
+        }
+        return result;
+    }
+
+    private SearchResultDTO toResult(Entry entry) {
+        return switch (entry.type()) {
+            case SONG -> new SearchResultDTO(ResultType.SONG, entry.name(), entry.song().metaFilePath(),
+                    entry.song().views(), entry.song().likes(), entry.artistName(), entry.albumName());
+            case ARTIST -> new SearchResultDTO(ResultType.ARTIST, entry.name(),
+                    FileUtil.DATA_DIR + "artists/" + entry.artistName(),
+                    aggregates.getArtistViews(entry.artistName()), aggregates.getArtistLikes(entry.artistName()),
+                    entry.artistName(), null);
+            case ALBUM -> new SearchResultDTO(ResultType.ALBUM, entry.name(),
+                    FileUtil.DATA_DIR + "artists/" + entry.artistName() + "/albums/" + entry.albumName(),
+                    aggregates.getAlbumViews(entry.artistName(), entry.albumName()),
+                    aggregates.getAlbumLikes(entry.artistName(), entry.albumName()),
+                    entry.artistName(), entry.albumName());
+        };
+    }
+
+    private void addSong(SongDTO song) {
+        String key = songKey(song.artistName(), song.albumName(), song.title());
+        Integer existingId = entryIds.get(key);
+        if (existingId != null) {
+            // Counter or metadata update for an already indexed song: keep its id and grams
+            Entry existing = entries.get(existingId);
+            entries.put(existingId, new Entry(existingId, ResultType.SONG, key, song.title(), existing.lowerName(),
+                    song.artistName(), song.albumName(), song));
+            return;
+        }
+
+        int id = addEntry(ResultType.SONG, key, song.title(), song.artistName(), song.albumName(), song);
+
+        String artistKey = artistKey(song.artistName());
+        if (!entryIds.containsKey(artistKey)) {
+            addEntry(ResultType.ARTIST, artistKey, song.artistName(), song.artistName(), null, null);
+        }
+        songsByArtist.computeIfAbsent(artistKey, k -> new HashSet<>()).add(id);
+
+        if (song.albumName() != null) {
+            String albumKey = albumKey(song.artistName(), song.albumName());
+            if (!entryIds.containsKey(albumKey)) {
+                addEntry(ResultType.ALBUM, albumKey, song.albumName(), song.artistName(), song.albumName(), null);
+            }
+            songsByAlbum.computeIfAbsent(albumKey, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void removeSong(String key) {
+        Integer id = entryIds.get(key);
+        if (id == null) return;
+        Entry entry = entries.get(id);
+        removeEntry(id);
+
+        String artistKey = artistKey(entry.artistName());
+        if (removeMember(songsByArtist, artistKey, id)) {
+            removeEntry(entryIds.get(artistKey));
+        }
+        if (entry.albumName() != null) {
+            String albumKey = albumKey(entry.artistName(), entry.albumName());
+            if (removeMember(songsByAlbum, albumKey, id)) {
+                removeEntry(entryIds.get(albumKey));
+            }
+        }
+    }
+
+    // Returns true when the group became empty and was dropped
+    private boolean removeMember(Map<String, Set<Integer>> groups, String groupKey, int id) {
+        Set<Integer> members = groups.get(groupKey);
+        if (members == null) return false;
+        members.remove(id);
+        if (members.isEmpty()) {
+            groups.remove(groupKey);
+            return true;
+        }
+        return false;
+    }
+
+    private int addEntry(ResultType type, String key, String name, String artistName, String albumName, SongDTO song) {
+        int id = nextId++;
+        String lowerName = name.toLowerCase();
+        entries.put(id, new Entry(id, type, key, name, lowerName, artistName, albumName, song));
+        entryIds.put(key, id);
+        for (String gram : grams(lowerName)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+        return id;
+    }
+
+    private void removeEntry(Integer id) {
+        if (id == null) return;
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        entryIds.remove(entry.key());
+        for (String gram : grams(entry.lowerName())) {
+            Set<Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String lowerName) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < lowerName.length(); i++) {
+            for (int length = 1; length <= GRAM_LENGTH && i + length <= lowerName.length(); length++) {
+                grams.add(lowerName.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    // Keys use the sanitized names so they match the directory names deletes are issued with
+    private static String artistKey(String artistName) {
+        return "ARTIST|" + FileUtil.sanitizeFileName(artistName);
+    }
+
+    private static String albumKey(String artistName, String albumName) {
+        return "ALBUM|" + FileUtil.sanitizeFileName(artistName) + "|" + FileUtil.sanitizeFileName(albumName);
+    }
+
+    private static String songKey(String artistName, String albumName, String songTitle) {
+        return "SONG|" + FileUtil.sanitizeFileName(artistName) + "|" + (albumName != null ? FileUtil.sanitizeFileName(albumName) : "")
+                + "|" + FileUtil.sanitizeFileName(songTitle);
+    }
+}
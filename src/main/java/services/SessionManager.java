@@ -6,9 +6,12 @@ import models.account.Artist;
 import models.account.User;
 import services.file.ArtistFileManager;
 import services.file.UserFileManager;
+import utils.Log;
 
+import java.util.ArrayList;
 import java.util.List;
 
+
 public class SessionManager {
     private static Account currentAccount;
     private static String selectedArtist;
@@ -18,8 +21,8 @@ public class SessionManager {
     private String selectedOriginalLyrics;
 
     private static final SessionManager INSTANCE = new SessionManager();
-    private static final UserFileManager userFileManager = new UserFileManager();
-    private static final ArtistFileManager artistFileManager = new ArtistFileManager();
+    private static final UserFileManager userFileManager = CatalogService.getInstance().getUserFileManager();
+    private static final ArtistFileManager artistFileManager = CatalogService.getInstance().getArtistFileManager();
 
     private SessionManager() {}
 
@@ -50,23 +53,14 @@ public class SessionManager {
             switch (account) {
                 case User user -> {
                     try {
-                        user.loadFollowingArtistsFromFile(artistFileManager, userFileManager);
+                        loadFollowingArtists(user);
                     } catch (Exception e) {
                         System.err.println("Failed to load following artists for user '" + user.getNickName() + "': " + e.getMessage());
                         throw new IllegalStateException("Failed to load following artists", e);
                     }
                 }
-                case Artist artist -> {
-                    try {
-                        List<User> allUsers = userFileManager.loadAllUsers();
-                        List<User> followers = artistFileManager.loadFollowers(artist, allUsers);
-                        artist.getFollowers().clear();
-                        artist.getFollowers().addAll(followers);
-                    } catch (Exception e) {
-                        System.err.println("Failed to load followers for artist '" + artist.getNickName() + "': " + e.getMessage());
-                        throw new IllegalStateException("Failed to load followers", e);
-                    }
-                }
+                // Followers are counted through the follow graph on demand, never loaded as a whole
+                case Artist artist -> {}
                 case Admin admin -> {}
                 default -> System.err.println("Unknown account type for: " + account.getNickName());
             }
@@ -78,6 +72,23 @@ public class SessionManager {
         }
     }
 
+    // Resolves only the artists the user follows; the follow graph stays the source of truth
+    public void loadFollowingArtists(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        List<Artist> followingArtists = new ArrayList<>();
+        for (String artistNickName : userFileManager.loadFollowingArtistNames(user.getNickName(), 0, Integer.MAX_VALUE)) {
+            Artist artist = artistFileManager.getArtistByNickName(artistNickName);
+            if (artist != null) {
+                followingArtists.add(artist);
+            } else {
+                Log.warn("Followed artist not found: {} for user: {}", artistNickName, user.getNickName());
+            }
+        }
+        user.setFollowingArtists(followingArtists);
+    }
+
     public static void validateSession() {
         String artistName = SessionManager.getInstance().getSelectedArtist();
         String artistEmail = SessionManager.getInstance().getSelectedArtistEmail();
@@ -0,0 +1,282 @@
+package services;
+
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+import services.file.CatalogListener;
+import services.file.SongFileManager;
+import utils.FileUtil;
+import utils.OrderStatisticTree;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Songs ranked along several dimensions at once, over the whole catalog, per artist and per album. Each ranking is an
+// order-statistic tree, so a song's rank, the top N and any rank range are O(log N) (plus the songs returned), and a
+// counter change moves the song in O(log N) in each ranking it belongs to.
+public class SongRankings implements CatalogListener {
+    public enum Dimension {
+        VIEWS(Comparator.comparingInt(SongDTO::views)),
+        LIKES(Comparator.comparingInt(SongDTO::likes)),
+        LIKE_RATIO(Comparator.comparingDouble(SongRankings::likeRatio)),
+        RELEASE_DATE(Comparator.comparing(SongRankings::releaseDay));
+
+        // Highest value first; songs with equal values keep a stable order
+        private final Comparator<SongDTO> order;
+
+        Dimension(Comparator<SongDTO> ascending) {
+            this.order = ascending.reversed()
+                    .thenComparing(SongDTO::title)
+                    .thenComparing(SongDTO::artistName)
+                    .thenComparing(SongDTO::metaFilePath);
+        }
+    }
+
+    // The songs a ranking covers: the whole catalog, one artist, or one album of an artist
+    public record Scope(String artistName, String albumName) {
+        public static final Scope GLOBAL = new Scope(null, null);
+
+        public Scope {
+            if (artistName == null && albumName != null) {
+                throw new IllegalArgumentException("Album scope needs an artist");
+            }
+            artistName = artistName == null ? null : FileUtil.sanitizeFileName(artistName);
+            albumName = albumName == null ? null : FileUtil.sanitizeFileName(albumName);
+        }
+
+        public static Scope artist(String artistName) {
+            if (artistName == null || artistName.trim().isEmpty()) throw new IllegalArgumentException("Artist name cannot be null or empty");
+            return new Scope(artistName, null);
+        }
+
+        public static Scope album(String artistName, String albumName) {
+            if (artistName == null || artistName.trim().isEmpty()) throw new IllegalArgumentException("Artist name cannot be null or empty");
+            if (albumName == null || albumName.trim().isEmpty()) throw new IllegalArgumentException("Album name cannot be null or empty");
+            return new Scope(artistName, albumName);
+        }
+    }
+
+    // A song and the scopes it is ranked in, worked out once so counter changes skip the name sanitizing
+    private record Ranked(SongDTO song, List<Scope> scopes) {}
+
+    private static final SongRankings INSTANCE = new SongRankings();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Scope, EnumMap<Dimension, OrderStatisticTree<SongDTO>>> rankings = new HashMap<>();
+    private final Map<SongKey, Ranked> songs = new HashMap<>();
+    private boolean loaded;
+
+    private SongRankings() {}
+
+    public static SongRankings getInstance() {
+        return INSTANCE;
+    }
+
+    static {
+        SongFileManager.addCatalogListener(INSTANCE);
+    }
+
+    public void rebuild(List<SongDTO> allSongs) {
+        lock.writeLock().lock();
+        try {
+            rankings.clear();
+            songs.clear();
+            Map<Scope, List<SongDTO>> songsByScope = new HashMap<>();
+            for (SongDTO song : allSongs) {
+                SongKey key = SongKey.of(song);
+                songs.put(key, new Ranked(song, scopesOf(key)));
+            }
+            for (Ranked ranked : songs.values()) {
+                for (Scope scope : ranked.scopes()) {
+                    songsByScope.computeIfAbsent(scope, s -> new ArrayList<>()).add(ranked.song());
+                }
+            }
+            // Sorting each scope once and building its trees bottom-up is much cheaper than inserting song by song
+            songsByScope.forEach((scope, scopeSongs) -> {
+                EnumMap<Dimension, OrderStatisticTree<SongDTO>> byDimension = new EnumMap<>(Dimension.class);
+                for (Dimension dimension : Dimension.values()) {
+                    scopeSongs.sort(dimension.order);
+                    byDimension.put(dimension, OrderStatisticTree.fromSorted(dimension.order, scopeSongs));
+                }
+                rankings.put(scope, byDimension);
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based rank of song within scope, or 0 if the song isn't in that scope
+    public int rankOf(SongKey song, Dimension dimension, Scope scope) {
+        if (song == null || dimension == null || scope == null) return 0;
+        lock.readLock().lock();
+        try {
+            Ranked current = songs.get(song);
+            OrderStatisticTree<SongDTO> ranking = ranking(scope, dimension);
+            if (current == null || ranking == null) return 0;
+            return ranking.indexOf(current.song()) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SongDTO> getTop(Dimension dimension, Scope scope, int limit) {
+        return getRange(dimension, scope, 1, limit);
+    }
+
+    // Songs ranked fromRank to toRank inclusive, both 1-based
+    public List<SongDTO> getRange(Dimension dimension, Scope scope, int fromRank, int toRank) {
+        if (dimension == null || scope == null) throw new IllegalArgumentException("Dimension and scope cannot be null");
+        if (fromRank < 1 || toRank < fromRank) return new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<SongDTO> ranking = ranking(scope, dimension);
+            return ranking != null ? ranking.range(fromRank - 1, toRank) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(Scope scope) {
+        if (scope == null) return 0;
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<SongDTO> ranking = ranking(scope, Dimension.VIEWS);
+            return ranking != null ? ranking.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rankings.clear();
+            songs.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songSaved(SongDTO song) {
+        lock.writeLock().lock();
+        try {
+            put(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songDeleted(String artistNickName, String albumName, String songTitle) {
+        lock.writeLock().lock();
+        try {
+            Ranked removed = songs.remove(new SongKey(artistNickName, albumName, songTitle));
+            if (removed != null) unrank(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void albumDeleted(String artistNickName, String albumTitle) {
+        lock.writeLock().lock();
+        try {
+            // The album's own ranking already lists its songs, so there's no need to scan the catalog
+            OrderStatisticTree<SongDTO> albumSongs = ranking(Scope.album(artistNickName, albumTitle), Dimension.VIEWS);
+            if (albumSongs == null) return;
+            for (SongDTO song : albumSongs.range(0, albumSongs.size())) {
+                Ranked removed = songs.remove(SongKey.of(song));
+                if (removed != null) unrank(removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void countersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        lock.writeLock().lock();
+        try {
+            Ranked current = songs.get(song);
+            if (current != null) {
+                SongDTO counted = current.song();
+                place(song, counted.withCounters(counted.views() + viewsDelta, counted.likes() + likesDelta), current.scopes());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(SongDTO song) {
+        SongKey key = SongKey.of(song);
+        Ranked previous = songs.get(key);
+        place(key, song, previous != null ? previous.scopes() : scopesOf(key));
+    }
+
+    private void place(SongKey key, SongDTO song, List<Scope> scopes) {
+        Ranked previous = songs.put(key, new Ranked(song, scopes));
+        if (previous != null) unrank(previous);
+        for (Scope scope : scopes) {
+            EnumMap<Dimension, OrderStatisticTree<SongDTO>> byDimension = rankings.computeIfAbsent(scope, s -> newRankings());
+            for (OrderStatisticTree<SongDTO> ranking : byDimension.values()) {
+                ranking.add(song);
+            }
+        }
+    }
+
+    private void unrank(Ranked ranked) {
+        for (Scope scope : ranked.scopes()) {
+            EnumMap<Dimension, OrderStatisticTree<SongDTO>> byDimension = rankings.get(scope);
+            if (byDimension == null) continue;
+            for (OrderStatisticTree<SongDTO> ranking : byDimension.values()) {
+                ranking.remove(ranked.song());
+            }
+            if (byDimension.get(Dimension.VIEWS).isEmpty()) rankings.remove(scope);
+        }
+    }
+
+    private OrderStatisticTree<SongDTO> ranking(Scope scope, Dimension dimension) {
+        EnumMap<Dimension, OrderStatisticTree<SongDTO>> byDimension = rankings.get(scope);
+        return byDimension != null ? byDimension.get(dimension) : null;
+    }
+
+    private static EnumMap<Dimension, OrderStatisticTree<SongDTO>> newRankings() {
+        EnumMap<Dimension, OrderStatisticTree<SongDTO>> byDimension = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            byDimension.put(dimension, new OrderStatisticTree<>(dimension.order));
+        }
+        return byDimension;
+    }
+
+    private static List<Scope> scopesOf(SongKey key) {
+        List<Scope> scopes = new ArrayList<>(3);
+        scopes.add(Scope.GLOBAL);
+        scopes.add(Scope.artist(key.artistName()));
+        if (key.albumName() != null) scopes.add(Scope.album(key.artistName(), key.albumName()));
+        return scopes;
+    }
+
+    private static double likeRatio(SongDTO song) {
+        return (double) song.likes() / Math.max(song.views(), 1);
+    }
+
+    // yyyy-MM-dd dates sort as strings, so newer releases rank first; songs without a date ("Not set") rank last.
+    // Called on every comparison, hence the shape check instead of a parse.
+    private static String releaseDay(SongDTO song) {
+        String date = song.releaseDate();
+        boolean isoShaped = date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-' && Character.isDigit(date.charAt(0));
+        return isoShaped ? date : "";
+    }
+}
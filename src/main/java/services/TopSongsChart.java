@@ -0,0 +1,150 @@
+package services;
+
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+import services.file.CatalogListener;
+import services.file.SongFileManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Songs kept continuously ordered by views, so the top K is read in O(K) and a counter change costs O(log N)
+public class TopSongsChart implements CatalogListener {
+    private static final Comparator<SongDTO> BY_VIEWS = Comparator.comparingInt(SongDTO::views).reversed()
+            .thenComparing(SongDTO::title)
+            .thenComparing(SongDTO::artistName)
+            .thenComparing(SongDTO::metaFilePath);
+
+    private static final TopSongsChart INSTANCE = new TopSongsChart();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<SongDTO> ranked = new TreeSet<>(BY_VIEWS);
+    private final Map<SongKey, SongDTO> songs = new HashMap<>();
+    private boolean loaded;
+
+    private TopSongsChart() {}
+
+    public static TopSongsChart getInstance() {
+        return INSTANCE;
+    }
+
+    static {
+        SongFileManager.addCatalogListener(INSTANCE);
+    }
+
+    public void rebuild(List<SongDTO> allSongs) {
+        lock.writeLock().lock();
+        try {
+            ranked.clear();
+            songs.clear();
+            for (SongDTO song : allSongs) {
+                put(song);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SongDTO> getTopSongs(int limit) {
+        List<SongDTO> topSongs = new ArrayList<>();
+        if (limit <= 0) return topSongs;
+        lock.readLock().lock();
+        try {
+            for (SongDTO song : ranked) {
+                if (topSongs.size() >= limit) break;
+                topSongs.add(song);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return topSongs;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ranked.clear();
+            songs.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songSaved(SongDTO song) {
+        lock.writeLock().lock();
+        try {
+            put(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void songDeleted(String artistNickName, String albumName, String songTitle) {
+        lock.writeLock().lock();
+        try {
+            SongDTO removed = songs.remove(new SongKey(artistNickName, albumName, songTitle));
+            if (removed != null) ranked.remove(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void albumDeleted(String artistNickName, String albumTitle) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Map.Entry<SongKey, SongDTO>> iterator = songs.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<SongKey, SongDTO> entry = iterator.next();
+                if (entry.getKey().isInAlbum(artistNickName, albumTitle)) {
+                    ranked.remove(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void countersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        lock.writeLock().lock();
+        try {
+            SongDTO current = songs.get(song);
+            if (current != null) {
+                put(current.withCounters(current.views() + viewsDelta, current.likes() + likesDelta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(SongDTO song) {
+        SongDTO previous = songs.put(SongKey.of(song), song);
+        if (previous != null) ranked.remove(previous);
+        ranked.add(song);
+    }
+}
@@ -0,0 +1,326 @@
+package services;
+
+import models.DTO.SongKey;
+import models.DTO.TrendingEntryDTO;
+import services.file.CatalogListener;
+import utils.ConfigLoader;
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Trending songs over rolling windows (last hour, day and week), fed by the view and like deltas the counter log
+// publishes. Each window splits time into fixed buckets and keeps, per recently active song, a ring of per-bucket
+// counts; a bucket leaving the window is subtracted from exactly the songs that had activity in it. Songs are kept
+// ordered by score, so the top N is read in O(N) and a counter change costs O(log n).
+// Scores use forward decay: activity is weighted by e^(rate * (bucket - landmark)) when it is added, which ranks songs
+// exactly as decaying every score as time passes would, without touching the scores that aren't changing.
+// Bucket counts are saved to data/charts/trending.txt every minute and at shutdown.
+public class TrendingCharts implements CatalogListener {
+    public enum Window {
+        HOUR("Last Hour", Duration.ofMinutes(5), 12, Duration.ofMinutes(15)),
+        DAY("Last Day", Duration.ofHours(1), 24, Duration.ofHours(6)),
+        WEEK("Last Week", Duration.ofHours(6), 28, Duration.ofDays(2));
+
+        private final String label;
+        private final long bucketMillis;
+        private final int buckets;
+        private final Duration defaultHalfLife;
+
+        Window(String label, Duration bucket, int buckets, Duration defaultHalfLife) {
+            this.label = label;
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+            this.defaultHalfLife = defaultHalfLife;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        private long bucketOf(long timeMillis) {
+            return Math.floorDiv(timeMillis, bucketMillis);
+        }
+    }
+
+    private static final String TRENDING_FILE = FileUtil.DATA_DIR + "charts/trending.txt";
+    // A like says more about a song than a view
+    private static final int LIKE_WEIGHT = 5;
+    // Weights are rebased long before e^exponent could overflow a double
+    private static final double MAX_EXPONENT = 50;
+    private static final long SAVE_INTERVAL_MS = 60_000;
+
+    // One song's counts within one window; slot i holds bucket bucketIds[i], or nothing if that is -1
+    private static final class Trend {
+        private final SongKey song;
+        private final long[] bucketIds;
+        private final int[] views;
+        private final int[] likes;
+        private int activeBuckets;
+        private double weightedScore;
+        private long windowViews;
+        private long windowLikes;
+
+        private Trend(SongKey song, int buckets) {
+            this.song = song;
+            this.bucketIds = new long[buckets];
+            this.views = new int[buckets];
+            this.likes = new int[buckets];
+            Arrays.fill(bucketIds, -1);
+        }
+    }
+
+    private static final Comparator<Trend> BY_SCORE = Comparator.comparingDouble((Trend trend) -> trend.weightedScore).reversed()
+            .thenComparing(trend -> trend.song.artistName())
+            .thenComparing(trend -> trend.song.albumName(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(trend -> trend.song.title());
+
+    private static final TrendingCharts INSTANCE = new TrendingCharts();
+
+    private static final class WindowState {
+        private final Window window;
+        // Decay per bucket; 0 turns the score into the plain window total
+        private final double rate;
+        private final Map<SongKey, Trend> trends = new HashMap<>();
+        // Trends with a positive score only
+        private final NavigableSet<Trend> ranked = new TreeSet<>(BY_SCORE);
+        private final NavigableMap<Long, Set<SongKey>> songsByBucket = new TreeMap<>();
+        private long currentBucket = Long.MIN_VALUE;
+        private long landmark;
+
+        private WindowState(Window window, Duration halfLife) {
+            this.window = window;
+            this.rate = halfLife.isZero() ? 0 : Math.log(2) * window.bucketMillis / halfLife.toMillis();
+        }
+
+        private void advanceTo(long bucket) {
+            if (currentBucket == Long.MIN_VALUE) {
+                currentBucket = bucket;
+                landmark = bucket;
+                return;
+            }
+            if (bucket <= currentBucket) return;
+            NavigableMap<Long, Set<SongKey>> expired = songsByBucket.headMap(bucket - window.buckets, true);
+            for (Map.Entry<Long, Set<SongKey>> entry : expired.entrySet()) {
+                int slot = slotOf(entry.getKey());
+                for (SongKey song : entry.getValue()) {
+                    Trend trend = trends.get(song);
+                    if (trend == null || trend.bucketIds[slot] != entry.getKey()) continue;
+                    ranked.remove(trend);
+                    clearSlot(trend, slot);
+                    reposition(trend);
+                }
+            }
+            expired.clear();
+            currentBucket = bucket;
+            if (rate > 0 && rate * (currentBucket - landmark) > MAX_EXPONENT) rebase();
+        }
+
+        private void add(SongKey song, long bucket, int viewsDelta, int likesDelta) {
+            if (bucket <= currentBucket - window.buckets || bucket > currentBucket) return;
+            Trend trend = trends.computeIfAbsent(song, key -> new Trend(key, window.buckets));
+            ranked.remove(trend);
+            int slot = slotOf(bucket);
+            if (trend.bucketIds[slot] != bucket) {
+                // Only an expired bucket can still be in the slot, and advanceTo has already cleared those
+                if (trend.bucketIds[slot] != -1) clearSlot(trend, slot);
+                trend.bucketIds[slot] = bucket;
+                trend.activeBuckets++;
+                songsByBucket.computeIfAbsent(bucket, b -> new HashSet<>()).add(song);
+            }
+            trend.views[slot] += viewsDelta;
+            trend.likes[slot] += likesDelta;
+            trend.windowViews += viewsDelta;
+            trend.windowLikes += likesDelta;
+            trend.weightedScore += activity(viewsDelta, likesDelta) * weight(bucket);
+            reposition(trend);
+        }
+
+        private void remove(SongKey song) {
+            Trend trend = trends.remove(song);
+            if (trend != null) ranked.remove(trend);
+        }
+
+        private void clearSlot(Trend trend, int slot) {
+            trend.weightedScore -= activity(trend.views[slot], trend.likes[slot]) * weight(trend.bucketIds[slot]);
+            trend.windowViews -= trend.views[slot];
+            trend.windowLikes -= trend.likes[slot];
+            trend.views[slot] = 0;
+            trend.likes[slot] = 0;
+            trend.bucketIds[slot] = -1;
+            trend.activeBuckets--;
+        }
+
+        // Call after the trend was taken out of ranked and changed
+        private void reposition(Trend trend) {
+            if (trend.activeBuckets == 0) {
+                trends.remove(trend.song);
+            } else if (trend.weightedScore > 0) {
+                ranked.add(trend);
+            }
+        }
+
+        // Multiplies every score by the same factor, so the order is kept; ranked is rebuilt in case rounding ties
+        private void rebase() {
+            double factor = Math.exp(-rate * (currentBucket - landmark));
+            ranked.clear();
+            for (Trend trend : trends.values()) {
+                trend.weightedScore *= factor;
+                if (trend.weightedScore > 0) ranked.add(trend);
+            }
+            landmark = currentBucket;
+        }
+
+        private double weight(long bucket) {
+            return rate == 0 ? 1 : Math.exp(rate * (bucket - landmark));
+        }
+
+        // What a trend's weightedScore is worth now
+        private double scale() {
+            return rate == 0 ? 1 : Math.exp(-rate * (currentBucket - landmark));
+        }
+
+        private int slotOf(long bucket) {
+            return (int) Math.floorMod(bucket, (long) window.buckets);
+        }
+
+        private static double activity(long views, long likes) {
+            return views + (double) LIKE_WEIGHT * likes;
+        }
+    }
+
+    private final Map<Window, WindowState> windows = new EnumMap<>(Window.class);
+    private boolean loaded;
+    private boolean dirty;
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trending-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TrendingCharts() {
+        for (Window window : Window.values()) {
+            Duration halfLife = ConfigLoader.getInstance().getTrendingHalfLife(window.name().toLowerCase(), window.defaultHalfLife);
+            windows.put(window, new WindowState(window, halfLife));
+        }
+        saver.scheduleWithFixedDelay(this::saveIfDirty, SAVE_INTERVAL_MS, SAVE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveIfDirty, "trending-save-shutdown"));
+    }
+
+    public static TrendingCharts getInstance() {
+        return INSTANCE;
+    }
+
+    public List<TrendingEntryDTO> getTopSongs(Window window, int limit) {
+        return getTopSongs(window, limit, System.currentTimeMillis());
+    }
+
+    synchronized List<TrendingEntryDTO> getTopSongs(Window window, int limit, long nowMillis) {
+        if (window == null) throw new IllegalArgumentException("Window cannot be null");
+        List<TrendingEntryDTO> top = new ArrayList<>();
+        if (limit <= 0) return top;
+        ensureLoaded(nowMillis);
+        WindowState state = windows.get(window);
+        state.advanceTo(window.bucketOf(nowMillis));
+        double scale = state.scale();
+        for (Trend trend : state.ranked) {
+            if (top.size() >= limit) break;
+            top.add(new TrendingEntryDTO(top.size() + 1, trend.song.title(), trend.song.artistName(), trend.song.albumName(),
+                    trend.weightedScore * scale, trend.windowViews, trend.windowLikes));
+        }
+        return top;
+    }
+
+    @Override
+    public void countersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        record(song, viewsDelta, likesDelta, System.currentTimeMillis());
+    }
+
+    synchronized void record(SongKey song, int viewsDelta, int likesDelta, long nowMillis) {
+        if (song == null) throw new IllegalArgumentException("Song cannot be null");
+        if (viewsDelta == 0 && likesDelta == 0) return;
+        ensureLoaded(nowMillis);
+        for (WindowState state : windows.values()) {
+            long bucket = state.window.bucketOf(nowMillis);
+            state.advanceTo(bucket);
+            state.add(song, bucket, viewsDelta, likesDelta);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void songDeleted(String artistNickName, String albumName, String songTitle) {
+        SongKey song = new SongKey(artistNickName, albumName, songTitle);
+        for (WindowState state : windows.values()) state.remove(song);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void albumDeleted(String artistNickName, String albumTitle) {
+        for (WindowState state : windows.values()) {
+            for (SongKey song : new ArrayList<>(state.trends.keySet())) {
+                if (song.isInAlbum(artistNickName, albumTitle)) state.remove(song);
+            }
+        }
+        dirty = true;
+    }
+
+    // One line per window and song: "<window>\t<artist>\t<album>\t<title>\t<bucket>:<views>:<likes>,..."
+    public synchronized void save() {
+        List<String> lines = new ArrayList<>();
+        for (WindowState state : windows.values()) {
+            for (Trend trend : state.trends.values()) {
+                StringBuilder line = new StringBuilder(state.window.name()).append('\t')
+                        .append(trend.song.artistName()).append('\t')
+                        .append(trend.song.albumName() != null ? trend.song.albumName() : "").append('\t')
+                        .append(trend.song.title()).append('\t');
+                boolean first = true;
+                for (int slot = 0; slot < trend.bucketIds.length; slot++) {
+                    if (trend.bucketIds[slot] == -1) continue;
+                    if (!first) line.append(',');
+                    line.append(trend.bucketIds[slot]).append(':').append(trend.views[slot]).append(':').append(trend.likes[slot]);
+                    first = false;
+                }
+                lines.add(line.toString());
+            }
+        }
+        FileUtil.writeFile(TRENDING_FILE, lines);
+        dirty = false;
+    }
+
+    private synchronized void saveIfDirty() {
+        try {
+            if (dirty) save();
+        } catch (Exception e) {
+            Log.error("Failed to save trending charts: {}", e.getMessage());
+        }
+    }
+
+    // Buckets that left their window while the app was closed are dropped as they are read
+    private void ensureLoaded(long nowMillis) {
+        if (loaded) return;
+        loaded = true;
+        for (WindowState state : windows.values()) state.advanceTo(state.window.bucketOf(nowMillis));
+        if (!new File(TRENDING_FILE).exists()) return;
+        for (String line : FileUtil.readFile(TRENDING_FILE)) {
+            String[] parts = line.split("\t", -1);
+            try {
+                if (parts.length != 5) throw new IllegalArgumentException("expected 5 fields");
+                WindowState state = windows.get(Window.valueOf(parts[0]));
+                SongKey song = new SongKey(parts[1], parts[2].isEmpty() ? null : parts[2], parts[3]);
+                for (String bucket : parts[4].split(",")) {
+                    String[] counts = bucket.split(":");
+                    if (counts.length != 3) throw new IllegalArgumentException("bad bucket " + bucket);
+                    state.add(song, Long.parseLong(counts[0]), Integer.parseInt(counts[1]), Integer.parseInt(counts[2]));
+                }
+            } catch (IllegalArgumentException e) {
+                Log.warn("Skipping malformed trending line: {} ({})", line, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package services.file;
+
+import models.account.Account;
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Process-wide email <-> nickname <-> role lookups over the index_*.txt files.
+// The index files are read once, accounts missing from them are recovered from the account directories in the same
+// pass, and saveAccount registers new accounts, so lookups afterwards are hash hits without any disk I/O.
+final class AccountIndex {
+    private static final List<String> ROLES = List.of("user", "artist", "admin");
+    private static final AccountIndex INSTANCE = new AccountIndex();
+
+    private static final class RoleIndex {
+        private final Map<String, String> nickNameByEmail = new ConcurrentHashMap<>();
+        // Keyed by lower-cased nickname, since nickname lookups are case-insensitive
+        private final Map<String, String> emailByNickName = new ConcurrentHashMap<>();
+    }
+
+    private final Map<String, RoleIndex> roles = new ConcurrentHashMap<>();
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private final Set<String> nickNames = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    private AccountIndex() {
+        for (String role : ROLES) {
+            roles.put(role, new RoleIndex());
+        }
+    }
+
+    static AccountIndex getInstance() {
+        return INSTANCE;
+    }
+
+    boolean isTaken(String email, String nickName) {
+        ensureLoaded();
+        return (email != null && emails.contains(email)) || (nickName != null && nickNames.contains(nickName));
+    }
+
+    String findNickNameByEmail(String email, String role) {
+        if (email == null) return null;
+        ensureLoaded();
+        return roleIndex(role).nickNameByEmail.get(email);
+    }
+
+    String findEmailByNickName(String nickName, String role) {
+        if (nickName == null) return null;
+        ensureLoaded();
+        return roleIndex(role).emailByNickName.get(nickName.trim().toLowerCase());
+    }
+
+    void register(String role, String email, String nickName) {
+        ensureLoaded();
+        add(normalizeRole(role), email, nickName);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            FileManager fileManager = new FileManager() {};
+            for (String role : ROLES) {
+                String indexFile = fileManager.findIndexFile(role);
+                if (Files.exists(Paths.get(indexFile))) {
+                    for (String line : FileUtil.readFile(indexFile)) {
+                        addIndexLine(role, line);
+                    }
+                }
+                recoverUnindexedAccounts(fileManager, role, indexFile);
+            }
+            loaded = true;
+            Log.debug("Account index loaded: {} emails, {} nicknames", emails.size(), nickNames.size());
+        }
+    }
+
+    private void addIndexLine(String role, String line) {
+        String[] parts = line.trim().split(":");
+        if (parts.length != 2) {
+            Log.debug("Invalid format in index file line: {}", line);
+            return;
+        }
+        add(role, stripBrackets(parts[0].trim()), stripBrackets(parts[1].trim()));
+    }
+
+    // Account directories that no index line points to are parsed once and appended to the role's index file
+    private void recoverUnindexedAccounts(FileManager fileManager, String role, String indexFile) {
+        Path roleDir = Paths.get(FileUtil.DATA_DIR + (role.equals("user") ? "users" : role.equals("artist") ? "artists" : "admin") + "/");
+        if (!Files.isDirectory(roleDir)) return;
+        RoleIndex index = roles.get(role);
+
+        try (Stream<Path> subDirs = Files.list(roleDir).filter(Files::isDirectory)) {
+            for (Path subDir : subDirs.toList()) {
+                if (index.emailByNickName.containsKey(subDir.getFileName().toString().toLowerCase())) continue;
+                try (Stream<Path> files = Files.list(subDir)) {
+                    for (Path file : files.toList()) {
+                        String fileName = file.getFileName().toString();
+                        if (!Files.isRegularFile(file) || !fileName.endsWith(".txt")
+                                || fileName.equals("followers.txt") || fileName.equals("followings.txt")) continue;
+                        try {
+                            Account account = fileManager.loadAccountFromFile(file.toFile());
+                            add(role, account.getEmail(), account.getNickName());
+                            String entry = account.getEmail() + ":" + account.getNickName();
+                            FileUtil.updateFile(indexFile, lines -> {
+                                lines.add(entry);
+                                return lines;
+                            });
+                            Log.debug("Recovered unindexed {} account: {}", role, entry);
+                        } catch (IllegalStateException e) {
+                            Log.debug("Skipping non-account file {}: {}", file, e.getMessage());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.error("Failed to scan {} for unindexed accounts: {}", roleDir, e.getMessage());
+        }
+    }
+
+    // The first entry for an email or nickname wins, matching the order the index files were scanned in before
+    private void add(String role, String email, String nickName) {
+        RoleIndex index = roles.get(role);
+        index.nickNameByEmail.putIfAbsent(email, nickName);
+        index.emailByNickName.putIfAbsent(nickName.toLowerCase(), email);
+        emails.add(email);
+        nickNames.add(nickName);
+    }
+
+    private RoleIndex roleIndex(String role) {
+        return roles.get(normalizeRole(role));
+    }
+
+    private static String normalizeRole(String role) {
+        String normalized = role != null ? role.toLowerCase() : "user";
+        return ROLES.contains(normalized) ? normalized : "user";
+    }
+
+    private static String stripBrackets(String value) {
+        if (value.startsWith("[")) value = value.substring(1);
+        if (value.endsWith("]")) value = value.substring(0, value.length() - 1);
+        return value;
+    }
+}
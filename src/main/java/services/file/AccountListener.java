@@ -0,0 +1,7 @@
+package services.file;
+
+// Receives accounts registered through FileManager.saveAccount so account caches can pick them up
+@FunctionalInterface
+public interface AccountListener {
+    void accountSaved(String role, String nickName);
+}
@@ -2,6 +2,7 @@ package services.file;
 
 import models.account.Artist;
 import utils.FileUtil;
+import utils.Log;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -28,7 +29,12 @@ public class AdminFileManager extends FileManager {
     private final LyricsRequestManager lyricsRequestManager;
 
     public AdminFileManager() {
-        this.lyricsRequestManager = new LyricsRequestManager();
+        this(new LyricsRequestManager());
+    }
+
+    public AdminFileManager(LyricsRequestManager lyricsRequestManager) {
+        if (lyricsRequestManager == null) throw new IllegalArgumentException("LyricsRequestManager cannot be null");
+        this.lyricsRequestManager = lyricsRequestManager;
     }
 
     public synchronized void saveArtistRequest(String email, String nickName, String password) {
@@ -50,21 +56,21 @@ public class AdminFileManager extends FileManager {
         FileUtil.writeFile(requestFile, requestData);
     }
 
-    public synchronized List<String[]> loadPendingArtistRequests() {
+    public List<String[]> loadPendingArtistRequests() {
         List<String[]> requests = loadRequestsFromDir(ARTIST_REQUESTS_PENDING);
-        System.out.println("Loaded pending requests: " + requests.size());
+        Log.debug("Loaded pending requests: {}", requests.size());
         return requests;
     }
 
-    public synchronized List<String[]> loadApprovedArtistRequests() {
+    public List<String[]> loadApprovedArtistRequests() {
         List<String[]> requests = loadRequestsFromDir(ARTIST_REQUESTS_APPROVED);
-        System.out.println("Loaded approved requests: " + requests.size());
+        Log.debug("Loaded approved requests: {}", requests.size());
         return requests;
     }
 
-    public synchronized List<String[]> loadRejectedArtistRequests() {
+    public List<String[]> loadRejectedArtistRequests() {
         List<String[]> requests = loadRequestsFromDir(ARTIST_REQUESTS_REJECTED);
-        System.out.println("Loaded rejected requests: " + requests.size());
+        Log.debug("Loaded rejected requests: {}", requests.size());
         return requests;
     }
 
@@ -130,22 +136,22 @@ public class AdminFileManager extends FileManager {
     }
 
     private void logDirectoryContents(String dirPath, String message) {
-        System.out.println(message);
+        Log.debug("{}", message);
         Path dir = Paths.get(dirPath);
         if (!Files.exists(dir) || !Files.isDirectory(dir)) {
-            System.out.println("  Directory does not exist: " + dirPath);
+            Log.debug("  Directory does not exist: {}", dirPath);
             return;
         }
         try (Stream<Path> paths = Files.walk(dir, 1)) {
             paths.filter(Files::isRegularFile)
-                    .forEach(path -> System.out.println("  - File: " + path.toString()));
+                    .forEach(path -> Log.debug("  - File: {}", path));
             paths.close(); // Ensure stream is closed to avoid resource leak
             try (Stream<Path> dirPaths = Files.list(dir)) {
                 dirPaths.filter(Files::isDirectory)
-                        .forEach(path -> System.out.println("  - Dir: " + path.toString()));
+                        .forEach(path -> Log.debug("  - Dir: {}", path));
             }
         } catch (Exception e) {
-            System.err.println("Failed to list directory contents: " + e.getMessage());
+            Log.error("Failed to list directory contents: {}", e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package services.file;
 
 import models.account.Account;
-import models.account.User;
 import models.account.Artist;
 import utils.FileUtil;
+import utils.Log;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,6 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,12 +21,22 @@ public class ArtistFileManager extends FileManager {
     private static final String ARTISTS_DIR = DATA_DIR + "artists/";
     private static final String ARTISTS_INDEX_FILE = ARTISTS_DIR + "index_artists.txt";
     private static final String FOLLOWERS_FILE_NAME = "followers.txt";
-    private static final String FOLLOWERS_PREFIX = "Followers: ";
 
-    private final LyricsRequestManager lyricsRequestManager = new LyricsRequestManager();
+    private final LyricsRequestManager lyricsRequestManager;
 
-    private final Map<String, Artist> artistCache = new HashMap<>();
-    private final Map<String, List<User>> followerCache = new HashMap<>();
+    // Concurrent because one ArtistFileManager is shared across screens and the catalog loader threads
+    private final Map<String, Artist> artistCache = new ConcurrentHashMap<>();
+    // getArtistByNickName caches single artists, so a non-empty cache alone doesn't mean every artist is in it
+    private volatile boolean allArtistsCached;
+
+    public ArtistFileManager() {
+        this(new LyricsRequestManager());
+    }
+
+    public ArtistFileManager(LyricsRequestManager lyricsRequestManager) {
+        if (lyricsRequestManager == null) throw new IllegalArgumentException("LyricsRequestManager cannot be null");
+        this.lyricsRequestManager = lyricsRequestManager;
+    }
 
     @Override
     public synchronized void saveAccount(Account account) {
@@ -50,17 +61,16 @@ public class ArtistFileManager extends FileManager {
             String artistDir = ARTISTS_DIR + safeNickName + "/";
             ensureDataDirectoryExists(artistDir + "singles/");
             ensureDataDirectoryExists(artistDir + "albums/");
-            saveFollowers((Artist) account, new ArrayList<>());
             updateArtistIndex();
             artistCache.put(account.getNickName(), (Artist) account); // Update cache
         } catch (Exception e) {
-            System.err.println("Failed to save account for artist: " + account.getNickName() + ", error: " + e.getMessage());
+            Log.error("Failed to save account for artist: {}, error: {}", account.getNickName(), e.getMessage());
             throw new RuntimeException("Failed to save account", e);
         }
     }
 
     public List<Artist> loadAllArtists() {
-        if (!artistCache.isEmpty()) {
+        if (allArtistsCached) {
             return new ArrayList<>(artistCache.values());
         }
         Map<String, Artist> artistMap = new HashMap<>();
@@ -68,7 +78,7 @@ public class ArtistFileManager extends FileManager {
             Path artistsDir = Paths.get(ARTISTS_DIR);
 
             if (!Files.exists(artistsDir) || !Files.isDirectory(artistsDir)) {
-                System.err.println("Artists directory does not exist or is not a directory: " + ARTISTS_DIR);
+                Log.warn("Artists directory does not exist or is not a directory: {}", ARTISTS_DIR);
                 return new ArrayList<>();
             }
 
@@ -85,96 +95,35 @@ public class ArtistFileManager extends FileManager {
                                             artistCache.put(artist.getNickName(), artist); // Cache artists
                                         }
                                     } catch (IllegalStateException e) {
-                                        System.err.println("Failed to load artist from file: " + file + ", error: " + e.getMessage());
+                                        Log.error("Failed to load artist from file: {}, error: {}", file, e.getMessage());
                                     }
                                 });
                     } catch (IOException e) {
-                        System.err.println("Failed to list files in directory: " + artistDir + ", error: " + e.getMessage());
+                        Log.error("Failed to list files in directory: {}, error: {}", artistDir, e.getMessage());
                     }
                 });
             }
         } catch (IOException e) {
-            System.err.println("Failed to list artist directories: " + ARTISTS_DIR + ", error: " + e.getMessage());
+            Log.error("Failed to list artist directories: {}, error: {}", ARTISTS_DIR, e.getMessage());
+            return new ArrayList<>(artistMap.values());
         }
+        allArtistsCached = true;
         return new ArrayList<>(artistMap.values());
     }
 
-    public synchronized void saveFollowers(Artist artist, List<User> followers) {
-        if (artist == null) {
-            throw new IllegalArgumentException("Artist cannot be null");
-        }
-        if (followers == null) {
-            throw new IllegalArgumentException("Followers list cannot be null");
-        }
-
-        try {
-            String safeNickName = sanitizeFileName(artist.getNickName());
-            String fileName = ARTISTS_DIR + safeNickName + "/" + FOLLOWERS_FILE_NAME;
-            ensureDataDirectoryExists(ARTISTS_DIR + safeNickName + "/");
-
-            List<String> data = new ArrayList<>();
-            String followersLine = followers.isEmpty() ? FOLLOWERS_PREFIX + "(None)" :
-                    FOLLOWERS_PREFIX + followers.stream().map(User::getNickName).collect(Collectors.joining(","));
-            data.add(followersLine);
-            writeFile(fileName, data);
-            followerCache.put(artist.getNickName(), new ArrayList<>(followers)); // Update followers cache
-        } catch (Exception e) {
-            System.err.println("Failed to save followers for artist: " + artist.getNickName() + ", error: " + e.getMessage());
-            throw new RuntimeException("Failed to save followers", e);
-        }
-    }
-
-    public List<User> loadFollowers(Artist artist, List<User> allUsers) {
-        if (artist == null) {
-            throw new IllegalArgumentException("Artist cannot be null");
-        }
-        if (allUsers == null || allUsers.isEmpty()) {
-            System.out.println("No users provided for artist: " + artist.getNickName() + ", returning empty list");
-            return new ArrayList<>();
-        }
-
-        String safeNickName = sanitizeFileName(artist.getNickName());
-        String fileName = ARTISTS_DIR + safeNickName + "/" + FOLLOWERS_FILE_NAME;
-        Path followFile = Paths.get(fileName);
-
-        if (!Files.exists(followFile)) {
-            return new ArrayList<>();
-        }
-
-        List<User> cachedFollowers = followerCache.get(artist.getNickName());
-        if (cachedFollowers != null) {
-            return new ArrayList<>(cachedFollowers);
-        }
-
-        try {
-            List<String> userData = readFile(fileName);
-            String followersLine = extractField(userData, FOLLOWERS_PREFIX);
-            if (followersLine == null || followersLine.isEmpty() || followersLine.equals("(None)")) {
-                return new ArrayList<>();
-            }
-
-            Map<String, User> userMap = allUsers.stream()
-                    .collect(Collectors.toMap(User::getNickName, u -> u, (u1, u2) -> u1));
-
-            List<User> followers = Stream.of(followersLine.split(","))
-                    .map(String::trim)
-                    .filter(name -> !name.isEmpty())
-                    .map(userMap::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-            followerCache.put(artist.getNickName(), new ArrayList<>(followers)); // Cache followers
-            return followers;
-        } catch (Exception e) {
-            System.err.println("Failed to load followers for artist: " + artist.getNickName() + ", error: " + e.getMessage());
-            throw new RuntimeException("Failed to load followers", e);
-        }
+    public int getFollowerCount(String artistNickName) {
+        if (artistNickName == null || artistNickName.trim().isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        return FollowGraph.getInstance().followerCount(artistNickName);
     }
 
     public Artist getArtistByNickName(String nickName) {
         if (nickName == null || nickName.trim().isEmpty()) return null;
         Artist artist = artistCache.get(nickName);
         if (artist == null) {
-            File artistFile = new File(ARTISTS_DIR + sanitizeFileName(nickName) + "/" + nickName + "-" + nickName + "@example.com.txt");
+            // Account files are named "<nickname>-<email>.txt"; the email comes from the account index
+            String email = findEmailByNickName(nickName, "artist");
+            String safeNickName = sanitizeFileName(nickName);
+            File artistFile = new File(ARTISTS_DIR + safeNickName + "/" + safeNickName + "-" + (email != null ? email : nickName + "@example.com") + ".txt");
             if (artistFile.exists()) {
                 Account account = loadAccountFromFile(artistFile);
                 if (account instanceof Artist) {
@@ -195,7 +144,7 @@ public class ArtistFileManager extends FileManager {
             lyricsRequestManager.approveLyricsEditRequest(artistNickName, songTitle, timestamp, suggestedLyrics, albumName);
             invalidateArtistCache();
         } catch (Exception e) {
-            System.err.println("Failed to approve lyrics edit request for artist: " + artistNickName + ", song: " + songTitle + ", error: " + e.getMessage());
+            Log.error("Failed to approve lyrics edit request for artist: {}, song: {}, error: {}", artistNickName, songTitle, e.getMessage());
             throw new RuntimeException("Failed to approve lyrics edit request", e);
         }
     }
@@ -205,7 +154,7 @@ public class ArtistFileManager extends FileManager {
             lyricsRequestManager.rejectLyricsEditRequest(artistNickName, songTitle, timestamp);
             invalidateArtistCache();
         } catch (Exception e) {
-            System.err.println("Failed to reject lyrics edit request for artist: " + artistNickName + ", song: " + songTitle + ", error: " + e.getMessage());
+            Log.error("Failed to reject lyrics edit request for artist: {}, song: {}, error: {}", artistNickName, songTitle, e.getMessage());
             throw new RuntimeException("Failed to reject lyrics edit request", e);
         }
     }
@@ -215,7 +164,7 @@ public class ArtistFileManager extends FileManager {
             ensureDataDirectoryExists(ARTISTS_DIR);
             FileUtil.writeFile(ARTISTS_INDEX_FILE, artistNicknames);
         } catch (Exception e) {
-            System.err.println("Failed to write artist index file: " + ARTISTS_INDEX_FILE + ", error: " + e.getMessage());
+            Log.error("Failed to write artist index file: {}, error: {}", ARTISTS_INDEX_FILE, e.getMessage());
             throw new IllegalStateException("Failed to write artist index file", e);
         }
     }
@@ -228,7 +177,7 @@ public class ArtistFileManager extends FileManager {
         try {
             return FileUtil.readFile(ARTISTS_INDEX_FILE);
         } catch (Exception e) {
-            System.err.println("Failed to read artist index file: " + ARTISTS_INDEX_FILE + ", error: " + e.getMessage());
+            Log.error("Failed to read artist index file: {}, error: {}", ARTISTS_INDEX_FILE, e.getMessage());
             throw new IllegalStateException("Failed to read artist index file", e);
         }
     }
@@ -240,18 +189,19 @@ public class ArtistFileManager extends FileManager {
                     .collect(Collectors.toList());
             saveArtistIndex(artistEntries);
         } catch (Exception e) {
-            System.err.println("Failed to update artist index: " + e.getMessage());
+            Log.error("Failed to update artist index: {}", e.getMessage());
             throw new RuntimeException("Failed to update artist index", e);
         }
     }
 
     private void invalidateArtistCache() {
+        allArtistsCached = false;
         artistCache.clear();
     }
 
     // Method to clear cache
     public void clearCache() {
+        allArtistsCached = false;
         artistCache.clear();
-        followerCache.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package services.file;
+
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+// Content-addressed storage for art and avatars: every image is stored once under data/blobs/, named by the SHA-256
+// of its bytes, and records point at the blob instead of holding their own copy. The owners of each blob (song and
+// album records, account files) are kept in blobs/refs.txt; a blob with no owners left is garbage.
+// A blob is stored before the record that points at it is written, so unowned blobs are only collected once they are
+// older than GC_GRACE_MILLIS.
+final class BlobStore {
+    private static final BlobStore INSTANCE = new BlobStore();
+    static final String BLOB_DIR = FileUtil.DATA_DIR + "blobs/";
+    private static final String REFS_FILE = BLOB_DIR + "refs.txt";
+    private static final String TEMP_PREFIX = "incoming-";
+    private static final long GC_GRACE_MILLIS = 10 * 60 * 1000L;
+
+    // owner record -> blob, and blob -> owners; a blob's reference count is the size of its owner set
+    private final Map<String, String> blobByOwner = new HashMap<>();
+    private final Map<String, Set<String>> ownersByBlob = new HashMap<>();
+    // Blobs that had no owners when last seen; the only ones collectGarbage has to look at
+    private final Set<String> unreferenced = new HashSet<>();
+    private boolean loaded;
+
+    private BlobStore() {}
+
+    static BlobStore getInstance() {
+        return INSTANCE;
+    }
+
+    static boolean isBlob(String path) {
+        if (path == null || path.isEmpty()) return false;
+        return key(path).startsWith(key(BLOB_DIR) + File.separator);
+    }
+
+    // Stores the file's content and returns the blob path; identical content always maps to the same blob
+    synchronized String put(File source) throws IOException {
+        if (source == null || !source.isFile()) throw new IllegalArgumentException("Source file cannot be null or does not exist");
+        try (InputStream in = Files.newInputStream(source.toPath())) {
+            return put(in, extensionOf(source.getName()));
+        }
+    }
+
+    synchronized String put(InputStream content, String extension) throws IOException {
+        if (content == null) throw new IllegalArgumentException("Content cannot be null");
+        ensureLoaded();
+        String ext = extension == null ? "" : extension.toLowerCase();
+        FileUtil.ensureDataDirectoryExists(BLOB_DIR);
+
+        Path temp = Files.createTempFile(Paths.get(BLOB_DIR), TEMP_PREFIX, ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path blob = Paths.get(BLOB_DIR, hash.substring(0, 2), hash + ext);
+            String blobPath = key(blob.toString());
+
+            if (Files.exists(blob)) {
+                // Keeps a blob nobody owns yet from being collected before its record is written
+                blob.toFile().setLastModified(System.currentTimeMillis());
+                Log.debug("Blob already stored: {}", blobPath);
+            } else {
+                Files.createDirectories(blob.getParent());
+                try {
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, blob);
+                }
+                Thumbnails.generate(blobPath);
+                Log.debug("Stored new blob: {}", blobPath);
+            }
+            if (!ownersByBlob.containsKey(blobPath)) unreferenced.add(blobPath);
+            return blobPath;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Records that owner now points at artPath; an owner holds at most one blob, and a path outside the store clears it
+    synchronized void reference(String owner, String artPath) {
+        if (owner == null || owner.isEmpty()) throw new IllegalArgumentException("Owner cannot be null or empty");
+        ensureLoaded();
+        String ownerKey = key(owner);
+        String blob = isBlob(artPath) ? key(artPath) : null;
+        if (Objects.equals(blobByOwner.get(ownerKey), blob)) return;
+
+        detach(ownerKey);
+        if (blob != null) {
+            if (!new File(blob).isFile()) Log.warn("Record {} points at missing blob {}", ownerKey, blob);
+            blobByOwner.put(ownerKey, blob);
+            ownersByBlob.computeIfAbsent(blob, b -> new HashSet<>()).add(ownerKey);
+            unreferenced.remove(blob);
+        }
+        saveRefs();
+    }
+
+    synchronized String blobFor(String owner) {
+        if (owner == null || owner.isEmpty()) return null;
+        ensureLoaded();
+        return blobByOwner.get(key(owner));
+    }
+
+    synchronized int referenceCount(String blobPath) {
+        ensureLoaded();
+        Set<String> owners = ownersByBlob.get(key(blobPath));
+        return owners != null ? owners.size() : 0;
+    }
+
+    synchronized void release(String owner) {
+        if (owner == null || owner.isEmpty()) throw new IllegalArgumentException("Owner cannot be null or empty");
+        ensureLoaded();
+        if (detach(key(owner))) saveRefs();
+    }
+
+    // Releases every owner record inside directory, for when a whole song, album or account directory is deleted
+    synchronized void releaseUnder(String directory) {
+        if (directory == null || directory.isEmpty()) throw new IllegalArgumentException("Directory cannot be null or empty");
+        ensureLoaded();
+        String prefix = key(directory) + File.separator;
+        List<String> owners = blobByOwner.keySet().stream().filter(owner -> owner.startsWith(prefix)).toList();
+        owners.forEach(this::detach);
+        if (!owners.isEmpty()) saveRefs();
+    }
+
+    // Deletes unowned blobs and their thumbnails; returns how many were deleted
+    synchronized int collectGarbage() {
+        ensureLoaded();
+        long cutoff = System.currentTimeMillis() - GC_GRACE_MILLIS;
+        int deleted = 0;
+        for (Iterator<String> it = unreferenced.iterator(); it.hasNext(); ) {
+            String blob = it.next();
+            if (ownersByBlob.containsKey(blob)) {
+                it.remove();
+                continue;
+            }
+            File file = new File(blob);
+            if (file.exists() && file.lastModified() > cutoff) continue;
+            try {
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(Paths.get(Thumbnails.pathFor(blob)));
+                // Only succeeds once the prefix directory is empty
+                file.getParentFile().delete();
+                it.remove();
+                deleted++;
+                Log.debug("Deleted unreferenced blob: {}", blob);
+            } catch (IOException e) {
+                Log.warn("Failed to delete unreferenced blob {}: {}", blob, e.getMessage());
+            }
+        }
+        if (deleted > 0) Log.info("Blob garbage collection removed {} blob(s)", deleted);
+        return deleted;
+    }
+
+    private boolean detach(String ownerKey) {
+        String previous = blobByOwner.remove(ownerKey);
+        if (previous == null) return false;
+        Set<String> owners = ownersByBlob.get(previous);
+        if (owners != null) {
+            owners.remove(ownerKey);
+            if (owners.isEmpty()) {
+                ownersByBlob.remove(previous);
+                unreferenced.add(previous);
+            }
+        }
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        boolean changed = false;
+        if (new File(REFS_FILE).exists()) {
+            for (String line : FileUtil.readFile(REFS_FILE)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    Log.warn("Skipping malformed blob reference: {}", line);
+                    continue;
+                }
+                String blob = key(line.substring(0, tab));
+                String owner = key(line.substring(tab + 1).trim());
+                // The record was deleted or moved without releasing its blob
+                if (!new File(owner).exists()) {
+                    changed = true;
+                    continue;
+                }
+                blobByOwner.put(owner, blob);
+                ownersByBlob.computeIfAbsent(blob, b -> new HashSet<>()).add(owner);
+            }
+        }
+        scanForUnreferenced();
+        if (changed) saveRefs();
+        collectGarbage();
+    }
+
+    private void scanForUnreferenced() {
+        Path root = Paths.get(BLOB_DIR);
+        if (!Files.isDirectory(root)) return;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String name = file.getFileName().toString();
+                String path = key(file.toString());
+                if (name.startsWith(TEMP_PREFIX)) {
+                    // Left behind by an interrupted put
+                    file.toFile().delete();
+                } else if (file.getParent().equals(root)) {
+                    // refs.txt; blobs only live in the prefix directories
+                } else if (name.endsWith("_thumb.png")) {
+                    String hash = name.substring(0, name.length() - "_thumb.png".length());
+                    try (Stream<Path> siblings = Files.list(file.getParent())) {
+                        if (siblings.noneMatch(p -> p.getFileName().toString().startsWith(hash) && !p.equals(file))) file.toFile().delete();
+                    } catch (IOException e) {
+                        Log.warn("Failed to check thumbnail {}: {}", path, e.getMessage());
+                    }
+                } else if (!ownersByBlob.containsKey(path)) {
+                    unreferenced.add(path);
+                }
+            });
+        } catch (IOException e) {
+            Log.error("Failed to scan blob directory {}: {}", BLOB_DIR, e.getMessage());
+        }
+    }
+
+    private void saveRefs() {
+        List<String> lines = new ArrayList<>(blobByOwner.size());
+        blobByOwner.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(entry -> lines.add(entry.getValue() + "\t" + entry.getKey()));
+        FileUtil.writeFile(REFS_FILE, lines);
+    }
+
+    private static String key(String path) {
+        return Paths.get(path).normalize().toString();
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(dot) : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package services.file;
+
+import models.music.Comment;
+import utils.BoundedCache;
+import utils.ConfigLoader;
+import utils.FieldRecord;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Process-wide caches for what song and album pages read most: lyrics text, parsed comment lists and parsed song
+// metadata records. All keyed by normalized file path; every write to one of those files invalidates its entry.
+final class CatalogCaches {
+    // Rough per-comment overhead on top of its text, so many short comments still count for something
+    private static final int COMMENT_OVERHEAD = 64;
+    private static final char PAGE_SEPARATOR = '#';
+
+    // Lyrics are held softly as well, so the GC can still reclaim them under memory pressure
+    private static final BoundedCache<String, SoftReference<String>> LYRICS = create("lyrics", 4_000_000L, BoundedCache.Policy.LRU,
+            reference -> {
+                String lyrics = reference.get();
+                return lyrics != null ? lyrics.length() : 0;
+            });
+    private static final BoundedCache<String, List<Comment>> COMMENTS = create("comments", 2_000_000L, BoundedCache.Policy.LFU,
+            comments -> comments.stream().mapToLong(comment -> comment.getText().length() + COMMENT_OVERHEAD).sum());
+    private static final BoundedCache<String, FieldRecord> SONG_RECORDS = create("songs", 5_000L, BoundedCache.Policy.LRU,
+            record -> 1);
+
+    private CatalogCaches() {}
+
+    private static <V> BoundedCache<String, V> create(String name, long defaultWeight, BoundedCache.Policy defaultPolicy,
+                                                      ToLongFunction<? super V> weigher) {
+        ConfigLoader config = ConfigLoader.getInstance();
+        return new BoundedCache<>(name, config.getCacheMaxWeight(name, defaultWeight),
+                weigher, config.getCachePolicy(name, defaultPolicy), config.getCacheTtl(name));
+    }
+
+    // Missing or empty lyrics are cached as "" and returned as null, like SongFileManager.loadLyrics
+    static String lyrics(String lyricsFilePath, Function<String, String> loader) {
+        String key = key(lyricsFilePath);
+        SoftReference<String> cached = LYRICS.getIfPresent(key);
+        String lyrics = cached != null ? cached.get() : null;
+        if (lyrics == null) {
+            if (cached != null) LYRICS.invalidate(key);
+            lyrics = LYRICS.get(key, k -> {
+                String loaded = loader.apply(lyricsFilePath);
+                return new SoftReference<>(loaded != null ? loaded : "");
+            }).get();
+            // Only possible if the GC cleared the reference right after loading
+            if (lyrics == null) lyrics = loader.apply(lyricsFilePath);
+        }
+        return lyrics == null || lyrics.isEmpty() ? null : lyrics;
+    }
+
+    static List<Comment> comments(String commentsFilePath, Function<String, List<Comment>> loader) {
+        return COMMENTS.get(key(commentsFilePath), k -> Collections.unmodifiableList(loader.apply(commentsFilePath)));
+    }
+
+    // Pages share the comments cache under "<path>#<offset>:<limit>", so invalidating a file drops its pages too
+    static List<Comment> commentPage(String commentsFilePath, int offset, int limit, Function<String, List<Comment>> loader) {
+        return COMMENTS.get(key(commentsFilePath) + PAGE_SEPARATOR + offset + ":" + limit,
+                k -> Collections.unmodifiableList(loader.apply(commentsFilePath)));
+    }
+
+    static FieldRecord songRecord(String metaFilePath, Function<String, FieldRecord> loader) {
+        return SONG_RECORDS.get(key(metaFilePath), k -> loader.apply(metaFilePath));
+    }
+
+    static void invalidateLyrics(String lyricsFilePath) {
+        LYRICS.invalidate(key(lyricsFilePath));
+    }
+
+    static void invalidateComments(String commentsFilePath) {
+        String key = key(commentsFilePath);
+        String pagePrefix = key + PAGE_SEPARATOR;
+        COMMENTS.invalidateIf(cached -> cached.equals(key) || cached.startsWith(pagePrefix));
+    }
+
+    static void invalidateSongRecord(String metaFilePath) {
+        SONG_RECORDS.invalidate(key(metaFilePath));
+    }
+
+    // For deleted song or album directories
+    static void invalidateDirectory(String dirPath) {
+        String prefix = key(dirPath) + File.separator;
+        LYRICS.invalidateIf(path -> path.startsWith(prefix));
+        COMMENTS.invalidateIf(path -> path.startsWith(prefix));
+        SONG_RECORDS.invalidateIf(path -> path.startsWith(prefix));
+    }
+
+    static void clear() {
+        LYRICS.clear();
+        COMMENTS.clear();
+        SONG_RECORDS.clear();
+    }
+
+    static List<BoundedCache.Stats> stats() {
+        return List.of(LYRICS.stats(), COMMENTS.stats(), SONG_RECORDS.stats());
+    }
+
+    private static String key(String filePath) {
+        if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
+        return Paths.get(filePath).toAbsolutePath().normalize().toString();
+    }
+}
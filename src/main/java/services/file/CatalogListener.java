@@ -0,0 +1,17 @@
+package services.file;
+
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+
+// Receives catalog changes made through the file managers so in-memory views can stay in sync without rescanning
+public interface CatalogListener {
+    default void songSaved(SongDTO song) {}
+
+    default void songDeleted(String artistNickName, String albumName, String songTitle) {}
+
+    default void albumDeleted(String artistNickName, String albumTitle) {}
+
+    default void countersChanged(SongKey song, int viewsDelta, int likesDelta) {}
+
+    default void lyricsChanged(SongKey song) {}
+}
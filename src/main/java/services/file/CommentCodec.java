@@ -0,0 +1,205 @@
+package services.file;
+
+import models.music.Comment;
+import utils.FileUtil;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Reads and writes the one-line comment format "User: <nick> | Time: yyyy-MM-dd HH:mm:ss | Comment: <text>".
+// Lines are scanned in place instead of split with a regex, and the fixed-width timestamp is parsed digit by digit.
+// Text containing '\' '|' or a line break is written escaped after " | Comment (escaped): ", so a comment can never end
+// its line or fake a field early. Any other text is written as is after " | Comment: ", which is also how older lines
+// were written, so those decode unchanged, including ones whose text contains " | " or a backslash.
+public final class CommentCodec {
+    private static final String USER_PREFIX = "User: ";
+    private static final String TIME_SEPARATOR = " | Time: ";
+    private static final String TEXT_SEPARATOR = " | Comment: ";
+    private static final String ESCAPED_TEXT_SEPARATOR = " | Comment (escaped): ";
+    // "yyyy-MM-dd HH:mm:ss"
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private CommentCodec() {}
+
+    public static String encode(Comment comment) {
+        if (comment == null) throw new IllegalArgumentException("Comment cannot be null");
+        String text = comment.getText();
+        StringBuilder line = new StringBuilder(USER_PREFIX.length() + comment.getUserNickName().length() + TIME_SEPARATOR.length()
+                + TIMESTAMP_LENGTH + ESCAPED_TEXT_SEPARATOR.length() + text.length() + 8);
+        line.append(USER_PREFIX).append(comment.getUserNickName())
+                .append(TIME_SEPARATOR);
+        appendTimestamp(line, comment.getTimestamp());
+        if (needsEscaping(text)) {
+            line.append(ESCAPED_TEXT_SEPARATOR);
+            appendEscaped(line, text);
+        } else {
+            line.append(TEXT_SEPARATOR).append(text);
+        }
+        return line.toString();
+    }
+
+    public static Comment decode(CharSequence line) {
+        if (line == null) throw new IllegalArgumentException("Comment line cannot be null");
+        return decode(line, 0, line.length());
+    }
+
+    // Decodes line[start, end); throws IllegalArgumentException if the range is not a comment line
+    public static Comment decode(CharSequence line, int start, int end) {
+        if (line == null) throw new IllegalArgumentException("Comment line cannot be null");
+        if (start < 0 || end > line.length() || start > end) throw new IllegalArgumentException("Invalid range [" + start + ", " + end + ")");
+        if (!regionMatches(line, start, end, USER_PREFIX)) throw malformed(line, start, end);
+
+        int userStart = start + USER_PREFIX.length();
+        int userEnd = indexOf(line, userStart, end, TIME_SEPARATOR);
+        if (userEnd < 0) throw malformed(line, start, end);
+
+        int timeStart = userEnd + TIME_SEPARATOR.length();
+        int timeEnd = timeStart + TIMESTAMP_LENGTH;
+        if (timeEnd > end) throw malformed(line, start, end);
+        if (!regionMatches(line, timeEnd, end, TEXT_SEPARATOR) && !regionMatches(line, timeEnd, end, ESCAPED_TEXT_SEPARATOR)) {
+            // Not the fixed width; let the formatter find the end of the timestamp
+            timeEnd = firstTextSeparator(line, timeStart, end);
+            if (timeEnd < 0) throw malformed(line, start, end);
+        }
+        boolean escaped = regionMatches(line, timeEnd, end, ESCAPED_TEXT_SEPARATOR);
+        int textStart = timeEnd + (escaped ? ESCAPED_TEXT_SEPARATOR : TEXT_SEPARATOR).length();
+
+        try {
+            return new Comment(line.subSequence(userStart, userEnd).toString(),
+                    escaped ? unescape(line, textStart, end) : line.subSequence(textStart, end).toString(),
+                    parseTimestamp(line, timeStart, timeEnd));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid comment line: " + line.subSequence(start, end) + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    static LocalDateTime parseTimestamp(CharSequence text, int start, int end) {
+        if (end - start == TIMESTAMP_LENGTH
+                && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-' && text.charAt(start + 10) == ' '
+                && text.charAt(start + 13) == ':' && text.charAt(start + 16) == ':') {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 14, 2);
+            int second = digits(text, start + 17, 2);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        try {
+            return LocalDateTime.parse(text.subSequence(start, end), FileUtil.formatter);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid comment timestamp: " + text.subSequence(start, end), e);
+        }
+    }
+
+    private static void appendTimestamp(StringBuilder out, LocalDateTime timestamp) {
+        // Years outside 0..9999 don't fit the fixed width; the formatter knows how to write them
+        if (timestamp.getYear() < 0 || timestamp.getYear() > 9999) {
+            out.append(FileUtil.formatter.format(timestamp));
+            return;
+        }
+        appendPadded(out, timestamp.getYear(), 4).append('-');
+        appendPadded(out, timestamp.getMonthValue(), 2).append('-');
+        appendPadded(out, timestamp.getDayOfMonth(), 2).append(' ');
+        appendPadded(out, timestamp.getHour(), 2).append(':');
+        appendPadded(out, timestamp.getMinute(), 2).append(':');
+        appendPadded(out, timestamp.getSecond(), 2);
+    }
+
+    private static StringBuilder appendPadded(StringBuilder out, int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+        return out;
+    }
+
+    // -1 unless all characters are ASCII digits
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean needsEscaping(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '|' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private static void appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '|' -> out.append("\\|");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    // Unknown escapes are kept as written
+    private static String unescape(CharSequence line, int start, int end) {
+        int backslash = indexOf(line, start, end, "\\");
+        if (backslash < 0) return line.subSequence(start, end).toString();
+        StringBuilder text = new StringBuilder(end - start);
+        text.append(line, start, backslash);
+        for (int i = backslash; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != '\\' || i + 1 == end) {
+                text.append(c);
+                continue;
+            }
+            char next = line.charAt(i + 1);
+            switch (next) {
+                case '\\', '|' -> text.append(next);
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                default -> {
+                    text.append(c);
+                    continue;
+                }
+            }
+            i++;
+        }
+        return text.toString();
+    }
+
+    private static boolean regionMatches(CharSequence line, int from, int end, String expected) {
+        if (end - from < expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (line.charAt(from + i) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence line, int from, int end, String target) {
+        char first = target.charAt(0);
+        for (int i = from; i <= end - target.length(); i++) {
+            if (line.charAt(i) == first && regionMatches(line, i, end, target)) return i;
+        }
+        return -1;
+    }
+
+    // Whichever text separator comes first, or -1
+    private static int firstTextSeparator(CharSequence line, int from, int end) {
+        int plain = indexOf(line, from, end, TEXT_SEPARATOR);
+        int escaped = indexOf(line, from, end, ESCAPED_TEXT_SEPARATOR);
+        if (plain < 0 || escaped < 0) return Math.max(plain, escaped);
+        return Math.min(plain, escaped);
+    }
+
+    private static IllegalArgumentException malformed(CharSequence line, int start, int end) {
+        return new IllegalArgumentException("Invalid comment line: " + line.subSequence(start, end));
+    }
+}
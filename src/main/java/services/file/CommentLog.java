@@ -0,0 +1,255 @@
+package services.file;
+
+import utils.ConfigLoader;
+import utils.Log;
+import utils.PathLocks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+
+// Comment files are append-only logs: a new comment is one appended line, never a rewrite of the file.
+// A sidecar "<file>.idx" holds the byte offset of every comment as 8-byte longs, so a page of the newest comments is
+// read with two positional reads however long the file gets. A missing or stale index (files written before the
+// index existed, or a crash between the two appends) is rebuilt from the comment file on first use.
+final class CommentLog {
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final boolean FSYNC = ConfigLoader.getInstance().isFsyncEnabled();
+
+    private CommentLog() {}
+
+    static void append(String commentsFile, String line) {
+        if (line == null || line.trim().isEmpty()) throw new IllegalArgumentException("Comment line cannot be null or empty");
+        if (line.indexOf('\n') >= 0 || line.indexOf('\r') >= 0) throw new IllegalArgumentException("Comment line cannot contain line breaks");
+        Path file = Paths.get(commentsFile);
+        ReadWriteLock lock = PathLocks.forPath(commentsFile);
+        lock.writeLock().lock();
+        try {
+            ensureIndex(file);
+            long offset;
+            // Writers hold the path's write lock, so writing at the current size is an append
+            try (FileChannel log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                offset = log.size();
+                log.position(offset);
+                // Older files may end without a line break; never glue a comment onto the previous one
+                if (offset > 0 && !endsWithLineBreak(log, offset)) {
+                    writeFully(log, ByteBuffer.wrap(LINE_SEPARATOR));
+                    offset += LINE_SEPARATOR.length;
+                }
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = ByteBuffer.allocate(bytes.length + LINE_SEPARATOR.length).put(bytes).put(LINE_SEPARATOR).flip();
+                writeFully(log, buffer);
+                if (FSYNC) log.force(false);
+            }
+            try (FileChannel index = FileChannel.open(indexPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                writeFully(index, ByteBuffer.allocate(Long.BYTES).putLong(offset).flip());
+                if (FSYNC) index.force(false);
+            }
+        } catch (IOException e) {
+            Log.error("Failed to append comment to {}: {}", commentsFile, e.getMessage());
+            throw new IllegalStateException("Cannot append comment to: " + commentsFile, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static int count(String commentsFile) {
+        Path file = Paths.get(commentsFile);
+        if (!Files.exists(file)) return 0;
+        ReadWriteLock lock = PathLocks.forPath(commentsFile);
+        ensureIndexUnderWriteLockIfStale(file, lock);
+        lock.readLock().lock();
+        try {
+            return (int) (Files.size(indexPath(file)) / Long.BYTES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read comment index for: " + commentsFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lines of the comments at positions [offset, offset + limit) counted from the newest, newest first
+    static List<String> readNewestFirst(String commentsFile, int offset, int limit) {
+        if (offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative");
+        Path file = Paths.get(commentsFile);
+        if (limit == 0 || !Files.exists(file)) return new ArrayList<>();
+
+        ReadWriteLock lock = PathLocks.forPath(commentsFile);
+        ensureIndexUnderWriteLockIfStale(file, lock);
+        lock.readLock().lock();
+        try (FileChannel log = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel index = FileChannel.open(indexPath(file), StandardOpenOption.READ)) {
+            long count = index.size() / Long.BYTES;
+            long end = count - offset;
+            if (end <= 0) return new ArrayList<>();
+            long start = Math.max(0, end - limit);
+
+            ByteBuffer offsets = ByteBuffer.allocate((int) ((end - start) * Long.BYTES));
+            readFully(index, offsets, start * Long.BYTES);
+            offsets.flip();
+            long firstByte = offsets.getLong(0);
+            long lastByte = end < count ? readLong(index, end * Long.BYTES) : log.size();
+
+            ByteBuffer bytes = ByteBuffer.allocate((int) (lastByte - firstByte));
+            readFully(log, bytes, firstByte);
+            List<String> lines = splitLines(bytes.array());
+            Collections.reverse(lines);
+            return lines;
+        } catch (IOException e) {
+            Log.error("Failed to read comments from {}: {}", commentsFile, e.getMessage());
+            throw new IllegalStateException("Cannot read comments from: " + commentsFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static void delete(String commentsFile) throws IOException {
+        Files.deleteIfExists(indexPath(Paths.get(commentsFile)));
+        Files.deleteIfExists(Paths.get(commentsFile));
+    }
+
+    private static void ensureIndexUnderWriteLockIfStale(Path file, ReadWriteLock lock) {
+        lock.readLock().lock();
+        try {
+            if (isIndexValid(file)) return;
+        } catch (IOException e) {
+            Log.warn("Comment index check failed for {}: {}", file, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            ensureIndex(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot rebuild comment index for: " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void ensureIndex(Path file) throws IOException {
+        if (!isIndexValid(file)) rebuildIndex(file);
+    }
+
+    // Valid when it has one entry per comment line: the last entry must start the file's last non-blank line
+    private static boolean isIndexValid(Path file) throws IOException {
+        Path indexFile = indexPath(file);
+        long fileSize = Files.exists(file) ? Files.size(file) : 0;
+        if (!Files.exists(indexFile)) return fileSize == 0;
+        long indexSize = Files.size(indexFile);
+        if (indexSize % Long.BYTES != 0) return false;
+        if (indexSize == 0) return fileSize == 0 || isBlank(file, 0, fileSize);
+
+        try (FileChannel log = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel index = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long lastOffset = readLong(index, indexSize - Long.BYTES);
+            if (lastOffset < 0 || lastOffset >= fileSize) return false;
+            if (lastOffset > 0 && !endsWithLineBreak(log, lastOffset)) return false;
+            ByteBuffer tail = ByteBuffer.allocate((int) (fileSize - lastOffset));
+            readFully(log, tail, lastOffset);
+            return splitLines(tail.array()).size() == 1;
+        }
+    }
+
+    private static void rebuildIndex(Path file) throws IOException {
+        Path indexFile = indexPath(file);
+        if (!Files.exists(file)) {
+            Files.deleteIfExists(indexFile);
+            return;
+        }
+        byte[] content = Files.readAllBytes(file);
+        ByteBuffer offsets = ByteBuffer.allocate(Long.BYTES * 16);
+        int lineStart = 0;
+        for (int i = 0; i <= content.length; i++) {
+            if (i == content.length || content[i] == '\n') {
+                if (!isBlank(content, lineStart, i)) {
+                    if (offsets.remaining() < Long.BYTES) {
+                        offsets = ByteBuffer.allocate(offsets.capacity() * 2).put(offsets.flip());
+                    }
+                    offsets.putLong(lineStart);
+                }
+                lineStart = i + 1;
+            }
+        }
+        offsets.flip();
+
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, offsets);
+            if (FSYNC) channel.force(true);
+        }
+        try {
+            Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Log.debug("Rebuilt comment index for {} with {} entries", file, offsets.limit() / Long.BYTES);
+    }
+
+    // Trimmed, non-blank lines, matching what FileUtil.readFile returns for the same bytes
+    private static List<String> splitLines(byte[] bytes) {
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                if (!isBlank(bytes, lineStart, i)) {
+                    lines.add(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8).trim());
+                }
+                lineStart = i + 1;
+            }
+        }
+        return lines;
+    }
+
+    private static boolean isBlank(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(Path file, long from, long to) throws IOException {
+        try (FileChannel log = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) (to - from));
+            readFully(log, bytes, from);
+            return isBlank(bytes.array(), 0, bytes.capacity());
+        }
+    }
+
+    private static boolean endsWithLineBreak(FileChannel channel, long position) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        readFully(channel, last, position - 1);
+        return last.get(0) == '\n';
+    }
+
+    private static long readLong(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        readFully(channel, buffer, position);
+        return buffer.getLong(0);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of file at position " + (position + buffer.position()));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static Path indexPath(Path file) {
+        return file.resolveSibling(file.getFileName() + INDEX_SUFFIX);
+    }
+}
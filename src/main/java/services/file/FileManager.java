@@ -4,7 +4,9 @@ import models.account.Account;
 import models.account.User;
 import models.account.Artist;
 import models.account.Admin;
+import utils.FieldRecord;
 import utils.FileUtil;
+import utils.Log;
 
 import java.io.File;
 import java.io.IOException;
@@ -12,10 +14,10 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import static utils.FileUtil.*;
@@ -23,10 +25,31 @@ import static utils.FileUtil.*;
 public abstract class FileManager {
     protected static final String DATA_DIR = FileUtil.DATA_DIR;
 
+    private static final List<AccountListener> accountListeners = new CopyOnWriteArrayList<>();
+
     static {
         ensureIndexFilesExist();
     }
 
+    public static void addAccountListener(AccountListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Account listener cannot be null");
+        if (!accountListeners.contains(listener)) accountListeners.add(listener);
+    }
+
+    public static void removeAccountListener(AccountListener listener) {
+        accountListeners.remove(listener);
+    }
+
+    private static void notifyAccountSaved(String role, String nickName) {
+        for (AccountListener listener : accountListeners) {
+            try {
+                listener.accountSaved(role, nickName);
+            } catch (Exception e) {
+                Log.error("Account listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
     protected String findIndexFile(String role) {
         if (role == null) {
             return DATA_DIR + "users/index_users.txt";
@@ -48,10 +71,10 @@ public abstract class FileManager {
                 file.getParentFile().mkdirs();
                 try {
                     file.createNewFile();
-                    System.out.println("Created index file: " + indexFile);
+                    Log.debug("Created index file: {}", indexFile);
                     FileUtil.writeFile(indexFile, new ArrayList<>());
                 } catch (IOException e) {
-                    System.err.println("Failed to create index file: " + indexFile + " - " + e.getMessage());
+                    Log.error("Failed to create index file: {} - {}", indexFile, e.getMessage());
                     e.printStackTrace();
                 }
             }
@@ -59,56 +82,80 @@ public abstract class FileManager {
     }
 
     public boolean isEmailOrNickNameTaken(String email, String nickName) {
-        String[] rolesToCheck = {"user", "artist", "admin"};
-        for (String role : rolesToCheck) {
-            String indexFile = findIndexFile(role);
-            List<String> indexData = FileUtil.readFile(indexFile);
-            if (indexData.isEmpty()) {
-                continue;
-            }
-            for (String line : indexData) {
-                String[] parts = line.split(":", 2);
-                if (parts.length == 2 && (parts[0].trim().equals(email) || parts[1].trim().equals(nickName))) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return AccountIndex.getInstance().isTaken(email, nickName);
     }
 
     public void saveAccount(Account account) throws RuntimeException {
         String safeNickName = FileUtil.sanitizeFileName(account.getNickName());
         String role = account.getRole();
-        String dir = switch (role != null ? role.toLowerCase() : "user") {
-            case "artist" -> DATA_DIR + "artists/" + safeNickName + "/";
-            case "admin" -> DATA_DIR + "admin/" + safeNickName + "/";
-            default -> DATA_DIR + "users/" + safeNickName + "/";
-        };
+        String dir = accountDir(safeNickName, role);
 
         FileUtil.ensureDataDirectoryExists(dir);
 
-        try {
-            InputStream imageStream = getClass().getResourceAsStream("/pics/user_icon.png");
+        // Every account starts with the same icon, stored once in the blob store
+        String iconBlob = null;
+        try (InputStream imageStream = getClass().getResourceAsStream("/pics/user_icon.png")) {
             if (imageStream == null) {
-                System.err.println("user_icon.png not found in resources: /pics/user_icon.png");
+                Log.warn("user_icon.png not found in resources: /pics/user_icon.png");
             } else {
-                Path targetPath = Paths.get(dir + "user_icon.png");
-                Files.copy(imageStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                System.out.println("Successfully copied user_icon.png to: " + targetPath);
-                imageStream.close();
+                iconBlob = BlobStore.getInstance().put(imageStream, ".png");
             }
         } catch (IOException e) {
-            System.err.println("Failed to copy user_icon.png to " + dir + ": " + e.getMessage());
+            Log.error("Failed to store user_icon.png for {}: {}", dir, e.getMessage());
         }
 
         String fileName = dir + safeNickName + "-" + account.getEmail() + ".txt";
         List<String> accountData = account.toFileString();
         FileUtil.writeFile(fileName, accountData);
+        if (iconBlob != null) BlobStore.getInstance().reference(fileName, iconBlob);
+
+        String entry = account.getEmail() + ":" + safeNickName;
+        FileUtil.updateFile(findIndexFile(role), indexData -> {
+            indexData.add(entry);
+            return indexData;
+        });
+        AccountIndex.getInstance().register(role, account.getEmail(), safeNickName);
+        notifyAccountSaved(role, safeNickName);
+    }
+
+    // The account's icon: its blob, else a user_icon.png left in the account directory by older versions, else null
+    public String findAccountIcon(String nickName, String role) {
+        String accountFile = findAccountFile(nickName, role);
+        String blob = accountFile != null ? BlobStore.getInstance().blobFor(accountFile) : null;
+        if (blob != null) return blob;
+        File legacyIcon = new File(accountDir(FileUtil.sanitizeFileName(nickName), role) + "user_icon.png");
+        return legacyIcon.exists() ? legacyIcon.getPath() : null;
+    }
+
+    public String saveAccountIcon(String nickName, String role, File imageFile) throws IOException {
+        if (imageFile == null || !imageFile.exists()) throw new IllegalArgumentException("Image file cannot be null or does not exist");
+        String accountFile = findAccountFile(nickName, role);
+        if (accountFile == null) throw new IllegalStateException("Account with nickname '" + nickName + "' not found for role: " + role);
+
+        String blob = BlobStore.getInstance().put(imageFile);
+        BlobStore.getInstance().reference(accountFile, blob);
+        String dir = accountDir(FileUtil.sanitizeFileName(nickName), role);
+        Files.deleteIfExists(Paths.get(dir + "user_icon.png"));
+        Files.deleteIfExists(Paths.get(dir + "user_icon_thumb.png"));
+        BlobStore.getInstance().collectGarbage();
+        Log.debug("Saved icon for {} to: {}", nickName, blob);
+        return blob;
+    }
 
-        String indexFile = findIndexFile(role);
-        List<String> indexData = FileUtil.readFile(indexFile);
-        indexData.add(account.getEmail() + ":" + safeNickName);
-        FileUtil.writeFile(indexFile, indexData);
+    private String findAccountFile(String nickName, String role) {
+        if (nickName == null || nickName.trim().isEmpty()) return null;
+        String email = AccountIndex.getInstance().findEmailByNickName(nickName, role);
+        if (email == null) return null;
+        String safeNickName = FileUtil.sanitizeFileName(nickName);
+        return accountDir(safeNickName, role) + safeNickName + "-" + email + ".txt";
+    }
+
+    private String accountDir(String safeNickName, String role) {
+        return switch (role != null ? role.toLowerCase() : "user") {
+            case "artist" -> DATA_DIR + "artists/" + safeNickName + "/";
+            case "admin" -> DATA_DIR + "admin/" + safeNickName + "/";
+            default -> DATA_DIR + "users/" + safeNickName + "/";
+        };
     }
 
     public Account loadAccountByNickName(String nickName) throws IllegalStateException {
@@ -151,23 +198,14 @@ public abstract class FileManager {
     }
 
     protected Account loadAccountFromFile(File file) throws IllegalStateException {
-        List<String> lines = FileUtil.readFile(file.getPath());
-        String[] keys = {"Email", "Nickname", "Password", "Role", "Approved"};
-        String[] values = new String[keys.length];
-        boolean approved = false;
+        FieldRecord fields = FieldRecord.read(file.getPath());
+        String email = fields.get("Email"), nickName = fields.get("Nickname"), password = fields.get("Password"), role = fields.get("Role");
+        boolean approved = Boolean.parseBoolean(fields.get("Approved"));
 
-        for (int i = 0; i < keys.length; i++) {
-            values[i] = extractField(lines, keys[i] + ": ");
-        }
-        if (values[4] != null) {
-            approved = Boolean.parseBoolean(values[4]);
-        }
-
-        if (values[0] == null || values[1] == null || values[2] == null || values[3] == null) {
+        if (email == null || nickName == null || password == null || role == null) {
             throw new IllegalStateException("Corrupted account data in file: " + file.getPath());
         }
 
-        String email = values[0], nickName = values[1], password = values[2], role = values[3];
         return switch (role.toLowerCase()) {
             case "user" -> new User(email, nickName, password);
             case "artist" -> {
@@ -183,57 +221,57 @@ public abstract class FileManager {
     protected List<String[]> loadRequestsFromDir(String dirPath) {
         List<String[]> requests = new ArrayList<>();
         Path requestsDir = Paths.get(dirPath);
-        System.out.println("Checking directory: " + requestsDir);
+        Log.debug("Checking directory: {}", requestsDir);
 
         if (!Files.exists(requestsDir) || !Files.isDirectory(requestsDir)) {
-            System.out.println("Directory not found or not a directory: " + dirPath);
+            Log.debug("Directory not found or not a directory: {}", dirPath);
             return requests;
         }
 
         try (Stream<Path> dirStream = Files.walk(requestsDir)) {
             dirStream.forEach(path -> {
                 if (Files.isDirectory(path)) {
-                    System.out.println("Found directory: " + path);
+                    Log.debug("Found directory: {}", path);
                     try (Stream<Path> fileStream = Files.list(path)) {
                         List<Path> files = fileStream
                                 .filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".txt"))
                                 .toList();
-                        System.out.println("Found " + files.size() + " .txt files in " + path);
+                        Log.debug("Found {} .txt files in {}", files.size(), path);
                         for (Path file : files) {
-                            System.out.println("Processing file: " + file);
+                            Log.debug("Processing file: {}", file);
                             String[] keys = dirPath.contains("lyrics_requests") ?
                                     new String[]{"Requester: ", "Artist: ", "Song: ", "Album: ", "SuggestedLyrics: ", "Status: ", "Timestamp: "} :
                                     new String[]{"Email: ", "Nickname: ", "Password: ", "Status: ", "Timestamp: "};
                             String[] requestData = parseRequestFile(file, keys);
                             if (requestData != null) {
                                 requests.add(requestData);
-                                System.out.println("Successfully parsed request: " + Arrays.toString(requestData));
+                                Log.debug("Successfully parsed request: {}", Arrays.asList(requestData));
                             } else {
-                                System.out.println("Failed to parse request from file: " + file);
+                                Log.debug("Failed to parse request from file: {}", file);
                             }
                         }
                     } catch (IOException e) {
-                        System.err.println("Failed to list files in directory " + path + ": " + e.getMessage());
+                        Log.error("Failed to list files in directory {}: {}", path, e.getMessage());
                     }
                 }
             });
         } catch (IOException e) {
-            System.err.println("Failed to walk directory " + dirPath + ": " + e.getMessage());
+            Log.error("Failed to walk directory {}: {}", dirPath, e.getMessage());
             throw new RuntimeException("Failed to walk directory " + dirPath + ": " + e.getMessage(), e);
         }
-        System.out.println("Total requests loaded from " + dirPath + ": " + requests.size());
+        Log.debug("Total requests loaded from {}: {}", dirPath, requests.size());
         return requests;
     }
 
     protected String[] parseRequestFile(Path file, String[] keys) {
-        List<String> lines = FileUtil.readFile(file.toString());
-        System.out.println("Parsing file: " + file + " with lines: " + lines);
+        FieldRecord fields = FieldRecord.read(file.toString());
+        Log.debug("Parsing file: {} with fields: {}", file, fields);
         String[] requestData = new String[keys.length];
 
         for (int i = 0; i < keys.length; i++) {
-            requestData[i] = extractField(lines, keys[i]);
+            requestData[i] = fields.get(keys[i]);
             if (requestData[i] == null) {
-                System.out.println("Field not found for key: " + keys[i]);
+                Log.debug("Field not found for key: {}", keys[i]);
             }
         }
 
@@ -243,7 +281,7 @@ public abstract class FileManager {
                 return requestData;
             }
         }
-        System.out.println("Invalid request data format in file: " + file);
+        Log.debug("Invalid request data format in file: {}", file);
         return null;
     }
 
@@ -256,25 +294,19 @@ public abstract class FileManager {
             updatedRequestData.add("Status: " + newStatus);
 
             String targetFilePath = targetDirPath + targetFileName;
-            Path targetPath = Paths.get(targetFilePath);
-            Files.move(pendingFile, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            System.out.println("Successfully moved file from " + pendingFile + " to " + targetPath);
-
+            // Write the final content at the target first; the request is never missing or half-written
             FileUtil.writeFile(targetFilePath, updatedRequestData);
+            Files.deleteIfExists(pendingFile);
+            Log.debug("Successfully moved file from {} to {}", pendingFile, targetFilePath);
 
-            if (!Files.exists(pendingFile)) {
-                System.out.println("Original file deleted successfully.");
-                Path pendingDir = pendingFile.getParent();
-                if (Files.exists(pendingDir) && isDirectoryEmpty(pendingDir)) {
-                    Files.delete(pendingDir);
-                    System.out.println("Successfully deleted empty source directory: " + pendingDir);
-                }
-            } else {
-                System.err.println("Original file still exists after move: " + pendingFile);
+            Path pendingDir = pendingFile.getParent();
+            if (Files.exists(pendingDir) && isDirectoryEmpty(pendingDir)) {
+                Files.delete(pendingDir);
+                Log.debug("Successfully deleted empty source directory: {}", pendingDir);
             }
 
         } catch (IOException e) {
-            System.err.println("Failed to move request to " + targetDirPath + " with status " + newStatus + ": " + e.getMessage());
+            Log.error("Failed to move request to {} with status {}: {}", targetDirPath, newStatus, e.getMessage());
             throw new IllegalStateException("Failed to move artist request: " + e.getMessage(), e);
         }
     }
@@ -289,7 +321,7 @@ public abstract class FileManager {
         try {
             if (Files.exists(pendingFile)) {
                 Files.deleteIfExists(pendingFile);
-                System.out.println("Deleted file: " + pendingFile);
+                Log.debug("Deleted file: {}", pendingFile);
             }
 
             Path pendingDirPath = pendingFile.getParent();
@@ -298,20 +330,20 @@ public abstract class FileManager {
 
             if (files != null && files.length == 0) {
                 if (deleteDirectory(pendingDir)) {
-                    System.out.println("Successfully deleted empty directory: " + pendingDirPath);
+                    Log.debug("Successfully deleted empty directory: {}", pendingDirPath);
                 } else {
-                    System.err.println("Failed to delete directory " + pendingDirPath + " (possibly due to permissions or system lock)");
+                    Log.error("Failed to delete directory {} (possibly due to permissions or system lock)", pendingDirPath);
                 }
             } else if (files != null) {
-                System.out.println("Directory " + pendingDirPath + " is not empty, skipping deletion. Remaining files:");
+                Log.debug("Directory {} is not empty, skipping deletion. Remaining files:", pendingDirPath);
                 for (File file : files) {
-                    System.out.println(" - " + file.getName());
+                    Log.debug(" - {}", file.getName());
                 }
             } else {
-                System.err.println("Unable to list files in directory " + pendingDirPath + ", possibly due to access issues");
+                Log.error("Unable to list files in directory {}, possibly due to access issues", pendingDirPath);
             }
         } catch (IOException e) {
-            System.err.println("Error while deleting file or directory " + pendingFile + ": " + e.getMessage());
+            Log.error("Error while deleting file or directory {}: {}", pendingFile, e.getMessage());
         }
     }
 
@@ -326,138 +358,20 @@ public abstract class FileManager {
             }
             return null;
         }
-
-        String indexFile = findIndexFile(role);
-        List<String> indexData = FileUtil.readFile(indexFile);
-        for (String line : indexData) {
-            String[] parts = line.split(":");
-            if (parts.length == 2 && parts[0].equals(email)) {
-                return parts[1];
-            }
-        }
-
-        String dir;
-        switch (role.toLowerCase()) {
-            case "user":
-                dir = DATA_DIR + "users/";
-                break;
-            case "artist":
-                dir = DATA_DIR + "artists/";
-                break;
-            case "admin":
-                dir = DATA_DIR + "admin/";
-                break;
-            default:
-                return null;
-        }
-
-        try {
-            Path roleDir = Paths.get(dir);
-            if (!Files.exists(roleDir) || !Files.isDirectory(roleDir)) {
-                return null;
-            }
-
-            try (Stream<Path> subDirs = Files.list(roleDir).filter(Files::isDirectory)) {
-                for (Path subDir : subDirs.toList()) {
-                    try (Stream<Path> files = Files.list(subDir)) {
-                        for (Path file : files.toList()) {
-                            if (file.toString().endsWith(".txt") && !file.getFileName().toString().equals("followers.txt") && !file.getFileName().toString().equals("followings.txt")) {
-                                Account account = loadAccountFromFile(file.toFile());
-                                if (account.getEmail().equals(email)) {
-                                    indexData.add(account.getEmail() + ":" + account.getNickName());
-                                    FileUtil.writeFile(indexFile, indexData);
-                                    return account.getNickName();
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error while searching for email in directories: " + e.getMessage());
-        }
-        return null;
+        return AccountIndex.getInstance().findNickNameByEmail(email, role);
     }
 
     public String findEmailByNickName(String nickName, String role) {
         if (nickName == null || nickName.trim().isEmpty()) {
-            System.out.println("Nickname is null or empty in findEmailByNickName");
+            Log.debug("Nickname is null or empty in findEmailByNickName");
             return null;
         }
 
-        String indexFile = findIndexFile(role);
-        List<String> indexData = FileUtil.readFile(indexFile);
-        System.out.println("Read file " + indexFile + " with lines: " + indexData);
-
-        for (String line : indexData) {
-            line = line.trim();
-            if (!line.contains(":")) continue;
-
-            String[] parts = line.split(":");
-            if (parts.length != 2) {
-                System.out.println("Invalid format in index file line: " + line);
-                continue;
-            }
-
-            String email = parts[0].trim();
-            String storedNickname = parts[1].trim();
-
-            if (email.startsWith("[")) email = email.substring(1);
-            if (email.endsWith("]")) email = email.substring(0, email.length() - 1);
-            if (storedNickname.startsWith("[")) storedNickname = storedNickname.substring(1);
-            if (storedNickname.endsWith("]")) storedNickname = storedNickname.substring(0, storedNickname.length() - 1);
-
-            System.out.println("Comparing nickname: '" + nickName.trim() + "' with stored: '" + storedNickname + "'");
-            if (storedNickname.equalsIgnoreCase(nickName.trim())) {
-                System.out.println("Found email: " + email + " for nickname: " + nickName);
-                return email;
-            }
-        }
-
-        String dir;
-        switch (role.toLowerCase()) {
-            case "user":
-                dir = DATA_DIR + "users/";
-                break;
-            case "artist":
-                dir = DATA_DIR + "artists/";
-                break;
-            case "admin":
-                dir = DATA_DIR + "admin/";
-                break;
-            default:
-                return null;
-        }
-
-        try {
-            Path roleDir = Paths.get(dir);
-            if (!Files.exists(roleDir) || !Files.isDirectory(roleDir)) {
-                return null;
-            }
-
-            try (Stream<Path> subDirs = Files.list(roleDir).filter(Files::isDirectory)) {
-                for (Path subDir : subDirs.toList()) {
-                    if (subDir.getFileName().toString().equals(FileUtil.sanitizeFileName(nickName))) {
-                        try (Stream<Path> files = Files.list(subDir)) {
-                            for (Path file : files.toList()) {
-                                if (file.toString().endsWith(".txt") && !file.getFileName().toString().equals("followers.txt") && !file.getFileName().toString().equals("followings.txt")) {
-                                    Account account = loadAccountFromFile(file.toFile());
-                                    if (account.getNickName().equals(nickName)) {
-                                        indexData.add(account.getEmail() + ":" + account.getNickName());
-                                        FileUtil.writeFile(indexFile, indexData);
-                                        return account.getEmail();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error while searching for nickname in directories: " + e.getMessage());
+        String email = AccountIndex.getInstance().findEmailByNickName(nickName, role);
+        if (email == null) {
+            Log.debug("No email found for nickname: {} in role: {}", nickName, role);
         }
-        System.out.println("No email found for nickname: " + nickName + " in role: " + role);
-        return null;
+        return email;
     }
 
     protected void validateInput(String input, String fieldName) {
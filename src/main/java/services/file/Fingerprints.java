@@ -0,0 +1,170 @@
+package services.file;
+
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Size, modification time and content hash of each catalog record as it was last written, persisted in
+// data/fingerprints.txt. A record whose size and mtime still match its fingerprint holds the recorded content, so
+// "would writing this change anything?" is a hash comparison plus a stat, without opening the file.
+// A file changed by anything that didn't record a fingerprint fails the stat check and is simply read again.
+final class Fingerprints {
+    private static final Fingerprints INSTANCE = new Fingerprints();
+    private static final String FINGERPRINTS_FILE = FileUtil.DATA_DIR + "fingerprints.txt";
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    // 128 bits of SHA-256 is plenty to tell two versions of one record apart
+    private static final int HASH_BYTES = 16;
+
+    private record Fingerprint(long size, long modifiedNanos, String hash) {}
+
+    private final Map<String, Fingerprint> entries = new HashMap<>();
+    private boolean loaded;
+    private boolean dirty;
+    private long lastFlush;
+
+    private Fingerprints() {}
+
+    static Fingerprints getInstance() {
+        return INSTANCE;
+    }
+
+    // Call right after content was written to path
+    synchronized void record(String path, List<String> content) {
+        if (path == null || path.isEmpty()) throw new IllegalArgumentException("Path cannot be null or empty");
+        if (content == null) throw new IllegalArgumentException("Content cannot be null");
+        ensureLoaded();
+        String key = key(path);
+        BasicFileAttributes attributes = stat(key);
+        if (attributes == null) {
+            forget(key);
+            return;
+        }
+        entries.put(key, new Fingerprint(attributes.size(), modifiedNanos(attributes), hash(content)));
+        dirty = true;
+        flushIfDue();
+    }
+
+    // For writers that only touch parts of a record the content hash leaves out, such as the song counters
+    synchronized void restat(String path) {
+        ensureLoaded();
+        String key = key(path);
+        Fingerprint fingerprint = entries.get(key);
+        if (fingerprint == null) return;
+        BasicFileAttributes attributes = stat(key);
+        if (attributes == null) {
+            forget(key);
+            return;
+        }
+        entries.put(key, new Fingerprint(attributes.size(), modifiedNanos(attributes), fingerprint.hash()));
+        dirty = true;
+        flushIfDue();
+    }
+
+    // True if path is unchanged since its fingerprint was recorded and holds exactly content
+    synchronized boolean matches(String path, List<String> content) {
+        if (path == null || content == null) return false;
+        ensureLoaded();
+        String key = key(path);
+        Fingerprint fingerprint = entries.get(key);
+        if (fingerprint == null) return false;
+        BasicFileAttributes attributes = stat(key);
+        if (attributes == null || attributes.size() != fingerprint.size() || modifiedNanos(attributes) != fingerprint.modifiedNanos()) {
+            entries.remove(key);
+            dirty = true;
+            return false;
+        }
+        return fingerprint.hash().equals(hash(content));
+    }
+
+    synchronized void forget(String path) {
+        ensureLoaded();
+        if (entries.remove(key(path)) != null) dirty = true;
+    }
+
+    synchronized void forgetUnder(String directory) {
+        ensureLoaded();
+        String prefix = key(directory) + File.separator;
+        if (entries.keySet().removeIf(path -> path.startsWith(prefix))) dirty = true;
+    }
+
+    synchronized void flush() {
+        if (!dirty) return;
+        List<String> lines = new ArrayList<>(entries.size());
+        entries.forEach((path, fingerprint) ->
+                lines.add(path + "\t" + fingerprint.size() + "\t" + fingerprint.modifiedNanos() + "\t" + fingerprint.hash()));
+        Collections.sort(lines);
+        FileUtil.writeFile(FINGERPRINTS_FILE, lines);
+        dirty = false;
+        lastFlush = System.currentTimeMillis();
+    }
+
+    // A fingerprint lost before it is flushed only means that record is read once more next time
+    private void flushIfDue() {
+        if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MS) flush();
+    }
+
+    static String hash(List<String> content) {
+        MessageDigest digest = sha256();
+        for (String line : content) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, HASH_BYTES);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        lastFlush = System.currentTimeMillis();
+        if (!new File(FINGERPRINTS_FILE).exists()) return;
+        for (String line : FileUtil.readFile(FINGERPRINTS_FILE)) {
+            String[] parts = line.split("\t");
+            try {
+                if (parts.length != 4) throw new IllegalArgumentException("expected 4 fields");
+                entries.put(parts[0], new Fingerprint(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]));
+            } catch (IllegalArgumentException e) {
+                Log.warn("Skipping malformed fingerprint: {} ({})", line, e.getMessage());
+            }
+        }
+        Log.debug("Loaded {} fingerprints from {}", entries.size(), FINGERPRINTS_FILE);
+    }
+
+    private static BasicFileAttributes stat(String path) {
+        try {
+            return Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            Log.warn("Failed to stat {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long modifiedNanos(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static String key(String path) {
+        return Path.of(path).normalize().toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
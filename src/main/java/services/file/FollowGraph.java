@@ -0,0 +1,420 @@
+package services.file;
+
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Who follows whom, held as forward (user -> artists) and reverse (artist -> users) adjacency sets over compact int
+// IDs. Follower and following counts are the set sizes, and both directions are read a page at a time, so an
+// artist's followers are never resolved to User objects just to be counted.
+// On disk the graph is a snapshot, data/follows/graph.txt, plus data/follows/events.log, to which every follow and
+// unfollow appends one line; a background thread folds the log into a new snapshot. Replaying an event the snapshot
+// already holds changes nothing, so a compaction interrupted by a crash is simply replayed on the next load.
+// The first load without graph.txt builds it once from the users' followings.txt files.
+final class FollowGraph {
+    private static final String FOLLOWS_DIR = FileUtil.DATA_DIR + "follows/";
+    private static final String GRAPH_FILE = FOLLOWS_DIR + "graph.txt";
+    private static final String LOG_FILE = FOLLOWS_DIR + "events.log";
+    private static final String COMPACTING_FILE = FOLLOWS_DIR + "events.log.compacting";
+    private static final int COMPACTION_THRESHOLD = 5_000;
+    private static final long COMPACTION_INTERVAL_MS = 60_000;
+    private static final String LEGACY_FOLLOWINGS_FILE = "followings.txt";
+    private static final String LEGACY_FOLLOWING_PREFIX = "Following:";
+
+    private static final String FOLLOW = "+";
+    private static final String UNFOLLOW = "-";
+
+    private static final FollowGraph INSTANCE = new FollowGraph();
+
+    // Nicknames <-> IDs; users and artists are numbered separately and IDs are never reused
+    private static final class Ids {
+        private final Map<String, Integer> idByName = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int idOf(String name) {
+            Integer id = idByName.get(name);
+            return id != null ? id : -1;
+        }
+
+        int intern(String name) {
+            Integer id = idByName.get(name);
+            if (id != null) return id;
+            names.add(name);
+            idByName.put(name, names.size() - 1);
+            return names.size() - 1;
+        }
+
+        String name(int id) {
+            return names.get(id);
+        }
+    }
+
+    // An insertion-ordered int set with O(1) add, remove, contains and positional reads. Most users follow a handful
+    // of artists, so small sets are scanned and only large ones (an artist's followers) get a position index.
+    private static final class IdSet {
+        private static final int INDEX_THRESHOLD = 16;
+        private int[] items = new int[4];
+        private int size;
+        private Map<Integer, Integer> positions;
+
+        boolean add(int id) {
+            if (contains(id)) return false;
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size] = id;
+            if (positions != null) {
+                positions.put(id, size);
+            } else if (size + 1 > INDEX_THRESHOLD) {
+                positions = new HashMap<>();
+                for (int i = 0; i <= size; i++) positions.put(items[i], i);
+            }
+            size++;
+            return true;
+        }
+
+        // Moves the last element into the freed slot
+        boolean remove(int id) {
+            int position = indexOf(id);
+            if (position < 0) return false;
+            int last = items[--size];
+            if (positions != null) positions.remove(id);
+            if (position != size) {
+                items[position] = last;
+                if (positions != null) positions.put(last, position);
+            }
+            return true;
+        }
+
+        boolean contains(int id) {
+            return indexOf(id) >= 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int position) {
+            return items[position];
+        }
+
+        private int indexOf(int id) {
+            if (positions != null) {
+                Integer position = positions.get(id);
+                return position != null ? position : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (items[i] == id) return i;
+            }
+            return -1;
+        }
+    }
+
+    private final Ids users = new Ids();
+    private final Ids artists = new Ids();
+    // Indexed by user ID and artist ID; null until the node has an edge
+    private final List<IdSet> followingByUser = new ArrayList<>();
+    private final List<IdSet> followersByArtist = new ArrayList<>();
+    private boolean loaded;
+    private int eventsSinceCompaction;
+    private BufferedWriter writer;
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "follow-log-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FollowGraph() {
+        scheduler.scheduleWithFixedDelay(this::compactIfDirty, COMPACTION_INTERVAL_MS, COMPACTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::compactIfDirty, "follow-log-shutdown"));
+    }
+
+    static FollowGraph getInstance() {
+        return INSTANCE;
+    }
+
+    synchronized boolean follow(String userNickName, String artistNickName) {
+        validate(userNickName, artistNickName);
+        ensureLoaded();
+        if (!addEdge(users.intern(userNickName), artists.intern(artistNickName))) return false;
+        append(List.of(event(FOLLOW, userNickName, artistNickName)));
+        return true;
+    }
+
+    synchronized boolean unfollow(String userNickName, String artistNickName) {
+        validate(userNickName, artistNickName);
+        ensureLoaded();
+        int user = users.idOf(userNickName);
+        int artist = artists.idOf(artistNickName);
+        if (user < 0 || artist < 0 || !removeEdge(user, artist)) return false;
+        append(List.of(event(UNFOLLOW, userNickName, artistNickName)));
+        return true;
+    }
+
+    synchronized boolean isFollowing(String userNickName, String artistNickName) {
+        ensureLoaded();
+        int user = users.idOf(userNickName);
+        int artist = artists.idOf(artistNickName);
+        IdSet following = setAt(followingByUser, user);
+        return following != null && artist >= 0 && following.contains(artist);
+    }
+
+    synchronized int followerCount(String artistNickName) {
+        ensureLoaded();
+        IdSet followers = setAt(followersByArtist, artists.idOf(artistNickName));
+        return followers != null ? followers.size() : 0;
+    }
+
+    synchronized int followingCount(String userNickName) {
+        ensureLoaded();
+        IdSet following = setAt(followingByUser, users.idOf(userNickName));
+        return following != null ? following.size() : 0;
+    }
+
+    synchronized List<String> followers(String artistNickName, int offset, int limit) {
+        ensureLoaded();
+        return page(setAt(followersByArtist, artists.idOf(artistNickName)), users, offset, limit);
+    }
+
+    synchronized List<String> following(String userNickName, int offset, int limit) {
+        ensureLoaded();
+        return page(setAt(followingByUser, users.idOf(userNickName)), artists, offset, limit);
+    }
+
+    private static List<String> page(IdSet set, Ids names, int offset, int limit) {
+        if (offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative");
+        if (set == null || offset >= set.size()) return new ArrayList<>();
+        int end = (int) Math.min(set.size(), (long) offset + limit);
+        List<String> page = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) page.add(names.name(set.get(i)));
+        return page;
+    }
+
+    private boolean addEdge(int user, int artist) {
+        if (!setFor(followingByUser, user).add(artist)) return false;
+        setFor(followersByArtist, artist).add(user);
+        return true;
+    }
+
+    private boolean removeEdge(int user, int artist) {
+        IdSet following = setAt(followingByUser, user);
+        if (following == null || !following.remove(artist)) return false;
+        IdSet followers = setAt(followersByArtist, artist);
+        if (followers != null) followers.remove(user);
+        return true;
+    }
+
+    private static IdSet setAt(List<IdSet> sets, int id) {
+        return id >= 0 && id < sets.size() ? sets.get(id) : null;
+    }
+
+    private static IdSet setFor(List<IdSet> sets, int id) {
+        while (sets.size() <= id) sets.add(null);
+        IdSet set = sets.get(id);
+        if (set == null) {
+            set = new IdSet();
+            sets.set(id, set);
+        }
+        return set;
+    }
+
+    // Folds the log into a new snapshot. The snapshot lines are taken in the same critical section that rotates the
+    // log, so it holds exactly the rotated events; writing it happens outside the graph's lock.
+    void compact() {
+        synchronized (compactionLock) {
+            List<String> snapshot;
+            synchronized (this) {
+                if (!loaded) return;
+                try {
+                    closeWriter();
+                    rotateLog();
+                } catch (IOException e) {
+                    Log.error("Failed to rotate follow log {}: {}", LOG_FILE, e.getMessage());
+                    return;
+                }
+                snapshot = snapshotLines();
+                eventsSinceCompaction = 0;
+            }
+            try {
+                FileUtil.writeFile(GRAPH_FILE, snapshot);
+            } catch (RuntimeException e) {
+                // The compacting file still holds the events, so the next run retries
+                Log.error("Failed to write follow graph snapshot {}: {}", GRAPH_FILE, e.getMessage());
+                return;
+            }
+            try {
+                Files.deleteIfExists(Paths.get(COMPACTING_FILE));
+            } catch (IOException e) {
+                Log.error("Failed to delete {}: {}", COMPACTING_FILE, e.getMessage());
+            }
+            Log.debug("Compacted follow log into {} ({} users)", GRAPH_FILE, snapshot.size());
+        }
+    }
+
+    // A compacting file left by a failed snapshot write holds events that aren't in graph.txt yet, so it is appended
+    // to rather than replaced
+    private void rotateLog() throws IOException {
+        Path log = Paths.get(LOG_FILE);
+        Path rotated = Paths.get(COMPACTING_FILE);
+        if (!Files.exists(log)) return;
+        if (!Files.exists(rotated)) {
+            Files.move(log, rotated);
+        } else {
+            Files.write(rotated, Files.readAllBytes(log), StandardOpenOption.APPEND);
+            Files.delete(log);
+        }
+    }
+
+    // Runs on the scheduler and in the shutdown hook, where an escaping exception would cancel later compactions
+    private void compactIfDirty() {
+        try {
+            boolean dirty;
+            synchronized (this) {
+                dirty = eventsSinceCompaction > 0 || Files.exists(Paths.get(COMPACTING_FILE));
+            }
+            if (dirty) compact();
+        } catch (RuntimeException e) {
+            Log.error("Failed to compact follow log: {}", e.getMessage());
+        }
+    }
+
+    private static String event(String type, String userNickName, String artistNickName) {
+        return type + "\t" + userNickName + "\t" + artistNickName;
+    }
+
+    // Called with the graph's lock held, after the in-memory graph already reflects the events
+    private void append(List<String> events) {
+        if (events.isEmpty()) return;
+        try {
+            if (writer == null) {
+                FileUtil.ensureDataDirectoryExists(FOLLOWS_DIR);
+                writer = Files.newBufferedWriter(Paths.get(LOG_FILE), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (String event : events) {
+                writer.write(event);
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            Log.error("Failed to append follow events to {}: {}", LOG_FILE, e.getMessage());
+        }
+        eventsSinceCompaction += events.size();
+        if (eventsSinceCompaction >= COMPACTION_THRESHOLD && eventsSinceCompaction - events.size() < COMPACTION_THRESHOLD) {
+            scheduler.execute(this::compactIfDirty);
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // One line per user who follows anyone: "<user>\t<artist>,<artist>,..."
+    private List<String> snapshotLines() {
+        List<String> lines = new ArrayList<>();
+        for (int user = 0; user < followingByUser.size(); user++) {
+            IdSet following = followingByUser.get(user);
+            if (following == null || following.size() == 0) continue;
+            StringBuilder line = new StringBuilder(users.name(user)).append('\t');
+            for (int i = 0; i < following.size(); i++) {
+                if (i > 0) line.append(',');
+                line.append(artists.name(following.get(i)));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        if (Files.exists(Paths.get(GRAPH_FILE))) {
+            int edges = 0;
+            for (String line : FileUtil.readFile(GRAPH_FILE)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    Log.warn("Skipping malformed follow graph line: {}", line);
+                    continue;
+                }
+                int user = users.intern(line.substring(0, tab));
+                for (String artistNickName : line.substring(tab + 1).split(",")) {
+                    if (!artistNickName.isEmpty() && addEdge(user, artists.intern(artistNickName))) edges++;
+                }
+            }
+            Log.debug("Loaded follow graph: {} users, {} artists, {} follows", users.names.size(), artists.names.size(), edges);
+        } else {
+            migrateLegacyFollowings();
+        }
+        // A compacting file left behind means the snapshot may not hold it yet; both logs are replayed in order
+        eventsSinceCompaction = replay(COMPACTING_FILE) + replay(LOG_FILE);
+        if (eventsSinceCompaction > 0) Log.debug("Replayed {} follow events", eventsSinceCompaction);
+    }
+
+    private int replay(String logFile) {
+        if (!Files.exists(Paths.get(logFile))) return 0;
+        int events = 0;
+        for (String line : FileUtil.readFile(logFile)) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length != 3 || parts[1].isEmpty() || parts[2].isEmpty()) {
+                Log.warn("Skipping malformed follow event in {}: {}", logFile, line);
+                continue;
+            }
+            int user = users.intern(parts[1]);
+            int artist = artists.intern(parts[2]);
+            switch (parts[0]) {
+                case FOLLOW -> addEdge(user, artist);
+                case UNFOLLOW -> removeEdge(user, artist);
+                default -> {
+                    Log.warn("Skipping unknown follow event in {}: {}", logFile, line);
+                    continue;
+                }
+            }
+            events++;
+        }
+        return events;
+    }
+
+    private void migrateLegacyFollowings() {
+        Path usersDir = Paths.get(FileUtil.DATA_DIR + "users/");
+        if (!Files.isDirectory(usersDir)) return;
+        int edges = 0;
+        try (Stream<Path> userDirs = Files.list(usersDir).filter(Files::isDirectory)) {
+            for (Path userDir : userDirs.toList()) {
+                Path followings = userDir.resolve(LEGACY_FOLLOWINGS_FILE);
+                if (!Files.exists(followings)) continue;
+                int user = users.intern(userDir.getFileName().toString());
+                for (String line : FileUtil.readFile(followings.toString())) {
+                    if (!line.startsWith(LEGACY_FOLLOWING_PREFIX)) continue;
+                    for (String artistNickName : line.substring(LEGACY_FOLLOWING_PREFIX.length()).split(",")) {
+                        String trimmed = artistNickName.trim();
+                        if (!trimmed.isEmpty() && !trimmed.equals("(None)") && addEdge(user, artists.intern(trimmed))) edges++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.error("Failed to migrate followings from {}: {}", usersDir, e.getMessage());
+            return;
+        }
+        FileUtil.writeFile(GRAPH_FILE, snapshotLines());
+        Log.info("Built follow graph from followings.txt files: {} follows", edges);
+    }
+
+    private static void validate(String userNickName, String artistNickName) {
+        if (userNickName == null || userNickName.isEmpty()) throw new IllegalArgumentException("User nickname cannot be null or empty");
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+    }
+}
@@ -8,7 +8,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import models.DTO.SongKey;
 import models.music.Lyrics;
+import utils.Log;
 import static utils.FileUtil.*;
 
 public class LyricsRequestManager extends FileManager {
@@ -25,7 +27,16 @@ public class LyricsRequestManager extends FileManager {
     private static final String STATUS_KEY = "Status: ";
     private static final String TIMESTAMP_KEY = "Timestamp: ";
 
-    private final SongFileManager songFileManager = new SongFileManager();
+    private final SongFileManager songFileManager;
+
+    public LyricsRequestManager() {
+        this(new SongFileManager());
+    }
+
+    public LyricsRequestManager(SongFileManager songFileManager) {
+        if (songFileManager == null) throw new IllegalArgumentException("SongFileManager cannot be null");
+        this.songFileManager = songFileManager;
+    }
 
     public synchronized void saveLyricsEditRequest(String artistNickName, String songTitle, String albumName, String suggestedLyrics, String requester) {
         validateInputs(artistNickName, songTitle, suggestedLyrics, requester);
@@ -33,54 +44,54 @@ public class LyricsRequestManager extends FileManager {
         String safeArtistNickName = sanitizeFileName(artistNickName);
         String safeSongTitle = sanitizeFileName(songTitle);
         String requestDir = LYRICS_REQUESTS_PENDING + safeArtistNickName + "/" + safeSongTitle + "/";
-        System.out.println("Attempting to create request directory: " + requestDir);
+        Log.debug("Attempting to create request directory: {}", requestDir);
         ensureDataDirectoryExists(requestDir);
 
         String timestamp = LocalDateTime.now().format(formatter);
         String formattedTimestamp = timestamp.replace(":", "-").replace(" ", "_");
         String requestFile = requestDir + safeSongTitle + "-" + formattedTimestamp + ".txt";
-        System.out.println("Request file path: " + requestFile);
+        Log.debug("Request file path: {}", requestFile);
 
         String songDir = songFileManager.getSongDir(artistNickName, songTitle, albumName);
-        System.out.println("Song directory: " + songDir);
+        Log.debug("Song directory: {}", songDir);
         Path songFilePath = Paths.get(songDir + safeSongTitle + ".txt");
         Path lyricsFilePath = Paths.get(songDir + safeSongTitle + "_lyrics.txt");
 
         if (!Files.exists(songFilePath)) {
-            System.err.println("Song file not found: " + songFilePath);
+            Log.warn("Song file not found: {}", songFilePath);
             throw new IllegalStateException("Song file not found: " + songFilePath);
         }
         if (!Files.exists(lyricsFilePath)) {
-            System.err.println("Lyrics file not found: " + lyricsFilePath);
+            Log.warn("Lyrics file not found: {}", lyricsFilePath);
             throw new IllegalStateException("Lyrics file not found: " + lyricsFilePath);
         }
 
         String originalLyrics = songFileManager.loadLyrics(songDir + safeSongTitle + ".txt");
         if (originalLyrics == null || originalLyrics.trim().isEmpty()) {
-            System.err.println("Original lyrics not found for song: " + songTitle + " in directory: " + songDir);
+            Log.warn("Original lyrics not found for song: {} in directory: {}", songTitle, songDir);
             throw new IllegalStateException("Original lyrics not found for song: " + songTitle);
         }
-        System.out.println("Original lyrics loaded: " + originalLyrics);
+        Log.debug("Original lyrics loaded: {}", originalLyrics);
 
         Lyrics lyrics = new Lyrics(originalLyrics);
         lyrics.suggestEdit(suggestedLyrics);
-        System.out.println("Lyrics object created and edit suggested: " + lyrics);
+        Log.debug("Lyrics object created and edit suggested: {}", lyrics);
 
         List<String> requestData = createRequestData(artistNickName, songTitle, albumName, suggestedLyrics, requester, timestamp);
-        System.out.println("Request data to save: " + requestData);
+        Log.debug("Request data to save: {}", requestData);
         writeFile(requestFile, requestData);
-        System.out.println("Request file saved successfully: " + requestFile);
+        Log.debug("Request file saved successfully: {}", requestFile);
 
         Path requestFilePath = Paths.get(requestFile);
         if (Files.exists(requestFilePath)) {
-            System.out.println("Verified: Request file exists at " + requestFile);
+            Log.debug("Verified: Request file exists at {}", requestFile);
         } else {
-            System.err.println("Error: Request file was not created at " + requestFile);
+            Log.error("Error: Request file was not created at {}", requestFile);
             throw new IllegalStateException("Failed to create request file at " + requestFile);
         }
     }
 
-    public synchronized List<String[]> loadLyricsEditRequestsForArtist(String artistNickName) {
+    public List<String[]> loadLyricsEditRequestsForArtist(String artistNickName) {
         validateInput(artistNickName, "Artist nickname");
         String safeArtistNickName = sanitizeFileName(artistNickName);
         return loadRequestsFromMultipleDirs(
@@ -101,7 +112,7 @@ public class LyricsRequestManager extends FileManager {
         return loadRequestsFromDir(dirPath).toArray(new String[0][]);
     }
 
-    public synchronized List<String[]> loadAllLyricsEditRequests() {
+    public List<String[]> loadAllLyricsEditRequests() {
         return loadRequestsFromMultipleDirs(LYRICS_REQUESTS_PENDING, LYRICS_REQUESTS_APPROVED, LYRICS_REQUESTS_REJECTED);
     }
 
@@ -112,29 +123,29 @@ public class LyricsRequestManager extends FileManager {
 
         String formattedTimestamp = timestamp.replace(":", "-").replace(" ", "_");
         String pendingFilePath = LYRICS_REQUESTS_PENDING + safeArtistNickName + "/" + safeSongTitle + "/" + safeSongTitle + "-" + formattedTimestamp + ".txt";
-        System.out.println("Looking for file at: " + pendingFilePath);
+        Log.debug("Looking for file at: {}", pendingFilePath);
         Path pendingFile = Paths.get(pendingFilePath);
         if (!Files.exists(pendingFile)) {
             throw new IllegalStateException("Lyrics edit request not found for song: " + songTitle + " at timestamp: " + timestamp);
         }
 
         String songDir = songFileManager.getSongDir(artistNickName, songTitle, albumName);
-        System.out.println("Song directory: " + songDir);
+        Log.debug("Song directory: {}", songDir);
         Path songFilePath = Paths.get(songDir + safeSongTitle + ".txt");
         Path lyricsFilePath = Paths.get(songDir + safeSongTitle + "_lyrics.txt");
 
         if (!Files.exists(songFilePath)) {
-            System.err.println("Song file not found: " + songFilePath);
+            Log.warn("Song file not found: {}", songFilePath);
             throw new IllegalStateException("Song file not found: " + songFilePath);
         }
         if (!Files.exists(lyricsFilePath)) {
-            System.err.println("Lyrics file not found: " + lyricsFilePath);
+            Log.warn("Lyrics file not found: {}", lyricsFilePath);
             throw new IllegalStateException("Lyrics file not found: " + lyricsFilePath);
         }
 
         String currentLyrics = songFileManager.loadLyrics(songDir + safeSongTitle + ".txt");
         if (currentLyrics == null || currentLyrics.trim().isEmpty()) {
-            System.err.println("Current lyrics not found or empty for song: " + songTitle + " at: " + lyricsFilePath);
+            Log.warn("Current lyrics not found or empty for song: {} at: {}", songTitle, lyricsFilePath);
             throw new IllegalStateException("Current lyrics not found for song: " + songTitle);
         }
 
@@ -143,6 +154,9 @@ public class LyricsRequestManager extends FileManager {
         String approvedLyrics = lyrics.getApprovedLyrics();
 
         writeFile(songDir + safeSongTitle + "_lyrics.txt", Collections.singletonList(approvedLyrics));
+        Fingerprints.getInstance().record(songDir + safeSongTitle + "_lyrics.txt", Collections.singletonList(approvedLyrics));
+        CatalogCaches.invalidateLyrics(songDir + safeSongTitle + "_lyrics.txt");
+        SongFileManager.notifyLyricsChanged(new SongKey(artistNickName, albumName, songTitle));
 
         moveRequest(pendingFile, safeArtistNickName, safeSongTitle, LYRICS_REQUESTS_APPROVED, "Approved");
     }
@@ -154,7 +168,7 @@ public class LyricsRequestManager extends FileManager {
 
         String formattedTimestamp = timestamp.replace(":", "-").replace(" ", "_");
         String pendingFilePath = LYRICS_REQUESTS_PENDING + safeArtistNickName + "/" + safeSongTitle + "/" + safeSongTitle + "-" + formattedTimestamp + ".txt";
-        System.out.println("Looking for file at: " + pendingFilePath);
+        Log.debug("Looking for file at: {}", pendingFilePath);
         Path pendingFile = Paths.get(pendingFilePath);
         if (!Files.exists(pendingFile)) {
             throw new IllegalStateException("Lyrics edit request not found for song: " + songTitle + " at timestamp: " + timestamp);
@@ -0,0 +1,302 @@
+package services.file;
+
+import models.DTO.ReleaseDTO;
+import utils.BoundedCache;
+import utils.ConfigLoader;
+import utils.FileUtil;
+import utils.Log;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// "New from artists you follow". Every new song goes into its artist's release list (data/feeds/releases/), and for
+// artists with at most PUSH_FOLLOWER_LIMIT followers it is also pushed, on a background thread, into each follower's
+// bounded inbox (data/feeds/inboxes/). Releases of artists above the limit are never fanned out; readers merge them in
+// from the release lists of the few such artists they follow. A page is a merge of one inbox and those lists, so it
+// costs the same however many artists the user follows.
+// Inbox entries of artists the reader no longer follows are skipped when read rather than deleted on unfollow.
+final class ReleaseFeed {
+    private static final String FEEDS_DIR = FileUtil.DATA_DIR + "feeds/";
+    private static final String RELEASES_DIR = FEEDS_DIR + "releases/";
+    private static final String INBOXES_DIR = FEEDS_DIR + "inboxes/";
+    private static final String PULL_ARTISTS_FILE = FEEDS_DIR + "pull_artists.txt";
+    private static final int PUSH_FOLLOWER_LIMIT = 1_000;
+    private static final int RELEASES_LIMIT = 50;
+    private static final int INBOX_LIMIT = 200;
+    private static final Comparator<ReleaseDTO> NEWEST_FIRST = Comparator.comparingLong(ReleaseDTO::publishedAt).reversed()
+            .thenComparing(ReleaseDTO::artistName)
+            .thenComparing(ReleaseDTO::title);
+
+    private static final ReleaseFeed INSTANCE = new ReleaseFeed();
+
+    // Newest first; both are small, bounded lists loaded on first use
+    private final Map<String, List<ReleaseDTO>> releasesByArtist = new HashMap<>();
+    private final BoundedCache<String, List<ReleaseDTO>> inboxes = new BoundedCache<>("feeds",
+            ConfigLoader.getInstance().getCacheMaxWeight("feeds", 200_000L),
+            List::size,
+            ConfigLoader.getInstance().getCachePolicy("feeds", BoundedCache.Policy.LRU),
+            ConfigLoader.getInstance().getCacheTtl("feeds"));
+    // Artists whose releases are pulled by readers. An artist stays here once added, since their older releases were
+    // never pushed and would otherwise drop out of their followers' feeds.
+    private Set<String> pullArtists;
+    private long lastPublishedAt;
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "release-fan-out");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ReleaseFeed() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "release-fan-out-shutdown"));
+    }
+
+    static ReleaseFeed getInstance() {
+        return INSTANCE;
+    }
+
+    // Call once when a song is first saved; later saves of the same song are edits, not releases
+    synchronized void publish(String artistNickName, String albumName, String songTitle, String releaseDate) {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
+        if (releaseDate == null || releaseDate.isEmpty()) throw new IllegalArgumentException("Release date cannot be null or empty");
+
+        lastPublishedAt = Math.max(System.currentTimeMillis(), lastPublishedAt + 1);
+        ReleaseDTO release = new ReleaseDTO(artistNickName, albumName, songTitle, releaseDate, lastPublishedAt);
+        List<ReleaseDTO> releases = new ArrayList<>(releases(artistNickName));
+        releases.removeIf(existing -> isSong(existing, artistNickName, albumName, songTitle));
+        releases.addFirst(release);
+        if (releases.size() > RELEASES_LIMIT) releases.subList(RELEASES_LIMIT, releases.size()).clear();
+        saveReleases(artistNickName, releases);
+
+        int followers = FollowGraph.getInstance().followerCount(artistNickName);
+        if (isPull(artistNickName) || followers > PUSH_FOLLOWER_LIMIT) {
+            markPull(artistNickName);
+            Log.debug("Release {} by {} left for {} followers to pull", songTitle, artistNickName, followers);
+            return;
+        }
+        List<String> recipients = FollowGraph.getInstance().followers(artistNickName, 0, followers);
+        fanOut.execute(() -> {
+            for (String user : recipients) updateInbox(user, inbox -> insert(inbox, List.of(release)));
+            Log.debug("Pushed release {} by {} to {} inboxes", songTitle, artistNickName, recipients.size());
+        });
+    }
+
+    synchronized void retractSong(String artistNickName, String albumName, String songTitle) {
+        retract(artistNickName, release -> isSong(release, artistNickName, albumName, songTitle));
+    }
+
+    synchronized void retractAlbum(String artistNickName, String albumTitle) {
+        retract(artistNickName, release -> release.artistName().equals(artistNickName) && albumTitle.equals(release.albumName()));
+    }
+
+    // A renamed song keeps its original publish time, so it stays where it was in every feed
+    synchronized void renameSong(String artistNickName, String albumName, String oldTitle, String newTitle) {
+        rewrite(artistNickName, release -> isSong(release, artistNickName, albumName, oldTitle)
+                ? new ReleaseDTO(release.artistName(), release.albumName(), newTitle, release.releaseDate(), release.publishedAt())
+                : release);
+    }
+
+    synchronized void renameAlbum(String artistNickName, String oldTitle, String newTitle) {
+        rewrite(artistNickName, release -> release.artistName().equals(artistNickName) && oldTitle.equals(release.albumName())
+                ? new ReleaseDTO(release.artistName(), newTitle, release.title(), release.releaseDate(), release.publishedAt())
+                : release);
+    }
+
+    // Brings the artist's recent releases into a new follower's inbox
+    void followed(String userNickName, String artistNickName) {
+        fanOut.execute(() -> {
+            if (isPull(artistNickName)) return;
+            List<ReleaseDTO> releases = releases(artistNickName);
+            updateInbox(userNickName, inbox -> {
+                List<ReleaseDTO> updated = new ArrayList<>(inbox);
+                updated.removeIf(release -> release.artistName().equals(artistNickName));
+                return insert(updated, releases);
+            });
+        });
+    }
+
+    // The merge below only looks at offset + limit entries of each source, plus the skipped ones
+    synchronized List<ReleaseDTO> feed(String userNickName, int offset, int limit) {
+        if (userNickName == null || userNickName.isEmpty()) throw new IllegalArgumentException("User nickname cannot be null or empty");
+        if (offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative");
+
+        FollowGraph graph = FollowGraph.getInstance();
+        List<List<ReleaseDTO>> sources = new ArrayList<>();
+        sources.add(inbox(userNickName));
+        for (String artist : pullArtists()) {
+            if (graph.isFollowing(userNickName, artist)) sources.add(releases(artist));
+        }
+        int[] positions = new int[sources.size()];
+        List<ReleaseDTO> page = new ArrayList<>();
+        int skipped = 0;
+        while (page.size() < limit) {
+            int newest = -1;
+            for (int i = 0; i < sources.size(); i++) {
+                List<ReleaseDTO> source = sources.get(i);
+                // Only the inbox can hold entries of unfollowed or since-pulled artists
+                while (i == 0 && positions[i] < source.size() && !isPushedTo(userNickName, source.get(positions[i]))) positions[i]++;
+                if (positions[i] >= source.size()) continue;
+                if (newest < 0 || NEWEST_FIRST.compare(source.get(positions[i]), sources.get(newest).get(positions[newest])) < 0) newest = i;
+            }
+            if (newest < 0) break;
+            ReleaseDTO next = sources.get(newest).get(positions[newest]++);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(next);
+            }
+        }
+        return page;
+    }
+
+    private boolean isPushedTo(String userNickName, ReleaseDTO release) {
+        return !isPull(release.artistName()) && FollowGraph.getInstance().isFollowing(userNickName, release.artistName());
+    }
+
+    private void retract(String artistNickName, Predicate<ReleaseDTO> retracted) {
+        List<ReleaseDTO> releases = new ArrayList<>(releases(artistNickName));
+        if (releases.removeIf(retracted)) saveReleases(artistNickName, releases);
+        if (isPull(artistNickName)) return;
+        // Also sent when the release list no longer had the song, since inboxes keep releases for longer
+        List<String> recipients = FollowGraph.getInstance().followers(artistNickName, 0, Integer.MAX_VALUE);
+        fanOut.execute(() -> {
+            for (String user : recipients) {
+                updateInbox(user, inbox -> {
+                    List<ReleaseDTO> updated = new ArrayList<>(inbox);
+                    return updated.removeIf(retracted) ? updated : inbox;
+                });
+            }
+        });
+    }
+
+    // renamed returns its argument for releases it leaves alone
+    private void rewrite(String artistNickName, UnaryOperator<ReleaseDTO> renamed) {
+        List<ReleaseDTO> releases = releases(artistNickName);
+        List<ReleaseDTO> updatedReleases = releases.stream().map(renamed).toList();
+        if (!updatedReleases.equals(releases)) saveReleases(artistNickName, new ArrayList<>(updatedReleases));
+        if (isPull(artistNickName)) return;
+        List<String> recipients = FollowGraph.getInstance().followers(artistNickName, 0, Integer.MAX_VALUE);
+        fanOut.execute(() -> {
+            for (String user : recipients) {
+                updateInbox(user, inbox -> {
+                    List<ReleaseDTO> updated = inbox.stream().map(renamed).toList();
+                    return updated.equals(inbox) ? inbox : new ArrayList<>(updated);
+                });
+            }
+        });
+    }
+
+    private static boolean isSong(ReleaseDTO release, String artistNickName, String albumName, String songTitle) {
+        return release.artistName().equals(artistNickName) && Objects.equals(release.albumName(), albumName) && release.title().equals(songTitle);
+    }
+
+    private static List<ReleaseDTO> insert(List<ReleaseDTO> inbox, List<ReleaseDTO> releases) {
+        List<ReleaseDTO> updated = new ArrayList<>(inbox.size() + releases.size());
+        updated.addAll(inbox);
+        updated.addAll(releases);
+        updated.sort(NEWEST_FIRST);
+        return updated.size() > INBOX_LIMIT ? new ArrayList<>(updated.subList(0, INBOX_LIMIT)) : updated;
+    }
+
+    // Unchanged inboxes (the operator returned its argument) are not rewritten
+    private synchronized void updateInbox(String userNickName, UnaryOperator<List<ReleaseDTO>> update) {
+        List<ReleaseDTO> inbox = inbox(userNickName);
+        List<ReleaseDTO> updated = update.apply(inbox);
+        if (updated == inbox) return;
+        List<String> lines = new ArrayList<>(updated.size());
+        for (ReleaseDTO release : updated) {
+            lines.add(release.publishedAt() + "\t" + release.artistName() + "\t" + encodeAlbum(release.albumName())
+                    + "\t" + release.title() + "\t" + release.releaseDate());
+        }
+        FileUtil.writeFile(INBOXES_DIR + FileUtil.sanitizeFileName(userNickName) + ".txt", lines);
+        inboxes.put(userNickName, Collections.unmodifiableList(updated));
+    }
+
+    private List<ReleaseDTO> inbox(String userNickName) {
+        return inboxes.get(userNickName, user -> {
+            List<ReleaseDTO> inbox = new ArrayList<>();
+            String path = INBOXES_DIR + FileUtil.sanitizeFileName(user) + ".txt";
+            if (!new File(path).exists()) return Collections.unmodifiableList(inbox);
+            for (String line : FileUtil.readFile(path)) {
+                String[] parts = line.split("\t", -1);
+                try {
+                    if (parts.length != 5) throw new IllegalArgumentException("expected 5 fields");
+                    inbox.add(new ReleaseDTO(parts[1], decodeAlbum(parts[2]), parts[3], parts[4], Long.parseLong(parts[0])));
+                } catch (IllegalArgumentException e) {
+                    Log.warn("Skipping malformed inbox entry in {}: {} ({})", path, line, e.getMessage());
+                }
+            }
+            return Collections.unmodifiableList(inbox);
+        });
+    }
+
+    private synchronized List<ReleaseDTO> releases(String artistNickName) {
+        return releasesByArtist.computeIfAbsent(artistNickName, artist -> {
+            List<ReleaseDTO> releases = new ArrayList<>();
+            String path = RELEASES_DIR + FileUtil.sanitizeFileName(artist) + ".txt";
+            if (!new File(path).exists()) return Collections.unmodifiableList(releases);
+            for (String line : FileUtil.readFile(path)) {
+                String[] parts = line.split("\t", -1);
+                try {
+                    if (parts.length != 4) throw new IllegalArgumentException("expected 4 fields");
+                    releases.add(new ReleaseDTO(artist, decodeAlbum(parts[1]), parts[2], parts[3], Long.parseLong(parts[0])));
+                } catch (IllegalArgumentException e) {
+                    Log.warn("Skipping malformed release in {}: {} ({})", path, line, e.getMessage());
+                }
+            }
+            return Collections.unmodifiableList(releases);
+        });
+    }
+
+    private void saveReleases(String artistNickName, List<ReleaseDTO> releases) {
+        List<String> lines = new ArrayList<>(releases.size());
+        for (ReleaseDTO release : releases) {
+            lines.add(release.publishedAt() + "\t" + encodeAlbum(release.albumName()) + "\t" + release.title() + "\t" + release.releaseDate());
+        }
+        FileUtil.writeFile(RELEASES_DIR + FileUtil.sanitizeFileName(artistNickName) + ".txt", lines);
+        releasesByArtist.put(artistNickName, Collections.unmodifiableList(releases));
+    }
+
+    private synchronized boolean isPull(String artistNickName) {
+        return pullArtists().contains(artistNickName);
+    }
+
+    private void markPull(String artistNickName) {
+        if (!pullArtists().add(artistNickName)) return;
+        FileUtil.writeFile(PULL_ARTISTS_FILE, new ArrayList<>(pullArtists));
+        Log.info("Releases by {} are now pulled instead of pushed", artistNickName);
+    }
+
+    private Set<String> pullArtists() {
+        if (pullArtists == null) {
+            pullArtists = new LinkedHashSet<>();
+            if (new File(PULL_ARTISTS_FILE).exists()) pullArtists.addAll(FileUtil.readFile(PULL_ARTISTS_FILE));
+        }
+        return pullArtists;
+    }
+
+    // Singles are stored with an empty album field
+    private static String encodeAlbum(String albumName) {
+        return albumName != null ? albumName : "";
+    }
+
+    private static String decodeAlbum(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    // Lets queued fan-outs finish before the JVM exits
+    private void drain() {
+        fanOut.shutdown();
+        try {
+            if (!fanOut.awaitTermination(5, TimeUnit.SECONDS)) Log.warn("Release fan-out did not finish before shutdown");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package services.file;
+
+import models.DTO.SongKey;
+import services.CatalogService;
+import utils.ConfigLoader;
+import utils.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static utils.FileUtil.*;
+
+// Live view/like counters for every song, kept as striped LongAdders so concurrent sessions never contend on a
+// read-modify-write. Each increment is also queued as one line for data/counters/events.log; a background thread
+// appends the queued lines in batches, publishes the accumulated deltas to catalog listeners and periodically
+// folds them into the Likes:/Views: fields of the song metadata files. Every applied or superseded key gets a
+// settle marker, so a compaction interrupted by a crash resumes without counting anything twice. Counts taken off a key
+// by a partial settle or carried over by a rename are logged as signed adjustments.
+public class SongCounterLog {
+    private static final String COUNTERS_DIR = DATA_DIR + "counters/";
+    private static final String LOG_FILE = COUNTERS_DIR + "events.log";
+    private static final String COMPACTING_FILE = COUNTERS_DIR + "events.log.compacting";
+    private static final int COMPACTION_THRESHOLD = ConfigLoader.getInstance().getCounterCompactionThreshold();
+    private static final long FLUSH_INTERVAL_MS = ConfigLoader.getInstance().getCounterFlushIntervalMillis();
+    private static final long COMPACTION_INTERVAL_MS = ConfigLoader.getInstance().getCounterCompactionIntervalMillis();
+
+    private static final String VIEW = "V";
+    private static final String LIKE = "L";
+    private static final String SETTLED = "S";
+    private static final String ADJUSTED = "A";
+
+    private static final SongCounterLog INSTANCE = new SongCounterLog();
+
+    // Deltas not yet written to the metadata file; published* is only touched while holding the event queue's monitor
+    private static final class PendingCounters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private long publishedViews;
+        private long publishedLikes;
+    }
+
+    // Recording shares the read lock; settling and log rotation take the write lock so no increment slips between them
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<SongKey, PendingCounters> pending = new ConcurrentHashMap<>();
+    private final Map<SongKey, PendingCounters> compacting = new ConcurrentHashMap<>();
+    private final Queue<String> unwrittenEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger eventsSinceCompaction = new AtomicInteger();
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "song-counter-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BufferedWriter writer;
+
+    private SongCounterLog() {
+        ensureDataDirectoryExists(COUNTERS_DIR);
+        recover();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::compactIfDirty, COMPACTION_INTERVAL_MS, COMPACTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::compactQuietly, "song-counter-compaction"));
+    }
+
+    public static SongCounterLog getInstance() {
+        return INSTANCE;
+    }
+
+    public void recordView(String artistNickName, String albumName, String songTitle) {
+        record(new SongKey(artistNickName, albumName, songTitle), VIEW);
+    }
+
+    public void recordLike(String artistNickName, String albumName, String songTitle) {
+        record(new SongKey(artistNickName, albumName, songTitle), LIKE);
+    }
+
+    // Views not yet folded into the metadata file
+    public int getPendingViews(SongKey key) {
+        return pendingCount(key, true);
+    }
+
+    // Likes not yet folded into the metadata file
+    public int getPendingLikes(SongKey key) {
+        return pendingCount(key, false);
+    }
+
+    // Called when a song's counters were written out in full, so its pending deltas are already accounted for
+    public void settle(SongKey key) {
+        lock.writeLock().lock();
+        try {
+            if (pending.remove(key) != null) {
+                unwrittenEvents.add(SETTLED + "|" + encode(key));
+            }
+            if (compacting.remove(key) != null) {
+                appendLine(COMPACTING_FILE, SETTLED + "|" + encode(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called after a song was written with views and likes read from the pending counts folded into its counters. Only
+    // those are dropped; increments that arrived after the caller read them stay pending.
+    public void settle(SongKey key, int views, int likes) {
+        if (views < 0 || likes < 0) throw new IllegalArgumentException("Settled counts cannot be negative");
+        if (views == 0 && likes == 0) return;
+        lock.writeLock().lock();
+        try {
+            synchronized (unwrittenEvents) {
+                // Older increments sit in compacting, so they are taken first
+                long[] left = {views, likes};
+                subtract(compacting, key, left, line -> appendLine(COMPACTING_FILE, line));
+                subtract(pending, key, left, unwrittenEvents::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A renamed song's pending counts follow it to the new name
+    public void rename(SongKey from, SongKey to) {
+        lock.writeLock().lock();
+        try {
+            synchronized (unwrittenEvents) {
+                PendingCounters fromPending = pending.remove(from);
+                PendingCounters fromCompacting = compacting.remove(from);
+                if (fromPending == null && fromCompacting == null) return;
+                PendingCounters target = pending.computeIfAbsent(to, k -> new PendingCounters());
+                long views = 0;
+                long likes = 0;
+                for (PendingCounters moved : Arrays.asList(fromPending, fromCompacting)) {
+                    if (moved == null) continue;
+                    views += moved.views.sum();
+                    likes += moved.likes.sum();
+                    target.publishedViews += moved.publishedViews;
+                    target.publishedLikes += moved.publishedLikes;
+                }
+                target.views.add(views);
+                target.likes.add(likes);
+                unwrittenEvents.add(ADJUSTED + "|" + encode(to) + "|" + views + "|" + likes);
+                if (fromPending != null) unwrittenEvents.add(SETTLED + "|" + encode(from));
+                // The counts are on disk under the new name before the compacting file lets go of the old one
+                writeQueuedEvents();
+                if (fromCompacting != null) appendLine(COMPACTING_FILE, SETTLED + "|" + encode(from));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameAlbum(String artistNickName, String oldTitle, String newTitle) {
+        lock.writeLock().lock();
+        try {
+            Set<SongKey> keys = new HashSet<>(pending.keySet());
+            keys.addAll(compacting.keySet());
+            for (SongKey key : keys) {
+                if (key.isInAlbum(artistNickName, oldTitle)) rename(key, new SongKey(artistNickName, newTitle, key.title()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void settleAlbum(String artistNickName, String albumTitle) {
+        lock.writeLock().lock();
+        try {
+            for (SongKey key : new ArrayList<>(pending.keySet())) {
+                if (key.isInAlbum(artistNickName, albumTitle)) settle(key);
+            }
+            for (SongKey key : new ArrayList<>(compacting.keySet())) {
+                if (key.isInAlbum(artistNickName, albumTitle)) settle(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appends queued events to the log and publishes the deltas accumulated since the previous flush
+    public void flush() {
+        synchronized (unwrittenEvents) {
+            writeQueuedEvents();
+            publish(pending);
+            publish(compacting);
+        }
+    }
+
+    // Waits for a running compaction, so callers such as the shutdown hook see every earlier increment on disk
+    public void compact() {
+        synchronized (compactionLock) {
+            try {
+                flush();
+                // Settle what an earlier compaction left behind before rotating more events on top of it
+                if (Files.exists(Paths.get(COMPACTING_FILE))) applyCompacting();
+                lock.writeLock().lock();
+                try {
+                    synchronized (unwrittenEvents) {
+                        writeQueuedEvents();
+                        closeWriter();
+                    }
+                    eventsSinceCompaction.set(0);
+                    if (pending.isEmpty()) {
+                        Files.deleteIfExists(Paths.get(LOG_FILE));
+                        if (compacting.isEmpty()) return;
+                    } else {
+                        rotateLog();
+                        pending.forEach(this::mergeIntoCompacting);
+                        pending.clear();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                applyCompacting();
+            } catch (IOException e) {
+                Log.error("Failed to compact song counter log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void record(SongKey key, String type) {
+        lock.readLock().lock();
+        try {
+            unwrittenEvents.add(type + "|" + encode(key));
+            PendingCounters counters = pending.computeIfAbsent(key, k -> new PendingCounters());
+            (type.equals(VIEW) ? counters.views : counters.likes).increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (eventsSinceCompaction.incrementAndGet() == COMPACTION_THRESHOLD) {
+            scheduler.execute(this::compactQuietly);
+        }
+    }
+
+    private int pendingCount(SongKey key, boolean views) {
+        long count = 0;
+        for (Map<SongKey, PendingCounters> counters : List.of(pending, compacting)) {
+            PendingCounters entry = counters.get(key);
+            if (entry != null) count += views ? entry.views.sum() : entry.likes.sum();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    private void publish(Map<SongKey, PendingCounters> counters) {
+        counters.forEach(this::publish);
+    }
+
+    private void publish(SongKey key, PendingCounters entry) {
+        long views = entry.views.sum();
+        long likes = entry.likes.sum();
+        int viewsDelta = (int) (views - entry.publishedViews);
+        int likesDelta = (int) (likes - entry.publishedLikes);
+        if (viewsDelta == 0 && likesDelta == 0) return;
+        entry.publishedViews = views;
+        entry.publishedLikes = likes;
+        SongFileManager.notifyCountersChanged(key, viewsDelta, likesDelta);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            Log.error("Failed to flush song counters: {}", e.getMessage());
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            Log.error("Failed to compact song counters: {}", e.getMessage());
+        }
+    }
+
+    private void compactIfDirty() {
+        if (!pending.isEmpty() || !compacting.isEmpty()) compactQuietly();
+    }
+
+    // A compacting file still on disk holds events that were never settled, so the log is appended to it, not swapped in
+    private void rotateLog() throws IOException {
+        Path log = Paths.get(LOG_FILE);
+        Path rotated = Paths.get(COMPACTING_FILE);
+        if (!Files.exists(rotated)) {
+            Files.move(log, rotated);
+        } else if (Files.exists(log)) {
+            Files.write(rotated, Files.readAllBytes(log), StandardOpenOption.APPEND);
+            Files.delete(log);
+        }
+    }
+
+    // Takes up to left[0] views and left[1] likes off the key's entry and lowers left by what was taken. Callers hold the
+    // write lock and the event queue's monitor.
+    private void subtract(Map<SongKey, PendingCounters> counters, SongKey key, long[] left, Consumer<String> log) {
+        PendingCounters entry = counters.get(key);
+        if (entry == null) return;
+        long views = Math.min(left[0], entry.views.sum());
+        long likes = Math.min(left[1], entry.likes.sum());
+        if (views == 0 && likes == 0) return;
+        left[0] -= views;
+        left[1] -= likes;
+        entry.views.add(-views);
+        entry.likes.add(-likes);
+        // The song's saved counters already told listeners about these, published or not
+        entry.publishedViews = Math.max(0, entry.publishedViews - views);
+        entry.publishedLikes = Math.max(0, entry.publishedLikes - likes);
+        if (entry.views.sum() == 0 && entry.likes.sum() == 0) {
+            counters.remove(key);
+            log.accept(SETTLED + "|" + encode(key));
+        } else {
+            log.accept(ADJUSTED + "|" + encode(key) + "|" + -views + "|" + -likes);
+        }
+    }
+
+    // Callers hold the write lock
+    private void mergeIntoCompacting(SongKey key, PendingCounters counters) {
+        compacting.merge(key, counters, (existing, added) -> {
+            existing.views.add(added.views.sum());
+            existing.likes.add(added.likes.sum());
+            existing.publishedViews += added.publishedViews;
+            existing.publishedLikes += added.publishedLikes;
+            return existing;
+        });
+    }
+
+    // Folds the rotated log into the metadata files one song at a time, so increments are never blocked for long.
+    // A song whose file can't be written stays in compacting, and the rotated log is kept until a later attempt succeeds.
+    private void applyCompacting() throws IOException {
+        for (SongKey key : new ArrayList<>(compacting.keySet())) {
+            lock.writeLock().lock();
+            try {
+                PendingCounters counters = compacting.get(key);
+                if (counters == null) continue;
+                // Increments that arrived between the last flush and the rotation were never published
+                synchronized (unwrittenEvents) {
+                    publish(key, counters);
+                }
+                applyToMetadata(key, counters.views.sum(), counters.likes.sum());
+                compacting.remove(key);
+                appendLine(COMPACTING_FILE, SETTLED + "|" + encode(key));
+            } catch (RuntimeException e) {
+                Log.error("Failed to apply counters for {}, keeping them for the next compaction: {}", encode(key), e.getMessage());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (compacting.isEmpty()) Files.deleteIfExists(Paths.get(COMPACTING_FILE));
+    }
+
+    private void applyToMetadata(SongKey key, long viewsDelta, long likesDelta) {
+        // Looked up on use so this log and the catalog service can initialize in either order
+        SongFileManager songFileManager = CatalogService.getInstance().getSongFileManager();
+        String metaFilePath = songFileManager.getSongDir(key.artistName(), key.title(), key.albumName()) + key.title() + ".txt";
+        if (!Files.exists(Paths.get(metaFilePath))) {
+            Log.error("Dropping counters for missing song file: {}", metaFilePath);
+            return;
+        }
+        updateFile(metaFilePath, lines -> {
+            List<String> updated = new ArrayList<>();
+            for (String line : lines) {
+                if (line.startsWith("Likes: ")) {
+                    updated.add("Likes: " + addCount(line.substring("Likes: ".length()), likesDelta));
+                } else if (line.startsWith("Views: ")) {
+                    updated.add("Views: " + addCount(line.substring("Views: ".length()), viewsDelta));
+                } else {
+                    updated.add(line);
+                }
+            }
+            return updated;
+        });
+        // Counters are left out of the record's fingerprint, so only its size and mtime move
+        Fingerprints.getInstance().restat(metaFilePath);
+        CatalogCaches.invalidateSongRecord(metaFilePath);
+    }
+
+    private void recover() {
+        try {
+            if (Files.exists(Paths.get(COMPACTING_FILE))) {
+                replay(COMPACTING_FILE, compacting);
+                applyCompacting();
+            }
+            if (Files.exists(Paths.get(LOG_FILE))) {
+                eventsSinceCompaction.set(replay(LOG_FILE, pending));
+            }
+        } catch (IOException e) {
+            Log.error("Failed to recover song counter log: {}", e.getMessage());
+        }
+    }
+
+    // Replayed counters are already part of the loaded song state, so they start out as published
+    private int replay(String logFile, Map<SongKey, PendingCounters> target) {
+        int events = 0;
+        for (String line : readFile(logFile)) {
+            String[] parts = line.split("\\|", -1);
+            if (parts.length != (parts[0].equals(ADJUSTED) ? 6 : 4)) {
+                Log.warn("Skipping malformed counter event in {}: {}", logFile, line);
+                continue;
+            }
+            try {
+                SongKey key = new SongKey(parts[1], parts[2], parts[3]);
+                switch (parts[0]) {
+                    case VIEW -> target.computeIfAbsent(key, k -> new PendingCounters()).views.increment();
+                    case LIKE -> target.computeIfAbsent(key, k -> new PendingCounters()).likes.increment();
+                    case SETTLED -> target.remove(key);
+                    case ADJUSTED -> {
+                        PendingCounters counters = target.computeIfAbsent(key, k -> new PendingCounters());
+                        counters.views.add(Long.parseLong(parts[4]));
+                        counters.likes.add(Long.parseLong(parts[5]));
+                    }
+                    default -> Log.warn("Skipping unknown counter event in {}: {}", logFile, line);
+                }
+            } catch (IllegalArgumentException e) {
+                Log.warn("Skipping malformed counter event in {}: {} ({})", logFile, line, e.getMessage());
+                continue;
+            }
+            events++;
+        }
+        target.values().forEach(entry -> {
+            entry.publishedViews = entry.views.sum();
+            entry.publishedLikes = entry.likes.sum();
+        });
+        return events;
+    }
+
+    private void writeQueuedEvents() {
+        if (unwrittenEvents.isEmpty()) return;
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(Paths.get(LOG_FILE), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            String event;
+            while ((event = unwrittenEvents.poll()) != null) {
+                writer.write(event);
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            Log.error("Failed to append counter events to {}: {}", LOG_FILE, e.getMessage());
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static void appendLine(String filePath, String line) {
+        try {
+            Path path = Paths.get(filePath);
+            Files.write(path, (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            Log.error("Failed to append to {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    private static String encode(SongKey key) {
+        return key.artistName() + "|" + (key.albumName() != null ? key.albumName() : "") + "|" + key.title();
+    }
+
+    private static long addCount(String value, long delta) {
+        long count;
+        try {
+            count = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        return Math.max(0, Math.min(Integer.MAX_VALUE, count + delta));
+    }
+}
@@ -1,27 +1,68 @@
 package services.file;
 
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
 import models.account.Artist;
 import models.music.Album;
 import models.music.Comment;
 import models.music.Song;
+import utils.BoundedCache;
+import utils.FieldRecord;
 import utils.FileUtil;
+import utils.Log;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static utils.FileUtil.*;
 
 public class SongFileManager extends FileManager {
-    private final Map<String, List<Song>> songCache = new HashMap<>();
+    private static final List<CatalogListener> catalogListeners = new CopyOnWriteArrayList<>();
+
+    // Concurrent because the catalog loader runs loadSongsAndAlbumsForArtist for several artists at once
+    private final Map<String, List<Song>> songCache = new ConcurrentHashMap<>();
+
+    public static void addCatalogListener(CatalogListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Catalog listener cannot be null");
+        if (!catalogListeners.contains(listener)) catalogListeners.add(listener);
+    }
+
+    public static void removeCatalogListener(CatalogListener listener) {
+        catalogListeners.remove(listener);
+    }
+
+    private static void notifyListeners(Consumer<CatalogListener> event) {
+        for (CatalogListener listener : catalogListeners) {
+            try {
+                event.accept(listener);
+            } catch (Exception e) {
+                Log.error("Catalog listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    static void notifyCountersChanged(SongKey song, int viewsDelta, int likesDelta) {
+        notifyListeners(listener -> listener.countersChanged(song, viewsDelta, likesDelta));
+    }
+
+    static void notifyLyricsChanged(SongKey song) {
+        notifyListeners(listener -> listener.lyricsChanged(song));
+    }
+
+    private static String normalizeAlbumName(String albumName) {
+        return albumName == null || albumName.trim().isEmpty() || albumName.equals("Single") ? null : albumName;
+    }
 
     public String getAlbumDir(String artistNickName, String albumTitle) {
         String safeArtistNickName = sanitizeFileName(artistNickName);
@@ -41,32 +82,24 @@ public class SongFileManager extends FileManager {
     }
 
     public synchronized String saveSingleSongArt(String artistNickName, String songTitle, File imageFile) throws IOException {
+        return saveSongArt(artistNickName, songTitle, null, imageFile);
+    }
+
+    // Stores the image in the blob store and returns the path to pass to saveSong, which records the reference
+    public synchronized String saveSongArt(String artistNickName, String songTitle, String albumName, File imageFile) throws IOException {
         if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
         if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
         if (imageFile == null || !imageFile.exists()) throw new IllegalArgumentException("Image file cannot be null or does not exist");
 
-        String songDir = getSongDir(artistNickName, songTitle, null);
-        ensureDataDirectoryExists(songDir);
-
-        String fileExtension = imageFile.getName().substring(imageFile.getName().lastIndexOf("."));
-        String artFile = songDir + "song_art" + fileExtension;
-
+        String artFile;
         try {
-            Files.copy(imageFile.toPath(), Paths.get(artFile), StandardCopyOption.REPLACE_EXISTING);
+            artFile = BlobStore.getInstance().put(imageFile);
         } catch (IOException e) {
-            System.err.println("Failed to copy image file to: " + artFile + " - " + e.getMessage());
+            Log.error("Failed to store song art for: {} - {}", songTitle, e.getMessage());
             throw new IOException("Unable to save song art: " + e.getMessage(), e);
         }
 
-        File songDirFile = new File(songDir);
-        File[] existingArtFiles = songDirFile.listFiles((dir, name) -> name.startsWith("song_art.") && !name.equals("song_art" + fileExtension));
-        if (existingArtFiles != null) {
-            for (File oldArtFile : existingArtFiles) {
-                if (oldArtFile.exists()) oldArtFile.delete();
-            }
-        }
-
-        System.out.println("Saved song art to: " + artFile);
+        Log.debug("Saved song art for {} to: {}", getSongDir(artistNickName, songTitle, albumName), artFile);
         return artFile;
     }
 
@@ -97,7 +130,7 @@ public class SongFileManager extends FileManager {
                                     .map(line -> line.substring(line.indexOf(": ") + 2))
                                     .orElse(null);
                             deleteSong(artist.getNickName(), s, null);
-                            if (artPath != null) {
+                            if (artPath != null && !BlobStore.isBlob(artPath)) {
                                 File artFile = new File(artPath);
                                 if (artFile.exists()) artFile.delete();
                             }
@@ -115,19 +148,25 @@ public class SongFileManager extends FileManager {
         for (Song single : artist.getSingles()) {
             String songDir = getSongDir(artist.getNickName(), single.getTitle(), null);
             File songFile = new File(songDir + single.getTitle() + ".txt");
+            if (isSongUnchanged(songFile, artist.getNickName(), single)) {
+                Log.debug("Fingerprint unchanged for single: {}, skipping save.", single.getTitle());
+                continue;
+            }
             ensureDataDirectoryExists(songDir);
-
-            if (songFile.exists()) {
-                List<String> existingData = readFile(songFile.getPath());
-                String existingLikesStr = extractField(existingData, "Likes: ") != null ? extractField(existingData, "Likes: ") : "0";
-                String existingViewsStr = extractField(existingData, "Views: ") != null ? extractField(existingData, "Views: ") : "0";
-                int existingLikes = Integer.parseInt(existingLikesStr);
-                int existingViews = Integer.parseInt(existingViewsStr);
-                single.setLikes(existingLikes);
-                single.setViews(existingViews);
+            SongKey key = new SongKey(artist.getNickName(), null, single.getTitle());
+
+            List<String> existingLines = songFile.exists() ? readFile(songFile.getPath()) : null;
+            FieldRecord existing = existingLines != null ? FieldRecord.parse(existingLines) : null;
+            int pendingLikes = 0;
+            int pendingViews = 0;
+            if (existing != null) {
+                pendingLikes = SongCounterLog.getInstance().getPendingLikes(key);
+                pendingViews = SongCounterLog.getInstance().getPendingViews(key);
+                single.setLikes(existing.getInt("Likes", 0) + pendingLikes);
+                single.setViews(existing.getInt("Views", 0) + pendingViews);
             }
 
-            if (!songFile.exists() || hasSongChanged(songFile, single)) {
+            if (existing == null || hasSongChanged(songFile, existingLines, existing, single)) {
                 String songArtPath = single.getAlbumArtPath();
                 if (songArtPath == null || !new File(songArtPath).exists()) {
                     File songDirFile = new File(songDir);
@@ -137,114 +176,165 @@ public class SongFileManager extends FileManager {
                         single.setAlbumArtPath(songArtPath);
                     }
                 }
-                saveSong(Collections.singletonList(artist.getNickName()), single.getTitle(), null, single.getLyrics(), single.getReleaseDate(), single.getLikes(), single.getViews(), songArtPath);
-                System.out.println("Saved single: " + single.getTitle() + ", Likes: " + single.getLikes() + ", Views: " + single.getViews());
+                saveSong(Collections.singletonList(artist.getNickName()), single.getTitle(), null, single.getLyrics(), single.getReleaseDate(), single.getLikes(), single.getViews(), songArtPath, existing == null);
+                SongCounterLog.getInstance().settle(key, pendingViews, pendingLikes);
+                Log.debug("Saved single: {}, Likes: {}, Views: {}", single.getTitle(), single.getLikes(), single.getViews());
             } else {
-                System.out.println("No changes detected for single: " + single.getTitle() + ", skipping save.");
+                Log.debug("No changes detected for single: {}, skipping save.", single.getTitle());
             }
         }
 
         for (Album album : artist.getAlbums()) {
             String albumDir = getAlbumDir(artist.getNickName(), album.getTitle());
             File albumFile = new File(albumDir + "album.txt");
-            ensureDataDirectoryExists(albumDir);
 
-            if (!albumFile.exists() || hasAlbumChanged(albumFile, album)) {
+            if (isAlbumUnchanged(albumFile, album)) {
+                Log.debug("Fingerprint unchanged for album: {}, skipping save.", album.getTitle());
+            } else if (!albumFile.exists() || hasAlbumChanged(albumFile, album)) {
+                ensureDataDirectoryExists(albumDir);
                 List<String> songTitles = album.getSongs().stream().map(Song::getTitle).toList();
                 saveAlbum(artist.getNickName(), album.getTitle(), album.getReleaseDate(), songTitles, album.getAlbumArtPath());
             } else {
-                System.out.println("No changes detected for album: " + album.getTitle() + ", skipping save.");
+                Log.debug("No changes detected for album: {}, skipping save.", album.getTitle());
             }
 
             for (Song song : album.getSongs()) {
                 String songDir = getSongDir(artist.getNickName(), song.getTitle(), album.getTitle());
                 File songFile = new File(songDir + song.getTitle() + ".txt");
+                if (isSongUnchanged(songFile, artist.getNickName(), song)) {
+                    Log.debug("Fingerprint unchanged for song: {} in album: {}, skipping save.", song.getTitle(), album.getTitle());
+                    continue;
+                }
                 ensureDataDirectoryExists(songDir);
-
-                if (songFile.exists()) {
-                    List<String> existingData = readFile(songFile.getPath());
-                    String existingLikesStr = extractField(existingData, "Likes: ") != null ? extractField(existingData, "Likes: ") : "0";
-                    String existingViewsStr = extractField(existingData, "Views: ") != null ? extractField(existingData, "Views: ") : "0";
-                    int existingLikes = Integer.parseInt(existingLikesStr);
-                    int existingViews = Integer.parseInt(existingViewsStr);
-                    song.setLikes(existingLikes);
-                    song.setViews(existingViews);
+                SongKey key = new SongKey(artist.getNickName(), album.getTitle(), song.getTitle());
+
+                List<String> existingLines = songFile.exists() ? readFile(songFile.getPath()) : null;
+                FieldRecord existing = existingLines != null ? FieldRecord.parse(existingLines) : null;
+                int pendingLikes = 0;
+                int pendingViews = 0;
+                if (existing != null) {
+                    pendingLikes = SongCounterLog.getInstance().getPendingLikes(key);
+                    pendingViews = SongCounterLog.getInstance().getPendingViews(key);
+                    song.setLikes(existing.getInt("Likes", 0) + pendingLikes);
+                    song.setViews(existing.getInt("Views", 0) + pendingViews);
                 }
 
-                if (!songFile.exists() || hasSongChanged(songFile, song)) {
+                if (existing == null || hasSongChanged(songFile, existingLines, existing, song)) {
                     String songArtPath = song.getAlbumArtPath();
                     if (songArtPath == null || !new File(songArtPath).exists()) {
-                        if (album.getAlbumArtPath() != null && new File(album.getAlbumArtPath()).exists()) {
-                            String fileExtension = album.getAlbumArtPath().substring(album.getAlbumArtPath().lastIndexOf("."));
-                            String newArtFile = songDir + "song_art" + fileExtension;
+                        String albumArtPath = album.getAlbumArtPath();
+                        if (albumArtPath != null && new File(albumArtPath).exists()) {
+                            // The songs share the album's blob; older album art is stored once and then shared too
                             try {
-                                Files.copy(Paths.get(album.getAlbumArtPath()), Paths.get(newArtFile), StandardCopyOption.REPLACE_EXISTING);
-                                songArtPath = newArtFile;
+                                songArtPath = BlobStore.isBlob(albumArtPath) ? albumArtPath : BlobStore.getInstance().put(new File(albumArtPath));
                                 song.setAlbumArtPath(songArtPath);
                             } catch (IOException e) {
-                                System.err.println("Failed to copy album art to song directory: " + newArtFile + " - " + e.getMessage());
+                                Log.error("Failed to store album art for song: {} - {}", songDir, e.getMessage());
                             }
                         }
                     }
-                    saveSong(Collections.singletonList(artist.getNickName()), song.getTitle(), album.getTitle(), song.getLyrics(), song.getReleaseDate(), song.getLikes(), song.getViews(), songArtPath);
-                    System.out.println("Saved song: " + song.getTitle() + " in album: " + album.getTitle() + ", Likes: " + song.getLikes() + ", Views: " + song.getViews());
+                    saveSong(Collections.singletonList(artist.getNickName()), song.getTitle(), album.getTitle(), song.getLyrics(), song.getReleaseDate(), song.getLikes(), song.getViews(), songArtPath, existing == null);
+                    SongCounterLog.getInstance().settle(key, pendingViews, pendingLikes);
+                    Log.debug("Saved song: {} in album: {}, Likes: {}, Views: {}", song.getTitle(), album.getTitle(), song.getLikes(), song.getViews());
                 } else {
-                    System.out.println("No changes detected for song: " + song.getTitle() + " in album: " + album.getTitle() + ", skipping save.");
+                    Log.debug("No changes detected for song: {} in album: {}, skipping save.", song.getTitle(), album.getTitle());
                 }
             }
         }
 
-        songCache.put(safeNickName, new ArrayList<>(artist.getSingles()));
-        artist.getAlbums().forEach(album -> songCache.computeIfAbsent(safeNickName, k -> new ArrayList<>()).addAll(album.getSongs()));
+        List<Song> cachedSongs = new ArrayList<>(artist.getSingles());
+        artist.getAlbums().forEach(album -> cachedSongs.addAll(album.getSongs()));
+        songCache.put(safeNickName, cachedSongs);
+        Fingerprints.getInstance().flush();
     }
 
-    private boolean hasSongChanged(File songFile, Song song) {
-        if (!songFile.exists()) return true;
-        List<String> existingData = readFile(songFile.getPath());
-        String existingLyrics = loadLyrics(songFile.getPath());
-        String existingTitle = extractField(existingData, "Song Name: ");
-        String existingReleaseDate = extractField(existingData, "Release Date: ");
-        String existingLikesStr = extractField(existingData, "Likes: ") != null ? extractField(existingData, "Likes: ") : "0";
-        String existingViewsStr = extractField(existingData, "Views: ") != null ? extractField(existingData, "Views: ") : "0";
-        String existingArtPath = extractField(existingData, "SongArtPath: ") != null ? extractField(existingData, "SongArtPath: ") : extractField(existingData, "AlbumArtPath: ");
+    // True if the song's record and lyrics files still hold exactly what saving this song would write, apart from the
+    // counters, which the counter log owns. Only stats the files; a missing or stale fingerprint answers false.
+    private boolean isSongUnchanged(File songFile, String artistNickName, Song song) {
+        // Without art of its own the song's art is resolved while saving, so there is nothing to compare against
+        if (song.getAlbumArtPath() == null) return false;
+        Fingerprints fingerprints = Fingerprints.getInstance();
+        return fingerprints.matches(songFile.getPath().replace(".txt", "_lyrics.txt"), Collections.singletonList(song.getLyrics()))
+                && fingerprints.matches(songFile.getPath(), withoutCounters(songRecordLines(Collections.singletonList(artistNickName),
+                        song.getTitle(), 0, 0, song.getReleaseDate(), song.getAlbumArtPath())));
+    }
 
-        int existingLikes = Integer.parseInt(existingLikesStr);
-        int existingViews = Integer.parseInt(existingViewsStr);
+    private boolean isAlbumUnchanged(File albumFile, Album album) {
+        if (album.getAlbumArtPath() == null) return false;
+        return Fingerprints.getInstance().matches(albumFile.getPath(), albumRecordLines(album.getTitle(), album.getReleaseDate(),
+                album.getSongs().stream().map(Song::getTitle).toList(), album.getAlbumArtPath()));
+    }
 
-        song.setLikes(existingLikes);
-        song.setViews(existingViews);
+    // The song's counters were already set to the file's counters plus what was pending when they were read, so only
+    // the other fields can differ
+    private boolean hasSongChanged(File songFile, List<String> existingLines, FieldRecord existing, Song song) {
+        String existingLyrics = loadLyrics(songFile.getPath());
+        String existingTitle = existing.get("Song Name");
+        String existingReleaseDate = existing.get("Release Date");
+        String existingArtPath = existing.get("SongArtPath", existing.get("AlbumArtPath"));
 
         boolean changed = !song.getTitle().equals(existingTitle) ||
                 !song.getLyrics().equals(existingLyrics != null ? existingLyrics : "") ||
                 !song.getReleaseDate().equals(existingReleaseDate) ||
-                (song.getLikes() != existingLikes) ||
-                (song.getViews() != existingViews) ||
                 (song.getAlbumArtPath() != null && !song.getAlbumArtPath().equals(existingArtPath));
 
         if (changed) {
-            System.out.println("Changes detected for song: " + song.getTitle() + " - Old Likes: " + existingLikes + ", New Likes: " + song.getLikes() +
-                    ", Old Views: " + existingViews + ", New Views: " + song.getViews());
+            Log.debug("Changes detected for song: {} - Likes: {}, Views: {}", song.getTitle(), song.getLikes(), song.getViews());
         } else {
-            System.out.println("No changes detected for song: " + song.getTitle() + " - Existing Likes: " + existingLikes + ", Existing Views: " + existingViews);
+            Log.debug("No changes detected for song: {} - Existing Likes: {}, Existing Views: {}", song.getTitle(), song.getLikes(), song.getViews());
+            // Fingerprint what was just read, so the next save can tell without reading
+            Fingerprints.getInstance().record(songFile.getPath(), withoutCounters(existingLines));
+            if (existingLyrics != null) Fingerprints.getInstance().record(songFile.getPath().replace(".txt", "_lyrics.txt"), Collections.singletonList(existingLyrics));
         }
         return changed;
     }
 
     private boolean hasAlbumChanged(File albumFile, Album album) {
         if (!albumFile.exists()) return true;
-        List<String> existingData = readFile(albumFile.getPath());
-        String existingTitle = extractField(existingData, "Album Title: ");
-        String existingReleaseDate = extractField(existingData, "Release Date: ");
-        String existingSongs = extractField(existingData, "Songs: ");
-        String existingArtPath = extractField(existingData, "AlbumArtPath: ");
+        List<String> existingLines = readFile(albumFile.getPath());
+        FieldRecord existing = FieldRecord.parse(existingLines);
+        String existingTitle = existing.get("Album Title");
+        String existingReleaseDate = existing.get("Release Date");
+        String existingSongs = existing.get("Songs");
+        String existingArtPath = existing.get("AlbumArtPath");
 
         List<String> existingSongTitles = existingSongs != null ? List.of(existingSongs.split(",")) : new ArrayList<>();
         List<String> currentSongTitles = album.getSongs().stream().map(Song::getTitle).toList();
 
-        return !album.getTitle().equals(existingTitle) ||
+        boolean changed = !album.getTitle().equals(existingTitle) ||
                 !album.getReleaseDate().equals(existingReleaseDate) ||
                 !currentSongTitles.equals(existingSongTitles) ||
                 (album.getAlbumArtPath() != null && !album.getAlbumArtPath().equals(existingArtPath));
+        if (!changed) Fingerprints.getInstance().record(albumFile.getPath(), existingLines);
+        return changed;
+    }
+
+    private static List<String> songRecordLines(List<String> artistNickNames, String songTitle, int likes, int views, String releaseDate, String songArtPath) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Song Name: " + songTitle);
+        lines.add("Artists: " + String.join(",", artistNickNames));
+        lines.add("Likes: " + likes);
+        lines.add("Views: " + views);
+        lines.add("Release Date: " + releaseDate);
+        if (songArtPath != null && !songArtPath.isEmpty()) {
+            lines.add("SongArtPath: " + songArtPath);
+        }
+        return lines;
+    }
+
+    private static List<String> withoutCounters(List<String> songRecordLines) {
+        return songRecordLines.stream().filter(line -> !line.startsWith("Likes: ") && !line.startsWith("Views: ")).toList();
+    }
+
+    private static List<String> albumRecordLines(String albumTitle, String releaseDate, List<String> songTitles, String albumArtPath) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Album Title: " + albumTitle);
+        lines.add("Release Date: " + releaseDate);
+        lines.add("Songs: " + (songTitles != null ? songTitles.stream().distinct().collect(Collectors.joining(",")) : ""));
+        if (albumArtPath != null && !albumArtPath.isEmpty()) {
+            lines.add("AlbumArtPath: " + albumArtPath);
+        }
+        return lines;
     }
 
     public List<String> listDirectories(String path) {
@@ -256,19 +346,23 @@ public class SongFileManager extends FileManager {
     }
 
     public String loadLyrics(String metaFilePath) {
-        String lyricsFilePath = metaFilePath.replace(".txt", "_lyrics.txt");
-        System.out.println("Checking lyrics file: " + lyricsFilePath);
+        return CatalogCaches.lyrics(metaFilePath.replace(".txt", "_lyrics.txt"), this::readLyricsFile);
+    }
+
+    private String readLyricsFile(String lyricsFilePath) {
+        Log.debug("Checking lyrics file: {}", lyricsFilePath);
         if (Files.exists(Paths.get(lyricsFilePath))) {
             List<String> lyricsLines = readFile(lyricsFilePath);
-            System.out.println("Lines read from lyrics file: " + lyricsLines);
+            Log.debug("Lines read from lyrics file: {}", lyricsLines);
             String lyrics = String.join("\n", lyricsLines).trim();
             return lyrics.isEmpty() ? null : lyrics;
         }
-        System.out.println("Lyrics file does not exist: " + lyricsFilePath);
+        Log.debug("Lyrics file does not exist: {}", lyricsFilePath);
         return null;
     }
 
-    public synchronized void saveSong(List<String> artistNickNames, String songTitle, String albumName, String lyrics, String releaseDate, int likes, int views, String songArtPath) {
+    // newRelease is set by the paths that create a song; edits, renames and re-saves leave followers' feeds alone
+    public synchronized void saveSong(List<String> artistNickNames, String songTitle, String albumName, String lyrics, String releaseDate, int likes, int views, String songArtPath, boolean newRelease) {
         if (artistNickNames == null || artistNickNames.isEmpty()) throw new IllegalArgumentException("Artist nicknames list cannot be null or empty");
         if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
         if (lyrics == null) throw new IllegalArgumentException("Lyrics cannot be null");
@@ -283,8 +377,9 @@ public class SongFileManager extends FileManager {
                 : FileUtil.DATA_DIR + "artists/" + artistNickName + "/albums/";
         File alternateDir = new File(alternatePath + songTitle + "/" + songTitle + ".txt");
         if (alternateDir.exists()) {
-            System.err.println("Warning: Song found in alternate path, deleting: " + alternateDir.getPath());
+            Log.warn("Song found in alternate path, deleting: {}", alternateDir.getPath());
             FileUtil.deleteDirectory(alternateDir.getParentFile());
+            BlobStore.getInstance().releaseUnder(alternateDir.getParent());
         }
 
         String safeSongTitle = sanitizeFileName(songTitle);
@@ -299,26 +394,22 @@ public class SongFileManager extends FileManager {
             for (File oldFile : existingFiles) {
                 try {
                     Files.deleteIfExists(oldFile.toPath());
-                    System.out.println("Deleted old file: " + oldFile.getPath());
+                    BlobStore.getInstance().release(oldFile.getPath());
+                    Fingerprints.getInstance().forget(oldFile.getPath());
+                    Log.debug("Deleted old file: {}", oldFile.getPath());
                 } catch (IOException e) {
-                    System.err.println("Failed to delete old file: " + oldFile.getPath() + " - " + e.getMessage());
+                    Log.error("Failed to delete old file: {} - {}", oldFile.getPath(), e.getMessage());
                 }
             }
         }
 
-        List<String> songData = new ArrayList<>();
-        songData.add("Song Name: " + songTitle);
-        songData.add("Artists: " + String.join(",", artistNickNames));
-        songData.add("Likes: " + likes);
-        songData.add("Views: " + views);
-        songData.add("Release Date: " + releaseDate);
-        if (songArtPath != null && !songArtPath.isEmpty()) {
-            songData.add("SongArtPath: " + songArtPath);
-        }
+        List<String> songData = songRecordLines(artistNickNames, songTitle, likes, views, releaseDate, songArtPath);
 
-        System.out.println("Saving song with Likes: " + likes + ", Views: " + views + ", ArtPath: " + songArtPath + ", Path: " + songDir);
-        writeFile(songDir + safeSongTitle + ".txt", songData);
-        writeFile(songDir + safeSongTitle + "_lyrics.txt", Collections.singletonList(lyrics));
+        Log.debug("Saving song with Likes: {}, Views: {}, ArtPath: {}, Path: {}", likes, views, songArtPath, songDir);
+        // Metadata, lyrics and the album's track list are committed together
+        Map<String, List<String>> files = new LinkedHashMap<>();
+        files.put(songDir + safeSongTitle + ".txt", songData);
+        files.put(songDir + safeSongTitle + "_lyrics.txt", Collections.singletonList(lyrics));
 
         if (albumName != null && !albumName.isEmpty()) {
             String albumDir = getAlbumDir(artistNickName, albumName);
@@ -351,13 +442,29 @@ public class SongFileManager extends FileManager {
                 updatedAlbumData.add("Songs: " + songTitle);
             }
 
-            writeFile(albumFilePath, updatedAlbumData);
-            System.out.println("Updated album.txt with songs: " + String.join(",", existingSongs));
+            files.put(albumFilePath, updatedAlbumData);
+            Log.debug("Updating album.txt with songs: {}", existingSongs);
         }
-
-        List<Song> songs = songCache.getOrDefault(artistNickName, new ArrayList<>());
-        songs.add(new Song(songTitle, lyrics, releaseDate));
-        songCache.put(artistNickName, songs);
+        writeFiles(files);
+        String metaFilePath = songDir + safeSongTitle + ".txt";
+        files.forEach((path, content) -> Fingerprints.getInstance().record(path, path.equals(metaFilePath) ? withoutCounters(content) : content));
+        BlobStore.getInstance().reference(metaFilePath, songArtPath);
+        if (BlobStore.isBlob(songArtPath)) deleteLegacyArt(songDir, "song_art");
+        CatalogCaches.invalidateSongRecord(songDir + safeSongTitle + ".txt");
+        CatalogCaches.invalidateLyrics(songDir + safeSongTitle + "_lyrics.txt");
+
+        Song cachedSong = new Song(songTitle, "", releaseDate);
+        cachedSong.setLyricsLoader(() -> loadLyrics(metaFilePath));
+        songCache.compute(artistNickName, (k, songs) -> {
+            List<Song> updated = songs != null ? new ArrayList<>(songs) : new ArrayList<>();
+            updated.add(cachedSong);
+            return updated;
+        });
+
+        SongDTO savedSong = new SongDTO(songTitle, artistNickName, normalizeAlbumName(albumName), views, likes,
+                songDir + safeSongTitle + ".txt", releaseDate, songArtPath);
+        notifyListeners(listener -> listener.songSaved(savedSong));
+        if (newRelease) ReleaseFeed.getInstance().publish(artistNickName, normalizeAlbumName(albumName), songTitle, releaseDate);
     }
 
     public synchronized void saveAlbum(String artistNickName, String albumTitle, String releaseDate, List<String> songTitles, String albumArtPath) {
@@ -371,17 +478,7 @@ public class SongFileManager extends FileManager {
         String albumFilePath = albumDir + "album.txt";
         File albumFile = new File(albumFilePath);
 
-        List<String> updatedData = new ArrayList<>();
-        updatedData.add("Album Title: " + albumTitle);
-        updatedData.add("Release Date: " + releaseDate);
-        if (songTitles != null && !songTitles.isEmpty()) {
-            updatedData.add("Songs: " + songTitles.stream().distinct().collect(Collectors.joining(",")));
-        } else {
-            updatedData.add("Songs: ");
-        }
-        if (albumArtPath != null && !albumArtPath.isEmpty()) {
-            updatedData.add("AlbumArtPath: " + albumArtPath);
-        }
+        List<String> updatedData = albumRecordLines(albumTitle, releaseDate, songTitles, albumArtPath);
 
         try {
             File parentDir = albumFile.getParentFile();
@@ -391,9 +488,11 @@ public class SongFileManager extends FileManager {
             }
             if (!albumFile.exists() && !albumFile.createNewFile()) throw new IOException("Failed to create album file: " + albumFilePath);
             writeFile(albumFilePath, updatedData);
-            System.out.println("Successfully created/updated album file: " + albumFilePath);
+            Fingerprints.getInstance().record(albumFilePath, updatedData);
+            BlobStore.getInstance().reference(albumFilePath, albumArtPath);
+            Log.debug("Successfully created/updated album file: {}", albumFilePath);
         } catch (IOException e) {
-            System.err.println("Error creating album file: " + albumFilePath + " - " + e.getMessage());
+            Log.error("Error creating album file: {} - {}", albumFilePath, e.getMessage());
             e.printStackTrace();
             throw new IllegalStateException("Failed to create album file: " + albumFilePath, e);
         }
@@ -412,20 +511,11 @@ public class SongFileManager extends FileManager {
         String albumDir = getAlbumDir(artistNickName, albumTitle);
         ensureDataDirectoryExists(albumDir);
 
-        File albumDirFile = new File(albumDir);
-        File[] existingArtFiles = albumDirFile.listFiles((dir, name) -> name.startsWith("album_art."));
-        if (existingArtFiles != null) {
-            for (File oldArtFile : existingArtFiles) {
-                if (oldArtFile.exists()) oldArtFile.delete();
-            }
-        }
-
-        String fileExtension = imageFile.getName().substring(imageFile.getName().lastIndexOf("."));
-        String artFile = albumDir + "album_art" + fileExtension;
+        String artFile;
         try {
-            Files.copy(imageFile.toPath(), Paths.get(artFile), StandardCopyOption.REPLACE_EXISTING);
+            artFile = BlobStore.getInstance().put(imageFile);
         } catch (IOException e) {
-            System.err.println("Failed to copy album art to: " + artFile + " - " + e.getMessage());
+            Log.error("Failed to store album art for: {} - {}", albumDir, e.getMessage());
             throw new IOException("Unable to save album art: " + e.getMessage(), e);
         }
 
@@ -440,18 +530,16 @@ public class SongFileManager extends FileManager {
             }
         }
 
-        List<String> updatedData = new ArrayList<>();
-        updatedData.add("Album Title: " + albumTitle);
-        updatedData.add("Release Date: " + releaseDate);
-        updatedData.add("Songs: " + existingSongs.stream().distinct().collect(Collectors.joining(",")));
-        updatedData.add("AlbumArtPath: " + artFile);
-
+        List<String> updatedData = albumRecordLines(albumTitle, releaseDate, existingSongs, artFile);
         writeFile(albumFile.getPath(), updatedData);
-        System.out.println("Saved album art to: " + artFile);
+        Fingerprints.getInstance().record(albumFile.getPath(), updatedData);
+        BlobStore.getInstance().reference(albumFile.getPath(), artFile);
+        deleteLegacyArt(albumDir, "album_art");
+        Log.debug("Saved album art to: {}", artFile);
         return artFile;
     }
 
-    public synchronized void addComment(String artistNickName, String songTitle, String albumName, String commentText, String user) {
+    public void addComment(String artistNickName, String songTitle, String albumName, String commentText, String user) {
         if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
         if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
         if (commentText == null || commentText.isEmpty()) throw new IllegalArgumentException("Comment text cannot be null or empty");
@@ -461,12 +549,11 @@ public class SongFileManager extends FileManager {
         ensureDataDirectoryExists(songDir);
 
         String commentsFile = songDir + sanitizeFileName(songTitle) + "-comments.txt";
-        List<Comment> comments = Files.exists(Paths.get(commentsFile)) ? loadComments(artistNickName, songTitle, albumName) : new ArrayList<>();
-        comments.add(new Comment(user, commentText));
-        writeFile(commentsFile, comments.stream().map(Comment::toString).collect(Collectors.toList()));
+        CommentLog.append(commentsFile, CommentCodec.encode(new Comment(user, commentText)));
+        CatalogCaches.invalidateComments(commentsFile);
     }
 
-    public synchronized void addAlbumComment(String artistNickName, String albumName, String commentText, String user) {
+    public void addAlbumComment(String artistNickName, String albumName, String commentText, String user) {
         if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
         if (albumName == null || albumName.isEmpty()) throw new IllegalArgumentException("Album name cannot be null or empty");
         if (commentText == null || commentText.isEmpty()) throw new IllegalArgumentException("Comment text cannot be null or empty");
@@ -476,45 +563,102 @@ public class SongFileManager extends FileManager {
         ensureDataDirectoryExists(albumDir);
 
         String commentsFile = albumDir + sanitizeFileName(albumName) + "-album-comments.txt";
-        List<Comment> comments = Files.exists(Paths.get(commentsFile)) ? loadAlbumComments(artistNickName, albumName) : new ArrayList<>();
-        comments.add(new Comment(user, commentText));
-        writeFile(commentsFile, comments.stream().map(Comment::toString).collect(Collectors.toList()));
+        CommentLog.append(commentsFile, CommentCodec.encode(new Comment(user, commentText)));
+        CatalogCaches.invalidateComments(commentsFile);
     }
 
-    public synchronized List<Comment> loadComments(String artistNickName, String songTitle, String albumName) {
+    public List<Comment> loadComments(String artistNickName, String songTitle, String albumName) {
         if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
         if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
 
         String songDir = getSongDir(artistNickName, songTitle, albumName);
         String commentsFile = songDir + sanitizeFileName(songTitle) + "-comments.txt";
-        return Files.exists(Paths.get(commentsFile))
-                ? readFile(commentsFile).stream()
-                .map(line -> {
-                    String[] parts = line.split(" \\| ");
-                    if (parts.length != 3) throw new IllegalStateException("Invalid comment format in file: " + commentsFile + ", line: " + line);
-                    return new Comment(parts[0].substring("User: ".length()), parts[2].substring("Comment: ".length()), LocalDateTime.parse(parts[1].substring("Time: ".length()), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                })
-                .collect(Collectors.toList())
-                : new ArrayList<>();
+        return new ArrayList<>(CatalogCaches.comments(commentsFile, this::readCommentsFile));
     }
 
-    public synchronized List<Comment> loadAlbumComments(String artistNickName, String albumName) {
+    public List<Comment> loadAlbumComments(String artistNickName, String albumName) {
         if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
         if (albumName == null || albumName.isEmpty()) throw new IllegalArgumentException("Album name cannot be null or empty");
 
         String albumDir = getAlbumDir(artistNickName, albumName);
         String commentsFile = albumDir + sanitizeFileName(albumName) + "-album-comments.txt";
+        return new ArrayList<>(CatalogCaches.comments(commentsFile, this::readCommentsFile));
+    }
+
+    // One page of a song's comments, newest first; only the requested lines are read from disk
+    public List<Comment> loadComments(String artistNickName, String songTitle, String albumName, int offset, int limit) {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
+
+        String songDir = getSongDir(artistNickName, songTitle, albumName);
+        String commentsFile = songDir + sanitizeFileName(songTitle) + "-comments.txt";
+        return loadCommentPage(commentsFile, offset, limit);
+    }
+
+    public List<Comment> loadAlbumComments(String artistNickName, String albumName, int offset, int limit) {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (albumName == null || albumName.isEmpty()) throw new IllegalArgumentException("Album name cannot be null or empty");
+
+        String albumDir = getAlbumDir(artistNickName, albumName);
+        String commentsFile = albumDir + sanitizeFileName(albumName) + "-album-comments.txt";
+        return loadCommentPage(commentsFile, offset, limit);
+    }
+
+    public int countComments(String artistNickName, String songTitle, String albumName) {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (songTitle == null || songTitle.isEmpty()) throw new IllegalArgumentException("Song title cannot be null or empty");
+
+        String songDir = getSongDir(artistNickName, songTitle, albumName);
+        return CommentLog.count(songDir + sanitizeFileName(songTitle) + "-comments.txt");
+    }
+
+    public int countAlbumComments(String artistNickName, String albumName) {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (albumName == null || albumName.isEmpty()) throw new IllegalArgumentException("Album name cannot be null or empty");
+
+        String albumDir = getAlbumDir(artistNickName, albumName);
+        return CommentLog.count(albumDir + sanitizeFileName(albumName) + "-album-comments.txt");
+    }
+
+    private List<Comment> loadCommentPage(String commentsFile, int offset, int limit) {
+        if (offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+        return new ArrayList<>(CatalogCaches.commentPage(commentsFile, offset, limit,
+                file -> CommentLog.readNewestFirst(file, offset, limit).stream()
+                        .map(line -> parseComment(file, line))
+                        .collect(Collectors.toList())));
+    }
+
+    private List<Comment> readCommentsFile(String commentsFile) {
         return Files.exists(Paths.get(commentsFile))
                 ? readFile(commentsFile).stream()
-                .map(line -> {
-                    String[] parts = line.split(" \\| ");
-                    if (parts.length != 3) throw new IllegalStateException("Invalid comment format in file: " + commentsFile + ", line: " + line);
-                    return new Comment(parts[0].substring("User: ".length()), parts[2].substring("Comment: ".length()), LocalDateTime.parse(parts[1].substring("Time: ".length()), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                })
+                .map(line -> parseComment(commentsFile, line))
                 .collect(Collectors.toList())
                 : new ArrayList<>();
     }
 
+    private static Comment parseComment(String commentsFile, String line) {
+        try {
+            return CommentCodec.decode(line);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid comment format in file: " + commentsFile + ", line: " + line, e);
+        }
+    }
+
+    // Parsed metadata of a song, served from memory until the file is written again
+    public FieldRecord loadSongRecord(String metaFilePath) {
+        if (metaFilePath == null || metaFilePath.trim().isEmpty()) throw new IllegalArgumentException("Meta file path cannot be null or empty");
+        return CatalogCaches.songRecord(metaFilePath, FieldRecord::read);
+    }
+
+    public static List<BoundedCache.Stats> getCacheStats() {
+        return CatalogCaches.stats();
+    }
+
+    public static void clearCaches() {
+        CatalogCaches.clear();
+    }
+
     public void loadSongsAndAlbumsForArtist(Artist artist, ArtistFileManager artistFileManager) {
         if (artist == null) throw new IllegalArgumentException("Artist cannot be null");
         if (artistFileManager == null) throw new IllegalArgumentException("ArtistFileManager cannot be null");
@@ -523,11 +667,11 @@ public class SongFileManager extends FileManager {
         String artistDir = DATA_DIR + "artists/" + safeNickName + "/";
         File artistDirFile = new File(artistDir);
         if (!artistDirFile.exists()) {
-            System.out.println("Artist directory does not exist: " + artistDir);
+            Log.debug("Artist directory does not exist: {}", artistDir);
             return;
         }
 
-        System.out.println("Loading songs and albums for artist: " + safeNickName);
+        Log.debug("Loading songs and albums for artist: {}", safeNickName);
 
         List<Song> loadedSingles = new ArrayList<>();
         List<Album> loadedAlbums = new ArrayList<>();
@@ -540,22 +684,22 @@ public class SongFileManager extends FileManager {
                         String songTitle = songFolder.getFileName().toString();
                         File songFile = new File(songFolder.toFile(), songTitle + ".txt");
                         if (songFile.exists()) {
-                            List<String> songData = readFile(songFile.getPath());
-                            System.out.println("Raw song data for single " + songTitle + ": " + songData);
-                            String lyrics = loadLyrics(songFile.getPath());
-                            Song song = parseSongFromFile(songData, null, lyrics, artist);
-                            System.out.println("Loaded single: " + song.getTitle() + ", Likes: " + song.getLikes() + ", Views: " + song.getViews());
+                            FieldRecord songData = loadSongRecord(songFile.getPath());
+                            Log.debug("Raw song data for single {}: {}", songTitle, songData);
+                            Song song = parseSongFromRecord(songData, null, null, artist);
+                            song.setLyricsLoader(() -> loadLyrics(songFile.getPath()));
+                            Log.debug("Loaded single: {}, Likes: {}, Views: {}", song.getTitle(), song.getLikes(), song.getViews());
                             loadedSingles.add(song);
                         } else {
-                            System.out.println("Meta file not found for single: " + songTitle);
+                            Log.debug("Meta file not found for single: {}", songTitle);
                         }
                     } catch (Exception e) {
-                        System.err.println("Error processing single song folder " + songFolder + ": " + e.getMessage());
+                        Log.error("Error processing single song folder {}: {}", songFolder, e.getMessage());
                         e.printStackTrace();
                     }
                 });
             } catch (IOException e) {
-                System.err.println("Failed to process singles directory: " + singlesDir + " - " + e.getMessage());
+                Log.error("Failed to process singles directory: {} - {}", singlesDir, e.getMessage());
                 e.printStackTrace();
             }
         }
@@ -569,7 +713,7 @@ public class SongFileManager extends FileManager {
                         String albumFilePath = albumFolder + "/album.txt";
                         File albumFile = new File(albumFilePath);
                         if (!albumFile.exists()) {
-                            System.out.println("Album file not found: " + albumFilePath);
+                            Log.debug("Album file not found: {}", albumFilePath);
                             return;
                         }
                         String releaseDate = "Not set";
@@ -593,25 +737,25 @@ public class SongFileManager extends FileManager {
                                 String songTitle = songFolder.getFileName().toString();
                                 File songFile = new File(songFolder.toFile(), songTitle + ".txt");
                                 if (songFile.exists()) {
-                                    List<String> songData = readFile(songFile.getPath());
-                                    System.out.println("Raw song data for song " + songTitle + " in album " + albumTitle + ": " + songData);
-                                    String lyrics = loadLyrics(songFile.getPath());
-                                    Song song = parseSongFromFile(songData, album, lyrics, artist);
-                                    System.out.println("Loaded song: " + song.getTitle() + " in album: " + albumTitle + ", Likes: " + song.getLikes() + ", Views: " + song.getViews());
+                                    FieldRecord songData = loadSongRecord(songFile.getPath());
+                                    Log.debug("Raw song data for song {} in album {}: {}", songTitle, albumTitle, songData);
+                                    Song song = parseSongFromRecord(songData, album, null, artist);
+                                    song.setLyricsLoader(() -> loadLyrics(songFile.getPath()));
+                                    Log.debug("Loaded song: {} in album: {}, Likes: {}, Views: {}", song.getTitle(), albumTitle, song.getLikes(), song.getViews());
                                     album.addSong(song);
                                 } else {
-                                    System.out.println("Meta file not found for song: " + songTitle + " in album: " + albumTitle);
+                                    Log.debug("Meta file not found for song: {} in album: {}", songTitle, albumTitle);
                                 }
                             });
                         }
                         loadedAlbums.add(album);
                     } catch (Exception e) {
-                        System.err.println("Error processing album folder " + albumFolder + ": " + e.getMessage());
+                        Log.error("Error processing album folder {}: {}", albumFolder, e.getMessage());
                         e.printStackTrace();
                     }
                 });
             } catch (IOException e) {
-                System.err.println("Failed to process albums directory: " + albumsDir + " - " + e.getMessage());
+                Log.error("Failed to process albums directory: {} - {}", albumsDir, e.getMessage());
                 e.printStackTrace();
             }
         }
@@ -621,10 +765,20 @@ public class SongFileManager extends FileManager {
         artist.clearAlbums();
         loadedAlbums.forEach(artist::addAlbum);
 
-        System.out.println("Total singles loaded: " + loadedSingles.size());
-        System.out.println("Total albums loaded: " + loadedAlbums.size());
-        songCache.put(safeNickName, new ArrayList<>(loadedSingles));
-        loadedAlbums.forEach(album -> songCache.computeIfAbsent(safeNickName, k -> new ArrayList<>()).addAll(album.getSongs()));
+        Log.debug("Total singles loaded: {}", loadedSingles.size());
+        Log.debug("Total albums loaded: {}", loadedAlbums.size());
+        List<Song> cachedSongs = new ArrayList<>(loadedSingles);
+        loadedAlbums.forEach(album -> cachedSongs.addAll(album.getSongs()));
+        songCache.put(safeNickName, cachedSongs);
+    }
+
+    // Art copies kept in the record's own directory before art moved to the blob store, with their thumbnails
+    private void deleteLegacyArt(String dir, String baseName) {
+        File[] legacyArt = new File(dir).listFiles((d, name) -> name.startsWith(baseName + ".") || name.equals(baseName + "_thumb.png"));
+        if (legacyArt == null) return;
+        for (File file : legacyArt) {
+            if (file.delete()) Log.debug("Deleted legacy art file: {}", file.getPath());
+        }
     }
 
     private void deleteEntity(String artistNickName, String entityName, String albumName, boolean isAlbum) {
@@ -651,18 +805,23 @@ public class SongFileManager extends FileManager {
             File commentsFileObj = new File(commentsFile);
             if (commentsFileObj.exists()) {
                 try {
-                    Files.delete(commentsFileObj.toPath());
-                    System.out.println("Deleted album comments file: " + commentsFile);
+                    CommentLog.delete(commentsFile);
+                    Log.debug("Deleted album comments file: {}", commentsFile);
                 } catch (IOException e) {
-                    System.err.println("Failed to delete album comments file: " + commentsFile + " - " + e.getMessage());
+                    Log.error("Failed to delete album comments file: {} - {}", commentsFile, e.getMessage());
                 }
             }
         }
 
-        if (FileUtil.deleteDirectory(dirFile) && artPath != null && !artPath.isEmpty()) {
+        if (FileUtil.deleteDirectory(dirFile) && artPath != null && !artPath.isEmpty() && !BlobStore.isBlob(artPath)) {
             File artFile = new File(artPath);
             if (artFile.exists()) artFile.delete();
         }
+        // Blobs are shared, so they go only once no record points at them any more
+        BlobStore.getInstance().releaseUnder(dir);
+        BlobStore.getInstance().collectGarbage();
+        Fingerprints.getInstance().forgetUnder(dir);
+        CatalogCaches.invalidateDirectory(dir);
 
         if (!isAlbum && albumName != null && !albumName.isEmpty()) {
             File albumFile = new File(getAlbumDir(artistNickName, albumName) + "album.txt");
@@ -673,12 +832,27 @@ public class SongFileManager extends FileManager {
                                 ? "Songs: " + String.join(",", Stream.of(line.substring("Songs: ".length()).split(",")).filter(t -> !t.equals(entityName)).toList())
                                 : line)
                         .collect(Collectors.toList());
-                readAndUpdateFile(albumFile.getPath(), updatedData);
+                writeFile(albumFile.getPath(), updatedData);
+                Fingerprints.getInstance().record(albumFile.getPath(), updatedData);
             }
         }
 
         String artistSafeNickName = sanitizeFileName(artistNickName);
         songCache.remove(artistSafeNickName);
+
+        if (isAlbum) {
+            SongCounterLog.getInstance().settleAlbum(artistNickName, entityName);
+        } else {
+            SongCounterLog.getInstance().settle(new SongKey(artistNickName, albumName, entityName));
+        }
+
+        if (isAlbum) {
+            ReleaseFeed.getInstance().retractAlbum(artistNickName, entityName);
+            notifyListeners(listener -> listener.albumDeleted(artistNickName, entityName));
+        } else {
+            ReleaseFeed.getInstance().retractSong(artistNickName, normalizeAlbumName(albumName), entityName);
+            notifyListeners(listener -> listener.songDeleted(artistNickName, normalizeAlbumName(albumName), entityName));
+        }
     }
 
     public synchronized void deleteSong(String artistNickName, String songTitle, String albumName) {
@@ -689,22 +863,63 @@ public class SongFileManager extends FileManager {
         deleteEntity(artistNickName, albumTitle, null, true);
     }
 
+    // Moves the song's directory to its new title; the caller then saves it under that title. Listeners see the old
+    // title deleted here and the new one arrive with that save.
+    public synchronized void renameSong(String artistNickName, String albumName, String oldTitle, String newTitle) throws IOException {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (oldTitle == null || oldTitle.isEmpty() || newTitle == null || newTitle.isEmpty()) throw new IllegalArgumentException("Song titles cannot be null or empty");
+
+        String newDir = getSongDir(artistNickName, newTitle, albumName);
+        if (new File(newDir).exists()) deleteSong(artistNickName, newTitle, albumName);
+        moveDirectory(getSongDir(artistNickName, oldTitle, albumName), newDir);
+        SongCounterLog.getInstance().rename(new SongKey(artistNickName, albumName, oldTitle), new SongKey(artistNickName, albumName, newTitle));
+        ReleaseFeed.getInstance().renameSong(artistNickName, normalizeAlbumName(albumName), oldTitle, newTitle);
+        notifyListeners(listener -> listener.songDeleted(artistNickName, normalizeAlbumName(albumName), oldTitle));
+    }
+
+    // Moves the album's directory, songs included, to its new title; the caller then saves the album and its songs
+    // under that title
+    public synchronized void renameAlbum(String artistNickName, String oldTitle, String newTitle) throws IOException {
+        if (artistNickName == null || artistNickName.isEmpty()) throw new IllegalArgumentException("Artist nickname cannot be null or empty");
+        if (oldTitle == null || oldTitle.isEmpty() || newTitle == null || newTitle.isEmpty()) throw new IllegalArgumentException("Album titles cannot be null or empty");
+
+        String newDir = getAlbumDir(artistNickName, newTitle);
+        if (new File(newDir).exists()) deleteAlbum(artistNickName, newTitle);
+        moveDirectory(getAlbumDir(artistNickName, oldTitle), newDir);
+        SongCounterLog.getInstance().renameAlbum(artistNickName, oldTitle, newTitle);
+        ReleaseFeed.getInstance().renameAlbum(artistNickName, oldTitle, newTitle);
+        notifyListeners(listener -> listener.albumDeleted(artistNickName, oldTitle));
+    }
+
+    private void moveDirectory(String oldDir, String newDir) throws IOException {
+        FileUtil.renameDirectory(new File(oldDir), new File(newDir));
+        Fingerprints.getInstance().forgetUnder(oldDir);
+        CatalogCaches.invalidateDirectory(oldDir);
+    }
+
     public Song parseSongFromFile(List<String> songData, Album album, String lyrics, Artist artist) {
         if (songData == null) throw new IllegalArgumentException("Song data cannot be null");
-        String title = extractField(songData, "Song Name: ");
-        if (title == null) throw new IllegalStateException("Failed to parse song: Song title is missing in data: " + songData);
-
-        String releaseDate = extractField(songData, "Release Date: ");
-        String likesStr = extractField(songData, "Likes: ");
-        String viewsStr = extractField(songData, "Views: ");
-        String songArtPath = extractField(songData, "SongArtPath: ");
-        String albumArtPath = extractField(songData, "AlbumArtPath: ");
+        return parseSongFromRecord(FieldRecord.parse(songData), album, lyrics, artist);
+    }
 
-        int likes = likesStr != null ? Integer.parseInt(likesStr) : 0;
-        int views = viewsStr != null ? Integer.parseInt(viewsStr) : 0;
+    public Song parseSongFromRecord(FieldRecord fields, Album album, String lyrics, Artist artist) {
+        if (fields == null) throw new IllegalArgumentException("Song data cannot be null");
+        String title = fields.get("Song Name");
+        if (title == null) throw new IllegalStateException("Failed to parse song: Song title is missing in data: " + fields);
+
+        String releaseDate = fields.get("Release Date");
+        String songArtPath = fields.get("SongArtPath");
+        String albumArtPath = fields.get("AlbumArtPath");
+
+        int likes = fields.getInt("Likes", 0);
+        int views = fields.getInt("Views", 0);
+        if (artist != null) {
+            SongKey key = new SongKey(artist.getNickName(), album != null ? album.getTitle() : null, title);
+            likes += SongCounterLog.getInstance().getPendingLikes(key);
+            views += SongCounterLog.getInstance().getPendingViews(key);
+        }
 
-        System.out.println("Parsing song - Title: " + title + ", ReleaseDate: " + releaseDate + ", Likes: " + likes + ", Views: " + views +
-                ", SongArtPath: " + songArtPath + ", AlbumArtPath: " + albumArtPath);
+        Log.debug("Parsing song - Title: {}, ReleaseDate: {}, Likes: {}, Views: {}, SongArtPath: {}, AlbumArtPath: {}", title, releaseDate, likes, views, songArtPath, albumArtPath);
 
         Song song = new Song(title, lyrics != null ? lyrics : "", releaseDate != null ? releaseDate : "Not set");
         song.addArtist(artist);
@@ -718,4 +933,12 @@ public class SongFileManager extends FileManager {
     public void clearCache() {
         songCache.clear();
     }
+
+    // Cached songs read their lyrics and record through CatalogCaches, so dropping this song's entries is enough
+    public void invalidateSong(SongKey song) {
+        if (song == null) throw new IllegalArgumentException("Song cannot be null");
+        String songDir = getSongDir(song.artistName(), song.title(), song.albumName());
+        CatalogCaches.invalidateSongRecord(songDir + song.title() + ".txt");
+        CatalogCaches.invalidateLyrics(songDir + song.title() + "_lyrics.txt");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package services.file;
+
+import utils.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+
+// Downscaled PNG copies of uploaded art and avatars, stored next to the original as "<name>_thumb.png", so pages
+// can show a small image without decoding a full-resolution upload. A thumbnail older than its original is stale.
+public final class Thumbnails {
+    // Longest side; every image view in the app is smaller than this
+    public static final int SIZE = 400;
+    private static final String SUFFIX = "_thumb.png";
+
+    private Thumbnails() {}
+
+    public static String pathFor(String imagePath) {
+        if (imagePath == null || imagePath.trim().isEmpty()) throw new IllegalArgumentException("Image path cannot be null or empty");
+        File image = new File(imagePath);
+        String name = image.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(image.getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + SUFFIX).getPath();
+    }
+
+    // The thumbnail to show instead of imagePath, or null if there is none or it is out of date
+    public static String freshThumbnail(String imagePath) {
+        File image = new File(imagePath);
+        File thumbnail = new File(pathFor(imagePath));
+        return thumbnail.isFile() && thumbnail.lastModified() >= image.lastModified() ? thumbnail.getPath() : null;
+    }
+
+    // Best effort: formats ImageIO can't read and images already small enough get no thumbnail
+    public static boolean generate(String imagePath) {
+        if (imagePath == null || imagePath.trim().isEmpty()) throw new IllegalArgumentException("Image path cannot be null or empty");
+        Path thumbnail = Paths.get(pathFor(imagePath));
+        try {
+            Files.deleteIfExists(thumbnail);
+            BufferedImage original = ImageIO.read(new File(imagePath));
+            if (original == null) {
+                Log.warn("No thumbnail for {}: unsupported image format", imagePath);
+                return false;
+            }
+            if (original.getWidth() <= SIZE && original.getHeight() <= SIZE) return false;
+
+            BufferedImage scaled = downscale(original);
+            Path temp = thumbnail.resolveSibling(thumbnail.getFileName() + ".tmp");
+            if (!ImageIO.write(scaled, "png", temp.toFile())) {
+                Log.warn("No thumbnail for {}: no PNG writer", imagePath);
+                return false;
+            }
+            try {
+                Files.move(temp, thumbnail, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, thumbnail, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Log.debug("Saved {}x{} thumbnail to: {}", scaled.getWidth(), scaled.getHeight(), thumbnail);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.warn("Failed to create thumbnail for {}: {}", imagePath, e.getMessage());
+            return false;
+        }
+    }
+
+    // Halves the image until the last step, which keeps bilinear filtering from dropping detail on large reductions
+    private static BufferedImage downscale(BufferedImage original) {
+        double scale = Math.min((double) SIZE / original.getWidth(), (double) SIZE / original.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        BufferedImage current = original;
+        int width = original.getWidth();
+        int height = original.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+}
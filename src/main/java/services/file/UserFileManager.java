@@ -1,23 +1,22 @@
 package services.file;
 
+import models.DTO.ReleaseDTO;
 import models.account.Account;
 import models.account.User;
-import models.account.Artist;
+import utils.Log;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 
 import static utils.FileUtil.*;
 
 public class UserFileManager extends FileManager {
     private static final String USERS_DIR = DATA_DIR + "users/";
     private static final String FOLLOWINGS_FILE_NAME = "followings.txt";
-    private static final String FOLLOWING_PREFIX = "Following:";
 
-    private Map<String, User> userMapCache;
+    private volatile Map<String, User> userMapCache;
 
     @Override
     public synchronized void saveAccount(Account account) {
@@ -35,77 +34,47 @@ public class UserFileManager extends FileManager {
             super.saveAccount(account);
             String userDir = getUserDir(account.getNickName());
             ensureDataDirectoryExists(userDir);
-            saveFollowingArtists(account.getNickName(), new ArrayList<>());
+            if (account instanceof User user) cacheUser(user);
         } catch (Exception e) {
-            System.err.println("Failed to save account for user: " + account.getNickName() + ", error: " + e.getMessage());
+            Log.error("Failed to save account for user: {}, error: {}", account.getNickName(), e.getMessage());
             throw new RuntimeException("Failed to save account", e);
         }
     }
 
-    public synchronized void saveFollowingArtists(String nickName, List<Artist> followingArtists) {
+    // Returns false if the user already followed the artist
+    public boolean followArtist(String nickName, String artistNickName) {
         validateInput(nickName, "Nickname");
-        if (followingArtists == null) {
-            throw new IllegalArgumentException("Following artists list cannot be null");
-        }
+        validateInput(artistNickName, "Artist nickname");
+        if (!FollowGraph.getInstance().follow(nickName, artistNickName)) return false;
+        ReleaseFeed.getInstance().followed(nickName, artistNickName);
+        return true;
+    }
 
-        try {
-            String filePath = getFollowingsFilePath(nickName);
-            List<String> data = new ArrayList<>();
-            if (followingArtists.isEmpty()) {
-                data.add(FOLLOWING_PREFIX + " (None)");
-            } else {
-                String artistNames = followingArtists.stream()
-                        .map(Artist::getNickName)
-                        .collect(Collectors.joining(","));
-                data.add(FOLLOWING_PREFIX + artistNames);
-            }
-            writeFile(filePath, data);
-            invalidateUserCache();
-        } catch (Exception e) {
-            System.err.println("Failed to save following artists for user: " + nickName + ", error: " + e.getMessage());
-            throw new RuntimeException("Failed to save following artists", e);
-        }
+    public boolean unfollowArtist(String nickName, String artistNickName) {
+        validateInput(nickName, "Nickname");
+        validateInput(artistNickName, "Artist nickname");
+        return FollowGraph.getInstance().unfollow(nickName, artistNickName);
     }
 
-    public List<Artist> loadFollowingArtistsFromFile(String nickName, List<Artist> allArtists) {
+    public boolean isFollowing(String nickName, String artistNickName) {
+        if (nickName == null || artistNickName == null) return false;
+        return FollowGraph.getInstance().isFollowing(nickName, artistNickName);
+    }
+
+    public int getFollowingCount(String nickName) {
         validateInput(nickName, "Nickname");
-        String filePath = getFollowingsFilePath(nickName);
-        if (!Files.exists(Paths.get(filePath))) {
-            return new ArrayList<>();
-        }
+        return FollowGraph.getInstance().followingCount(nickName);
+    }
 
-        try {
-            if (allArtists == null || allArtists.isEmpty()) {
-                System.out.println("No artists provided for user: " + nickName + ", returning empty list");
-                return new ArrayList<>();
-            }
+    public List<String> loadFollowingArtistNames(String nickName, int offset, int limit) {
+        validateInput(nickName, "Nickname");
+        return FollowGraph.getInstance().following(nickName, offset, limit);
+    }
 
-            Map<String, Artist> artistMap = allArtists.stream()
-                    .collect(Collectors.toMap(Artist::getNickName, a -> a, (a1, a2) -> a1));
-
-            List<String> artistData = readFile(filePath);
-            List<Artist> followingArtists = new ArrayList<>();
-            for (String line : artistData) {
-                if (line.startsWith(FOLLOWING_PREFIX)) {
-                    String[] artistNames = line.replace(FOLLOWING_PREFIX, "").split(",");
-                    for (String artistName : artistNames) {
-                        String trimmedName = artistName.trim();
-                        if (!trimmedName.isEmpty() && !trimmedName.equals("(None)")) {
-                            Artist artist = artistMap.get(trimmedName);
-                            if (artist != null) {
-                                followingArtists.add(artist);
-                            } else {
-                                System.err.println("Artist not found: " + trimmedName + " for user: " + nickName);
-                            }
-                        }
-                    }
-                }
-            }
-            return followingArtists;
-        } catch (Exception e) {
-            System.err.println("Failed to load following artists for user: " + nickName + ", error: " + e.getMessage());
-            throw new RuntimeException("Failed to load following artists", e);
-        }
+    // Newest first: songs released by the artists the user follows
+    public List<ReleaseDTO> loadReleaseFeed(String nickName, int offset, int limit) {
+        validateInput(nickName, "Nickname");
+        return ReleaseFeed.getInstance().feed(nickName, offset, limit);
     }
 
     public List<User> loadAllUsers() {
@@ -114,52 +83,76 @@ public class UserFileManager extends FileManager {
     }
 
     private Map<String, User> getUserMap() {
-        if (userMapCache == null) {
-            try {
-                List<User> users = new ArrayList<>();
-                File usersDir = new File(USERS_DIR);
-                if (!usersDir.exists() || !usersDir.isDirectory()) {
-                    System.err.println("Users directory does not exist or is not a directory: " + USERS_DIR);
-                } else {
-                    File[] userDirs = usersDir.listFiles(File::isDirectory);
-                    if (userDirs == null) {
-                        System.err.println("Failed to list user directories: " + USERS_DIR);
-                        throw new IllegalStateException("Failed to list user directories: " + USERS_DIR);
-                    }
+        Map<String, User> cached = userMapCache;
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            List<User> users = new ArrayList<>();
+            File usersDir = new File(USERS_DIR);
+            if (!usersDir.exists() || !usersDir.isDirectory()) {
+                Log.warn("Users directory does not exist or is not a directory: {}", USERS_DIR);
+            } else {
+                File[] userDirs = usersDir.listFiles(File::isDirectory);
+                if (userDirs == null) {
+                    Log.error("Failed to list user directories: {}", USERS_DIR);
+                    throw new IllegalStateException("Failed to list user directories: " + USERS_DIR);
+                }
 
-                    for (File userDir : userDirs) {
-                        File[] userFiles = userDir.listFiles((d, name) -> name.endsWith(".txt") && !name.equals(FOLLOWINGS_FILE_NAME));
-                        if (userFiles == null) {
-                            System.err.println("Failed to list files in user directory: " + userDir.getPath());
-                            throw new IllegalStateException("Failed to list files in user directory: " + userDir.getPath());
-                        }
+                for (File userDir : userDirs) {
+                    File[] userFiles = userDir.listFiles((d, name) -> name.endsWith(".txt") && !name.equals(FOLLOWINGS_FILE_NAME));
+                    if (userFiles == null) {
+                        Log.error("Failed to list files in user directory: {}", userDir.getPath());
+                        throw new IllegalStateException("Failed to list files in user directory: " + userDir.getPath());
+                    }
 
-                        for (File file : userFiles) {
-                            try {
-                                Account account = loadAccountFromFile(file);
-                                if (account instanceof User user) {
-                                    users.add(user);
-                                }
-                            } catch (IllegalStateException e) {
-                                System.err.println("Failed to load user from file: " + file.getPath() + ", error: " + e.getMessage());
+                    for (File file : userFiles) {
+                        try {
+                            Account account = loadAccountFromFile(file);
+                            if (account instanceof User user) {
+                                users.add(user);
                             }
+                        } catch (IllegalStateException e) {
+                            Log.error("Failed to load user from file: {}, error: {}", file.getPath(), e.getMessage());
                         }
                     }
                 }
-                userMapCache = users.stream()
-                        .collect(Collectors.toMap(User::getNickName, u -> u, (u1, u2) -> u1));
-                System.out.println("User map cache initialized with " + userMapCache.size() + " users");
-            } catch (Exception e) {
-                System.err.println("Failed to load users for cache: " + e.getMessage());
-                throw new RuntimeException("Failed to load users", e);
             }
+            cached = users.stream()
+                    .collect(Collectors.toMap(User::getNickName, u -> u, (u1, u2) -> u1, ConcurrentHashMap::new));
+            userMapCache = cached;
+            Log.debug("User map cache initialized with {} users", cached.size());
+        } catch (Exception e) {
+            Log.error("Failed to load users for cache: {}", e.getMessage());
+            throw new RuntimeException("Failed to load users", e);
+        }
+        return cached;
+    }
+
+    // Reloads one user into the cache, or drops it if its account file is gone; a cache not built yet stays unbuilt
+    public void refreshUser(String nickName) {
+        validateInput(nickName, "Nickname");
+        if (userMapCache == null) return;
+        try {
+            if (loadAccountByNickName(nickName) instanceof User user) {
+                cacheUser(user);
+                return;
+            }
+        } catch (IllegalStateException e) {
+            Log.debug("User {} not found while refreshing cache: {}", nickName, e.getMessage());
         }
-        return userMapCache;
+        Map<String, User> cached = userMapCache;
+        if (cached != null) cached.remove(nickName);
+    }
+
+    private void cacheUser(User user) {
+        Map<String, User> cached = userMapCache;
+        if (cached != null) cached.put(user.getNickName(), user);
     }
 
     public void invalidateUserCache() {
         userMapCache = null;
-        System.out.println("User cache invalidated");
+        Log.debug("User cache invalidated");
     }
 
     private String getUserDir(String nickName) {
@@ -167,9 +160,4 @@ public class UserFileManager extends FileManager {
         return USERS_DIR + safeNickName + "/";
     }
 
-    private String getFollowingsFilePath(String nickName) {
-        String userDir = getUserDir(nickName);
-        ensureDataDirectoryExists(userDir);
-        return userDir + FOLLOWINGS_FILE_NAME;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package utils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+// In-memory cache bounded by total weight, evicting the least recently or least frequently used entries first, with
+// an optional time-to-live and hit/miss/eviction counters. Loads run outside the lock; a load that overlaps an
+// invalidation is returned to its caller but not cached, so a slow reader can't reinstate data a writer just replaced.
+public final class BoundedCache<K, V> {
+    public enum Policy { LRU, LFU }
+
+    public record Stats(String name, long hits, long misses, long evictions, int size, long weight) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d hits, %d misses (%.1f%%), %d evictions, %d entries, weight %d",
+                    name, hits, misses, hitRate() * 100, evictions, size, weight);
+        }
+    }
+
+    private final class Node {
+        private final K key;
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+        private long frequency;
+        private long lastAccess;
+
+        private Node(K key, V value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final long ttlNanos;
+    private final Map<K, Node> nodes = new HashMap<>();
+    // Eviction order: first element goes first
+    private final TreeSet<Node> evictionOrder;
+    private long totalWeight;
+    private long clock;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedCache(String name, long maxWeight, ToLongFunction<? super V> weigher, Policy policy, Duration ttl) {
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Cache name cannot be null or empty");
+        if (maxWeight < 0) throw new IllegalArgumentException("Max weight cannot be negative");
+        if (weigher == null) throw new IllegalArgumentException("Weigher cannot be null");
+        if (policy == null) throw new IllegalArgumentException("Eviction policy cannot be null");
+        if (ttl != null && ttl.isNegative()) throw new IllegalArgumentException("TTL cannot be negative");
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlNanos = ttl == null || ttl.isZero() ? 0 : ttl.toNanos();
+        Comparator<Node> byRecency = Comparator.comparingLong(node -> node.lastAccess);
+        this.evictionOrder = new TreeSet<>(policy == Policy.LFU
+                ? Comparator.<Node>comparingLong(node -> node.frequency).thenComparing(byRecency)
+                : byRecency);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        Node node = lookup(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        touch(node);
+        return node.value;
+    }
+
+    // Null results are returned but never cached
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (loader == null) throw new IllegalArgumentException("Loader cannot be null");
+        long loadGeneration;
+        synchronized (this) {
+            Node node = lookup(key);
+            if (node != null) {
+                hits++;
+                touch(node);
+                return node.value;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    store(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        if (value == null) throw new IllegalArgumentException("Value cannot be null");
+        store(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        Node node = nodes.remove(key);
+        if (node != null) unlink(node);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> keyFilter) {
+        if (keyFilter == null) throw new IllegalArgumentException("Key filter cannot be null");
+        generation++;
+        Iterator<Node> iterator = nodes.values().iterator();
+        while (iterator.hasNext()) {
+            Node node = iterator.next();
+            if (keyFilter.test(node.key)) {
+                iterator.remove();
+                unlink(node);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        nodes.clear();
+        evictionOrder.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, hits, misses, evictions, nodes.size(), totalWeight);
+    }
+
+    private Node lookup(K key) {
+        Node node = nodes.get(key);
+        if (node != null && node.expiresAt != 0 && System.nanoTime() - node.expiresAt >= 0) {
+            nodes.remove(key);
+            unlink(node);
+            return null;
+        }
+        return node;
+    }
+
+    private void touch(Node node) {
+        evictionOrder.remove(node);
+        node.frequency++;
+        node.lastAccess = ++clock;
+        evictionOrder.add(node);
+    }
+
+    private void store(K key, V value) {
+        Node previous = nodes.remove(key);
+        if (previous != null) unlink(previous);
+
+        long weight = weigher.applyAsLong(value);
+        if (weight < 0) throw new IllegalStateException("Weigher returned a negative weight for " + key + " in cache " + name);
+        // An entry that can never fit is not worth displacing everything else for
+        if (weight > maxWeight) return;
+
+        Node node = new Node(key, value, weight, ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos);
+        node.frequency = 1;
+        node.lastAccess = ++clock;
+        nodes.put(key, node);
+        evictionOrder.add(node);
+        totalWeight += weight;
+
+        while (totalWeight > maxWeight) {
+            // Under LFU a fresh entry always has the lowest count, so it is spared or it could never get in
+            Node victim = evictionOrder.first() != node ? evictionOrder.first() : evictionOrder.higher(node);
+            evictionOrder.remove(victim);
+            nodes.remove(victim.key);
+            totalWeight -= victim.weight;
+            evictions++;
+        }
+    }
+
+    private void unlink(Node node) {
+        evictionOrder.remove(node);
+        totalWeight -= node.weight;
+    }
+}
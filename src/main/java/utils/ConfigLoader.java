@@ -2,6 +2,7 @@ package utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Properties;
 
 public class ConfigLoader {
@@ -72,6 +73,121 @@ public class ConfigLoader {
         }
     }
 
+    // Whether atomic writes force file contents to disk before replacing the target
+    public boolean isFsyncEnabled() {
+        String value = properties.getProperty("file.fsync");
+        return value != null && Boolean.parseBoolean(value.trim());
+    }
+
+    // Threads used to load artists' catalogs in parallel; 0 or unset means one per available processor
+    public int getCatalogLoaderThreads() {
+        String value = properties.getProperty("catalog.loader.threads");
+        int threads;
+        try {
+            threads = value == null || value.trim().isEmpty() ? 0 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid catalog.loader.threads value: " + value + ". It must be a valid integer.", e);
+        }
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getBackgroundIoThreads() {
+        String value = properties.getProperty("background.io.threads");
+        int threads;
+        try {
+            threads = value == null || value.trim().isEmpty() ? 2 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid background.io.threads value: " + value + ". It must be a valid integer.", e);
+        }
+        if (threads <= 0) throw new ConfigLoadException("Invalid background.io.threads value: " + value + ". It must be positive.");
+        return threads;
+    }
+
+    // Settings for a named BoundedCache: cache.<name>.max.weight, cache.<name>.policy and cache.<name>.ttl.seconds
+    public long getCacheMaxWeight(String cacheName, long defaultWeight) {
+        String key = "cache." + cacheName + ".max.weight";
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return defaultWeight;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It must be a valid long integer.", e);
+        }
+    }
+
+    public BoundedCache.Policy getCachePolicy(String cacheName, BoundedCache.Policy defaultPolicy) {
+        String key = "cache." + cacheName + ".policy";
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return defaultPolicy;
+        try {
+            return BoundedCache.Policy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigLoadException("Invalid " + key + " value: " + value + ". Expected LRU or LFU.", e);
+        }
+    }
+
+    // Zero or unset means entries never expire
+    public Duration getCacheTtl(String cacheName) {
+        String key = "cache." + cacheName + ".ttl.seconds";
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return Duration.ZERO;
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It must be a whole number of seconds.", e);
+        }
+    }
+
+    // Half-life of the decay applied within a trending window: charts.trending.<window>.half.life.minutes, 0 disables decay
+    public Duration getTrendingHalfLife(String window, Duration defaultHalfLife) {
+        String key = "charts.trending." + window + ".half.life.minutes";
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return defaultHalfLife;
+        try {
+            long minutes = Long.parseLong(value.trim());
+            if (minutes < 0) throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It cannot be negative.");
+            return Duration.ofMinutes(minutes);
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It must be a whole number of minutes.", e);
+        }
+    }
+
+    // Song counter log: how often queued increments are appended, how often and after how many events they are compacted
+    public long getCounterFlushIntervalMillis() {
+        return getPositiveLong("counters.flush.interval.ms", 200);
+    }
+
+    public long getCounterCompactionIntervalMillis() {
+        return getPositiveLong("counters.compaction.interval.seconds", 30) * 1000;
+    }
+
+    public int getCounterCompactionThreshold() {
+        return (int) Math.min(Integer.MAX_VALUE, getPositiveLong("counters.compaction.threshold", 500));
+    }
+
+    public Log.Level getLogLevel() {
+        String value = properties.getProperty("log.level");
+        if (value == null || value.trim().isEmpty()) return Log.Level.INFO;
+        try {
+            return Log.Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigLoadException("Invalid log.level value: " + value + ". Expected one of DEBUG, INFO, WARN, ERROR, OFF.", e);
+        }
+    }
+
+    private long getPositiveLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        long parsed;
+        try {
+            parsed = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It must be a valid long integer.", e);
+        }
+        if (parsed <= 0) throw new ConfigLoadException("Invalid " + key + " value: " + value + ". It must be positive.");
+        return parsed;
+    }
+
     private String getRequiredProperty(String key) {
         String value = properties.getProperty(key);
         if (value == null || value.trim().isEmpty()) {
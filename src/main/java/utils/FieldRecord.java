@@ -0,0 +1,62 @@
+package utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of a "Key: value" metadata file (song, album, account, request), tokenized in a single pass.
+// Like extractField, the first occurrence of a key wins and values are trimmed; lines without ": " are ignored.
+public final class FieldRecord {
+    private static final String SEPARATOR = ": ";
+
+    private final Map<String, String> fields;
+
+    private FieldRecord(Map<String, String> fields) {
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    public static FieldRecord parse(List<String> lines) {
+        if (lines == null) throw new IllegalArgumentException("Lines cannot be null");
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            int separator = trimmed.indexOf(SEPARATOR);
+            if (separator <= 0) continue;
+            fields.putIfAbsent(trimmed.substring(0, separator), trimmed.substring(separator + SEPARATOR.length()).trim());
+        }
+        return new FieldRecord(fields);
+    }
+
+    public static FieldRecord read(String filePath) {
+        return parse(FileUtil.readFile(filePath));
+    }
+
+    // Accepts the key with or without its ": " suffix, so existing prefix constants can be passed as they are
+    public String get(String key) {
+        return fields.get(key.endsWith(SEPARATOR) ? key.substring(0, key.length() - SEPARATOR.length()) : key);
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public boolean has(String key) {
+        return get(key) != null;
+    }
+
+    public Map<String, String> asMap() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+}
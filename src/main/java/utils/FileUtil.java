@@ -1,23 +1,28 @@
 package utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
 
 public class FileUtil {
     public static final String DATA_DIR;
     static {
         String loadedDir = ConfigLoader.getInstance().getDataDirectory();
         if (loadedDir == null || loadedDir.trim().isEmpty()) {
-            System.err.println("ConfigLoader returned invalid DATA_DIR, using default: data/");
+            Log.warn("ConfigLoader returned invalid DATA_DIR, using default: data/");
             DATA_DIR = "data/"; // Fallback to default path
         } else {
             DATA_DIR = loadedDir.endsWith("/") ? loadedDir : loadedDir + "/";
-            System.out.println("DATA_DIR set to: " + DATA_DIR); // Debug log
+            Log.debug("DATA_DIR set to: {}", DATA_DIR);
         }
     }
     public static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final boolean FSYNC = ConfigLoader.getInstance().isFsyncEnabled();
 
     public static void ensureDataDirectoryExists(String dir) {
         try {
@@ -26,12 +31,11 @@ public class FileUtil {
             if (!Files.isWritable(path)) {
                 throw new IOException("Directory is not writable: " + dir);
             }
-            System.out.println("Ensured directory exists and is writable: " + dir);
+            Log.debug("Ensured directory exists and is writable: {}", dir);
         } catch (IOException e) {
-            System.err.println("Error creating directory: " + dir + " - " + e.getMessage());
+            Log.error("Error creating directory: {} - {}", dir, e.getMessage());
             e.printStackTrace();
-            AlertUtil.showError("Failed to create directory: " + dir + " - " + e.getMessage());
-            throw new IllegalStateException("Cannot create directory: " + dir, e);
+            throw new IllegalStateException("Cannot create directory: " + dir + " - " + e.getMessage(), e);
         }
     }
 
@@ -39,10 +43,20 @@ public class FileUtil {
         return name != null ? name.replaceAll("[^a-zA-Z0-9 _.-]", "_") : "";
     }
 
-    public static synchronized List<String> readFile(String fileName) {
+    public static List<String> readFile(String fileName) {
+        Lock lock = PathLocks.forPath(fileName).readLock();
+        lock.lock();
+        try {
+            return readLines(fileName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<String> readLines(String fileName) {
         File file = new File(fileName);
         if (!file.exists()) {
-            System.err.println("File not found: " + fileName);
+            Log.warn("File not found: {}", fileName);
             throw new IllegalStateException("File not found: " + fileName);
         }
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
@@ -54,53 +68,97 @@ public class FileUtil {
                     lines.add(trimmedLine);
                 }
             }
-            System.out.println("Read file " + fileName + " with lines: " + lines);
+            Log.debug("Read file {} with lines: {}", fileName, lines);
             return lines;
         } catch (IOException e) {
-            System.err.println("Error reading file: " + fileName + " - " + e.getMessage());
+            Log.error("Error reading file: {} - {}", fileName, e.getMessage());
             e.printStackTrace();
-            AlertUtil.showError("Failed to read file: " + fileName + " - " + e.getMessage());
-            throw new IllegalStateException("Cannot read file: " + fileName, e);
+            throw new IllegalStateException("Cannot read file: " + fileName + " - " + e.getMessage(), e);
+        }
+    }
+
+    public static void writeFile(String filePath, List<String> data) {
+        writeFiles(Map.of(filePath, data));
+    }
+
+    public static void writeFile(String filePath, String data) {
+        commit(Map.of(filePath, data.getBytes()));
+    }
+
+    // Writes several files as one unit: every new content is staged in a sibling temp file before any target is
+    // replaced, so a failure while staging leaves all targets untouched and no target is ever seen half-written
+    public static void writeFiles(Map<String, List<String>> files) {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : files.entrySet()) {
+            StringBuilder builder = new StringBuilder();
+            for (String line : entry.getValue()) {
+                builder.append(line).append(System.lineSeparator());
+            }
+            contents.put(entry.getKey(), builder.toString().getBytes());
         }
+        commit(contents);
     }
 
-    public static synchronized void writeFile(String filePath, List<String> data) {
+    private static void commit(Map<String, byte[]> contents) {
+        List<Lock> locks = PathLocks.writeLocksFor(contents.keySet());
+        locks.forEach(Lock::lock);
+        Map<Path, Path> staged = new LinkedHashMap<>();
         try {
-            Path path = Paths.get(filePath);
-            Path parentDir = path.getParent();
-            if (parentDir != null && (!Files.exists(parentDir) || !Files.isWritable(parentDir))) {
-                ensureDataDirectoryExists(parentDir.toString());
-                if (!Files.isWritable(parentDir)) {
-                    throw new IOException("No write permission for directory: " + parentDir);
-                }
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                Path target = Paths.get(entry.getKey());
+                ensureParentWritable(target);
+                staged.put(target, stage(target, entry.getValue()));
+            }
+            for (Map.Entry<Path, Path> entry : staged.entrySet()) {
+                replace(entry.getValue(), entry.getKey());
+                Log.debug("Successfully wrote to file: {}", entry.getKey());
             }
-            Files.write(path, data, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            System.out.println("Successfully wrote to file: " + filePath);
         } catch (IOException e) {
-            System.err.println("Error writing file: " + filePath + " - " + e.getMessage());
+            staged.values().forEach(temp -> temp.toFile().delete());
+            String paths = String.join(", ", contents.keySet());
+            Log.error("Error writing file: {} - {}", paths, e.getMessage());
             e.printStackTrace();
-            AlertUtil.showError("Failed to write file: " + filePath + " - " + e.getMessage());
-            throw new IllegalStateException("Cannot write to file: " + filePath, e);
+            throw new IllegalStateException("Cannot write to file: " + paths + " - " + e.getMessage(), e);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
         }
     }
 
-    public static synchronized void writeFile(String filePath, String data) {
-        try {
-            Path path = Paths.get(filePath);
-            Path parentDir = path.getParent();
-            if (parentDir != null && (!Files.exists(parentDir) || !Files.isWritable(parentDir))) {
-                ensureDataDirectoryExists(parentDir.toString());
-                if (!Files.isWritable(parentDir)) {
-                    throw new IOException("No write permission for directory: " + parentDir);
-                }
+    private static void ensureParentWritable(Path path) throws IOException {
+        Path parentDir = path.getParent();
+        if (parentDir != null && (!Files.exists(parentDir) || !Files.isWritable(parentDir))) {
+            ensureDataDirectoryExists(parentDir.toString());
+            if (!Files.isWritable(parentDir)) {
+                throw new IOException("No write permission for directory: " + parentDir);
+            }
+        }
+    }
+
+    // The temp name is fixed per target; writers of one target are serialized by its path lock
+    private static Path stage(Path target, byte[] data) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (FSYNC) {
+                channel.force(true);
             }
-            Files.write(path, data.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            System.out.println("Successfully wrote to file: " + filePath);
         } catch (IOException e) {
-            System.err.println("Error writing file: " + filePath + " - " + e.getMessage());
-            e.printStackTrace();
-            AlertUtil.showError("Failed to write file: " + filePath + " - " + e.getMessage());
-            throw new IllegalStateException("Cannot write to file: " + filePath, e);
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -118,7 +176,7 @@ public class FileUtil {
                     }
                 }
                 if (directory.delete()) {
-                    System.out.println("Successfully deleted directory: " + directory.getPath());
+                    Log.debug("Successfully deleted directory: {}", directory.getPath());
                     return true;
                 } else {
                     throw new IOException("Failed to delete directory: " + directory.getPath());
@@ -126,7 +184,7 @@ public class FileUtil {
             }
             return false;
         } catch (IOException e) {
-            System.err.println("Error deleting directory or file " + directory.getPath() + ": " + e.getMessage());
+            Log.error("Error deleting directory or file {}: {}", directory.getPath(), e.getMessage());
             e.printStackTrace();
             return false;
         }
@@ -142,7 +200,7 @@ public class FileUtil {
         if (!oldDir.renameTo(newDir)) {
             throw new IOException("Failed to rename directory from " + oldDir.getPath() + " to " + newDir.getPath());
         }
-        System.out.println("Successfully renamed directory from " + oldDir.getPath() + " to " + newDir.getPath());
+        Log.debug("Successfully renamed directory from {} to {}", oldDir.getPath(), newDir.getPath());
     }
 
     public static void renameFile(String oldPath, String newPath) throws IOException {
@@ -157,7 +215,7 @@ public class FileUtil {
         if (!oldFile.renameTo(newFile)) {
             throw new IOException("Failed to rename file from " + oldPath + " to " + newPath);
         }
-        System.out.println("Successfully renamed file from " + oldPath + " to " + newPath);
+        Log.debug("Successfully renamed file from {} to {}", oldPath, newPath);
     }
 
     public static File ensureAndGetFile(String filePath) throws IOException {
@@ -170,33 +228,34 @@ public class FileUtil {
             if (!file.createNewFile()) {
                 throw new IOException("Failed to create file: " + filePath);
             }
-            System.out.println("Created new file: " + filePath);
+            Log.debug("Created new file: {}", filePath);
         }
         return file;
     }
 
-    public static synchronized void readAndUpdateFile(String filePath, List<String> updatedData) {
+    // Read-modify-write of one file under its write lock; a missing file is updated from an empty list
+    public static void updateFile(String filePath, UnaryOperator<List<String>> update) {
+        Lock lock = PathLocks.forPath(filePath).writeLock();
+        lock.lock();
         try {
-            writeFile(filePath, updatedData);
-            readFile(filePath);
-        } catch (Exception e) {
-            System.err.println("Failed to update file: " + filePath + " - " + e.getMessage());
-            e.printStackTrace();
-            throw new IllegalStateException("Failed to update file: " + filePath, e);
+            List<String> lines = Files.exists(Paths.get(filePath)) ? readLines(filePath) : new ArrayList<>();
+            writeFile(filePath, update.apply(lines));
+        } finally {
+            lock.unlock();
         }
     }
 
     public static String extractField(List<String> data, String prefix) {
-        System.out.println("Extracting field with prefix: '" + prefix + "' from data: " + data);
+        Log.debug("Extracting field with prefix: '{}' from data: {}", prefix, data);
         for (String line : data) {
             line = line.trim();
             if (line.startsWith(prefix)) {
                 String value = line.substring(prefix.length()).trim();
-                System.out.println("Extracted " + prefix + " as: '" + value + "' from line: '" + line + "'");
+                Log.debug("Extracted {} as: '{}' from line: '{}'", prefix, value, line);
                 return value;
             }
         }
-        System.out.println("No " + prefix + " found in data: " + data);
+        Log.debug("No {} found in data: {}", prefix, data);
         return null;
     }
 }
\ No newline at end of file
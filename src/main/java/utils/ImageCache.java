@@ -0,0 +1,92 @@
+package utils;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import services.file.Thumbnails;
+
+import java.io.File;
+import java.net.URL;
+
+// Decoded images for ImageViews, loaded in the background at the view's display size and kept in a bounded LRU.
+// File images are keyed by path, modification time and file size as well as the display size, so a replaced file is
+// decoded afresh and the old entry simply ages out. A fresh thumbnail is used instead of the original whenever it is big enough for the view.
+public final class ImageCache {
+    private static final String DEFAULT_IMAGE_PATH = "/pics/Genius.com_logo_yellow.png";
+    // Decoded images are 4 bytes per pixel
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final BoundedCache<String, Image> IMAGES = new BoundedCache<>("images",
+            ConfigLoader.getInstance().getCacheMaxWeight("images", 64L * 1024 * 1024),
+            image -> (long) (image.getRequestedWidth() * image.getRequestedHeight()) * BYTES_PER_PIXEL,
+            ConfigLoader.getInstance().getCachePolicy("images", BoundedCache.Policy.LRU),
+            ConfigLoader.getInstance().getCacheTtl("images"));
+
+    private ImageCache() {}
+
+    // Shows imagePath in imageView, or the default image if the file is missing or can't be decoded
+    public static void load(ImageView imageView, String imagePath) {
+        if (imageView == null) return;
+        File file = imagePath != null && !imagePath.trim().isEmpty() ? new File(imagePath) : null;
+        if (file == null || !file.isFile()) {
+            loadDefault(imageView);
+            return;
+        }
+
+        double width = imageView.getFitWidth();
+        double height = imageView.getFitHeight();
+        String source = file.getPath();
+        if (width > 0 && height > 0 && width <= Thumbnails.SIZE && height <= Thumbnails.SIZE) {
+            String thumbnail = Thumbnails.freshThumbnail(source);
+            if (thumbnail != null) source = thumbnail;
+        }
+        File sourceFile = new File(source);
+        String key = sourceFile.getAbsolutePath() + "|" + sourceFile.lastModified() + "|" + sourceFile.length()
+                + "|" + (int) width + "x" + (int) height;
+        show(imageView, key, sourceFile.toURI().toString(), width, height, true);
+    }
+
+    public static void loadDefault(ImageView imageView) {
+        loadResource(imageView, DEFAULT_IMAGE_PATH);
+    }
+
+    public static void loadResource(ImageView imageView, String resourcePath) {
+        if (imageView == null) return;
+        URL resource = ImageCache.class.getResource(resourcePath);
+        if (resource == null) {
+            Log.warn("Image not found in resources: {}", resourcePath);
+            return;
+        }
+        double width = imageView.getFitWidth();
+        double height = imageView.getFitHeight();
+        show(imageView, "resource:" + resourcePath + "|" + (int) width + "x" + (int) height, resource.toExternalForm(), width, height, false);
+    }
+
+    public static BoundedCache.Stats stats() {
+        return IMAGES.stats();
+    }
+
+    private static void show(ImageView imageView, String key, String url, double width, double height, boolean fallBackToDefault) {
+        // Without a fit size the decoded size isn't known up front, so it can't be weighed; load it uncached
+        boolean cacheable = width > 0 && height > 0;
+        Image image = cacheable ? IMAGES.getIfPresent(key) : null;
+        if (image == null) {
+            // Decoded on JavaFX's background loader, straight to the display size
+            image = new Image(url, Math.max(0, width), Math.max(0, height), true, true, true);
+            if (cacheable) IMAGES.put(key, image);
+            Image loading = image;
+            Runnable onError = () -> {
+                Log.error("Error loading image from {}: {}", url,
+                        loading.getException() != null ? loading.getException().getMessage() : "unknown error");
+                IMAGES.invalidate(key);
+                if (fallBackToDefault && imageView.getImage() == loading) loadDefault(imageView);
+            };
+            image.errorProperty().addListener((observable, wasError, isError) -> {
+                if (isError) onError.run();
+            });
+            imageView.setImage(image);
+            if (image.isError()) onError.run();
+            return;
+        }
+        imageView.setImage(image);
+    }
+}
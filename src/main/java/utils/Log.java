@@ -0,0 +1,63 @@
+package utils;
+
+// Level-gated logging for the file layer. Messages take {} placeholders and are only formatted when their level is
+// enabled, so disabled debug output costs a level check instead of string building. The level comes from log.level.
+public final class Log {
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static volatile Level level = ConfigLoader.getInstance().getLogLevel();
+
+    private Log() {}
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        if (newLevel == null) throw new IllegalArgumentException("Log level cannot be null");
+        level = newLevel;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    public static void debug(String pattern, Object... args) {
+        log(Level.DEBUG, pattern, args);
+    }
+
+    public static void info(String pattern, Object... args) {
+        log(Level.INFO, pattern, args);
+    }
+
+    public static void warn(String pattern, Object... args) {
+        log(Level.WARN, pattern, args);
+    }
+
+    public static void error(String pattern, Object... args) {
+        log(Level.ERROR, pattern, args);
+    }
+
+    private static void log(Level messageLevel, String pattern, Object[] args) {
+        if (!isEnabled(messageLevel)) return;
+        String message = "[" + messageLevel + "] " + format(pattern, args);
+        if (messageLevel.compareTo(Level.WARN) >= 0) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+
+    static String format(String pattern, Object[] args) {
+        if (args == null || args.length == 0) return pattern;
+        StringBuilder builder = new StringBuilder(pattern.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            builder.append(pattern, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        return builder.append(pattern, start, pattern.length()).toString();
+    }
+}
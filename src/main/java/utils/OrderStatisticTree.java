@@ -0,0 +1,230 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// A sorted set that also knows positions: every node counts the nodes below it, so finding an element's index, the
+// element at an index and the elements in an index range are O(log n) (plus the elements returned). Balanced as a
+// treap, so the expected depth is O(log n) whatever order elements arrive in. Not thread-safe.
+public final class OrderStatisticTree<T> {
+    private final class Node {
+        private final T value;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    // Set by the recursive add and remove
+    private boolean modified;
+
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        if (comparator == null) throw new IllegalArgumentException("Comparator cannot be null");
+        this.comparator = comparator;
+    }
+
+    // Builds the tree from values already in comparator order, in O(n) rather than n separate adds
+    public static <T> OrderStatisticTree<T> fromSorted(Comparator<? super T> comparator, List<T> sortedValues) {
+        OrderStatisticTree<T> tree = new OrderStatisticTree<>(comparator);
+        tree.root = tree.build(sortedValues);
+        return tree;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Returns false if an equal element is already present
+    public boolean add(T value) {
+        if (value == null) throw new IllegalArgumentException("Value cannot be null");
+        modified = false;
+        root = insert(root, value);
+        return modified;
+    }
+
+    public boolean remove(T value) {
+        if (value == null) return false;
+        modified = false;
+        root = delete(root, value);
+        return modified;
+    }
+
+    public boolean contains(T value) {
+        return indexOf(value) >= 0;
+    }
+
+    // Zero-based position of value, or -1 if it isn't present
+    public int indexOf(T value) {
+        if (value == null) return -1;
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0) return index + size(node.left);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    public T get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index == leftSize) return node.value;
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Elements at positions [fromIndex, toIndex), clamped to the tree; subtrees outside the range are never visited
+    public List<T> range(int fromIndex, int toIndex) {
+        if (fromIndex < 0) throw new IllegalArgumentException("From index cannot be negative");
+        int end = Math.min(toIndex, size());
+        List<T> values = new ArrayList<>(Math.max(0, end - fromIndex));
+        if (fromIndex < end) collect(root, 0, fromIndex, end, values);
+        return values;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    // Cartesian tree construction: the right spine is kept on a stack, and each value pops the lower-priority nodes
+    // off it to become its left subtree
+    private Node build(List<T> sortedValues) {
+        Deque<Node> rightSpine = new ArrayDeque<>();
+        T previous = null;
+        for (T value : sortedValues) {
+            if (value == null) throw new IllegalArgumentException("Value cannot be null");
+            if (previous != null && comparator.compare(previous, value) >= 0) {
+                throw new IllegalArgumentException("Values must be sorted and distinct");
+            }
+            previous = value;
+            Node node = new Node(value, random.nextInt());
+            Node popped = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                popped = rightSpine.pop();
+            }
+            node.left = popped;
+            if (!rightSpine.isEmpty()) rightSpine.peek().right = node;
+            rightSpine.push(node);
+        }
+        Node top = rightSpine.peekLast();
+        computeSizes(top);
+        return top;
+    }
+
+    private int computeSizes(Node node) {
+        if (node == null) return 0;
+        node.size = 1 + computeSizes(node.left) + computeSizes(node.right);
+        return node.size;
+    }
+
+    private void collect(Node node, int offset, int from, int to, List<T> values) {
+        if (node == null) return;
+        int index = offset + size(node.left);
+        if (from < index) collect(node.left, offset, from, to, values);
+        if (index >= from && index < to) values.add(node.value);
+        if (index + 1 < to) collect(node.right, index + 1, from, to, values);
+    }
+
+    private Node insert(Node node, T value) {
+        if (node == null) {
+            modified = true;
+            return new Node(value, random.nextInt());
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) return node;
+        if (cmp < 0) {
+            node.left = insert(node.left, value);
+            if (node.left.priority > node.priority) return rotateRight(node);
+        } else {
+            node.right = insert(node.right, value);
+            if (node.right.priority > node.priority) return rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, T value) {
+        if (node == null) return null;
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) {
+            modified = true;
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else {
+            node.right = delete(node.right, value);
+        }
+        update(node);
+        return node;
+    }
+
+    // Every element of left sorts before every element of right
+    private Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+}
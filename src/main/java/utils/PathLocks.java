@@ -0,0 +1,47 @@
+package utils;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Fixed set of read/write locks striped by file path: reads of any files run in parallel, writes to one file are exclusive.
+// Two paths may share a stripe, which only costs some parallelism, never correctness.
+public final class PathLocks {
+    private static final int STRIPES = 64;
+    private static final ReadWriteLock[] LOCKS = new ReadWriteLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    private PathLocks() {}
+
+    public static ReadWriteLock forPath(String filePath) {
+        return LOCKS[stripe(filePath)];
+    }
+
+    // Write locks for several paths, deduplicated and in stripe order so concurrent callers never deadlock
+    public static List<Lock> writeLocksFor(Collection<String> filePaths) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (String filePath : filePaths) {
+            stripes.add(stripe(filePath));
+        }
+        List<Lock> locks = new ArrayList<>();
+        for (int stripe : stripes) {
+            locks.add(LOCKS[stripe].writeLock());
+        }
+        return locks;
+    }
+
+    private static int stripe(String filePath) {
+        if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
+        // Normalize so "data/x.txt" and "./data/x.txt" map to the same stripe
+        int hash = Paths.get(filePath).toAbsolutePath().normalize().hashCode();
+        hash ^= hash >>> 16;
+        return hash & (STRIPES - 1);
+    }
+}
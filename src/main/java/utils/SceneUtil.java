@@ -18,7 +18,7 @@ public class SceneUtil {
             stage.setScene(scene);
             stage.show();
         } catch (IOException e) {
-            System.err.println("Error loading scene: " + fxmlPath);
+            Log.error("Error loading scene: {}", fxmlPath);
             throw new RuntimeException("Error loading scene: " + fxmlPath, e);
         }
     }
@@ -0,0 +1,52 @@
+import services.SearchAndChartManager;
+import services.file.ArtistFileManager;
+import services.file.SongFileManager;
+import utils.Log;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Times SearchAndChartManager construction (a full catalog load from the data directory) with DEBUG logging
+// enabled and with the default INFO level. Console output is discarded so only the logging work itself is measured,
+// and the catalog caches are cleared before every load so each round reads the data directory like the first.
+public class CatalogLoadLoggingBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        PrintStream errors = System.err;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        Log.Level originalLevel = Log.getLevel();
+        try {
+            System.setOut(discard);
+            System.setErr(discard);
+            double debugMs = measure(Log.Level.DEBUG);
+            double infoMs = measure(Log.Level.INFO);
+            console.printf("DEBUG: %.1f ms per load%n", debugMs);
+            console.printf("INFO:  %.1f ms per load%n", infoMs);
+            console.printf("speedup: %.2fx%n", debugMs / infoMs);
+        } finally {
+            Log.setLevel(originalLevel);
+            System.setOut(console);
+            System.setErr(errors);
+        }
+    }
+
+    private static double measure(Log.Level level) {
+        Log.setLevel(level);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            load();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            load();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    }
+
+    private static void load() {
+        SongFileManager.clearCaches();
+        new SearchAndChartManager(new ArtistFileManager(), new SongFileManager());
+    }
+}
@@ -0,0 +1,96 @@
+import models.music.Comment;
+import services.file.CommentCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Decodes a 100k-line comments file with CommentCodec and with the previous split/substring/DateTimeFormatter parser.
+// Each round reads the file from disk and decodes every line; the best of several measured rounds is reported.
+public class CommentCodecBenchmark {
+    private static final int COMMENTS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("comment-codec-benchmark", "-comments.txt");
+        try {
+            writeComments(file);
+            List<String> lines = Files.readAllLines(file);
+            checkSameResults(lines);
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                decodeWithCodec(file);
+                decodeWithSplit(file);
+            }
+            long codec = Long.MAX_VALUE;
+            long split = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; i++) {
+                codec = Math.min(codec, time(() -> decodeWithCodec(file)));
+                split = Math.min(split, time(() -> decodeWithSplit(file)));
+            }
+            System.out.printf("comments=%,d  codec=%.1f ms (%,.0f lines/s)  split=%.1f ms (%,.0f lines/s)  speedup=%.2fx%n",
+                    COMMENTS, codec / 1e6, COMMENTS / (codec / 1e9), split / 1e6, COMMENTS / (split / 1e9), (double) split / codec);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeComments(Path file) throws IOException {
+        List<String> lines = new ArrayList<>(COMMENTS);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        for (int i = 0; i < COMMENTS; i++) {
+            String text = "Comment number " + i + " on this track, the chorus at 1:" + (i % 60) + " is great";
+            lines.add(CommentCodec.encode(new Comment("user" + (i % 500), text, time.plusSeconds(i * 37L))));
+        }
+        Files.write(file, lines);
+    }
+
+    private static void checkSameResults(List<String> lines) {
+        for (String line : lines) {
+            Comment codec = CommentCodec.decode(line);
+            Comment split = parseWithSplit(line);
+            if (!codec.getUserNickName().equals(split.getUserNickName()) || !codec.getText().equals(split.getText())
+                    || !codec.getTimestamp().equals(split.getTimestamp())) {
+                throw new IllegalStateException("Decoders disagree on line: " + line);
+            }
+        }
+    }
+
+    private static int decodeWithCodec(Path file) throws IOException {
+        int decoded = 0;
+        for (String line : Files.readAllLines(file)) {
+            if (CommentCodec.decode(line) != null) decoded++;
+        }
+        return decoded;
+    }
+
+    private static int decodeWithSplit(Path file) throws IOException {
+        int decoded = 0;
+        for (String line : Files.readAllLines(file)) {
+            if (parseWithSplit(line) != null) decoded++;
+        }
+        return decoded;
+    }
+
+    // SongFileManager's parser before CommentCodec
+    private static Comment parseWithSplit(String line) {
+        String[] parts = line.split(" \\| ");
+        if (parts.length != 3) throw new IllegalStateException("Invalid comment format, line: " + line);
+        return new Comment(parts[0].substring("User: ".length()), parts[2].substring("Comment: ".length()), LocalDateTime.parse(parts[1].substring("Time: ".length()), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    }
+
+    private interface Round {
+        int run() throws IOException;
+    }
+
+    private static long time(Round round) throws IOException {
+        long begin = System.nanoTime();
+        if (round.run() != COMMENTS) throw new IllegalStateException("Not every comment was decoded");
+        return System.nanoTime() - begin;
+    }
+}
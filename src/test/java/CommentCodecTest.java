@@ -0,0 +1,42 @@
+import models.music.Comment;
+import services.file.CommentCodec;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Round-trips awkward comment texts through CommentCodec and checks that lines written before escaping decode unchanged.
+// Throws on the first mismatch.
+public class CommentCodecTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 3, 9, 7, 5, 1);
+
+    public static void main(String[] args) {
+        List<String> texts = List.of(
+                "Plain comment",
+                "C:\\new folder",
+                "a | b | Comment: c",
+                "two\nlines\r\nand a trailing backslash \\",
+                "\\| \\n \\\\ already escaped looking");
+        for (String text : texts) {
+            Comment decoded = CommentCodec.decode(CommentCodec.encode(new Comment("tester", text, TIME)));
+            check("round trip", text, decoded);
+        }
+
+        // Written by the previous encoder, which didn't escape anything
+        check("legacy backslashes", "C:\\new folder\\readme", CommentCodec.decode("User: tester | Time: 2024-03-09 07:05:01 | Comment: C:\\new folder\\readme"));
+        check("legacy pipes", "a | b \\| c", CommentCodec.decode("User: tester | Time: 2024-03-09 07:05:01 | Comment: a | b \\| c"));
+        check("legacy escapes", "\\r\\n\\\\", CommentCodec.decode("User: tester | Time: 2024-03-09 07:05:01 | Comment: \\r\\n\\\\"));
+
+        // Text that needs no escaping is still written in the original format
+        String plain = CommentCodec.encode(new Comment("tester", "Plain comment", TIME));
+        if (!plain.equals("User: tester | Time: 2024-03-09 07:05:01 | Comment: Plain comment")) {
+            throw new IllegalStateException("Plain comment not written in the original format: " + plain);
+        }
+        System.out.println("CommentCodec checks passed");
+    }
+
+    private static void check(String name, String expectedText, Comment decoded) {
+        if (!decoded.getUserNickName().equals("tester") || !decoded.getTimestamp().equals(TIME) || !decoded.getText().equals(expectedText)) {
+            throw new IllegalStateException(name + ": expected [" + expectedText + "] but decoded [" + decoded.getText() + "]");
+        }
+    }
+}
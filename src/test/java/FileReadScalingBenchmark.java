@@ -0,0 +1,82 @@
+import utils.FileUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Measures FileUtil.readFile throughput with 1..N threads reading different files.
+// Each thread count is run against the path-striped locks and against a single global monitor (the old behaviour).
+public class FileReadScalingBenchmark {
+    private static final int FILES = 256;
+    private static final int READS_PER_THREAD = 20_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final Object GLOBAL_LOCK = new Object();
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("file-read-benchmark");
+        List<String> files = createFiles(dir);
+
+        // FileUtil logs every read; keep the console out of the measurement
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            run(files, false, 1); // warm-up
+            run(files, true, 1);
+            for (int threads : THREAD_COUNTS) {
+                double striped = run(files, false, threads);
+                double global = run(files, true, threads);
+                console.printf("threads=%d  striped=%,.0f reads/s  global=%,.0f reads/s  speedup=%.2fx%n",
+                        threads, striped, global, striped / global);
+            }
+        } finally {
+            System.setOut(console);
+            for (String file : files) Files.deleteIfExists(Path.of(file));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static List<String> createFiles(Path dir) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            Path file = dir.resolve("song" + i + ".txt");
+            Files.write(file, List.of("Song Name: Song " + i, "Artists: artist" + (i % 16), "Likes: " + i, "Views: " + i * 10,
+                    "Release Date: 2024-01-01", "SongArtPath: data/art" + i + ".png"));
+            files.add(file.toString());
+        }
+        return files;
+    }
+
+    private static double run(List<String> files, boolean globalLock, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * (FILES / threads);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < READS_PER_THREAD; i++) {
+                    String file = files.get((offset + i) % FILES);
+                    if (globalLock) {
+                        synchronized (GLOBAL_LOCK) {
+                            FileUtil.readFile(file);
+                        }
+                    } else {
+                        FileUtil.readFile(file);
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return (double) threads * READS_PER_THREAD / (elapsed / 1e9);
+    }
+}
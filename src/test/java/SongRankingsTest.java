@@ -0,0 +1,56 @@
+import models.DTO.SongDTO;
+import models.DTO.SongKey;
+import services.SongRankings;
+import services.SongRankings.Dimension;
+import services.SongRankings.Scope;
+
+import java.util.List;
+
+// Replays the catalog events SongFileManager sends when a song or an album is renamed (the old name deleted, then the
+// new one saved) and checks that no ranking keeps the old name. Throws on the first mismatch.
+public class SongRankingsTest {
+    public static void main(String[] args) {
+        SongRankings rankings = SongRankings.getInstance();
+        rankings.rebuild(List.of(
+                song("Intro", "band", "First", 50),
+                song("Outro", "band", "First", 30),
+                song("Hit", "band", null, 90),
+                song("Other", "solo", null, 10)));
+        checkSize(rankings, Scope.GLOBAL, 4);
+
+        // Single renamed
+        rankings.songDeleted("band", null, "Hit");
+        rankings.songSaved(song("Big Hit", "band", null, 90));
+        checkSize(rankings, Scope.GLOBAL, 4);
+        checkSize(rankings, Scope.artist("band"), 3);
+        check("old single unranked", rankings.rankOf(new SongKey("band", null, "Hit"), Dimension.VIEWS, Scope.GLOBAL) == 0);
+        check("renamed single ranked first", rankings.rankOf(new SongKey("band", null, "Big Hit"), Dimension.VIEWS, Scope.GLOBAL) == 1);
+
+        // Album renamed: its songs are saved again under the new title
+        rankings.albumDeleted("band", "First");
+        rankings.songSaved(song("Intro", "band", "Debut", 50));
+        rankings.songSaved(song("Outro", "band", "Debut", 30));
+        checkSize(rankings, Scope.GLOBAL, 4);
+        checkSize(rankings, Scope.artist("band"), 3);
+        checkSize(rankings, Scope.album("band", "First"), 0);
+        checkSize(rankings, Scope.album("band", "Debut"), 2);
+        check("ranks stay contiguous", rankings.rankOf(new SongKey("band", "Debut", "Outro"), Dimension.VIEWS, Scope.GLOBAL) == 3);
+
+        rankings.clear();
+        System.out.println("SongRankings checks passed");
+    }
+
+    private static SongDTO song(String title, String artist, String album, int views) {
+        String path = "data/artists/" + artist + "/" + (album != null ? "albums/" + album : "singles") + "/" + title + "/" + title + ".txt";
+        return new SongDTO(title, artist, album, views, views / 10, path, "2024-01-01", null);
+    }
+
+    private static void checkSize(SongRankings rankings, Scope scope, int expected) {
+        int size = rankings.size(scope);
+        check(scope + " holds " + expected + " songs, found " + size, size == expected);
+    }
+
+    private static void check(String name, boolean passed) {
+        if (!passed) throw new IllegalStateException("Failed: " + name);
+    }
+}